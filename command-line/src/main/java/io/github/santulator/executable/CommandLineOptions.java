@@ -0,0 +1,105 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.executable;
+
+import io.github.santulator.core.SantaException;
+import io.github.santulator.matcher.MatchingStrategy;
+import io.github.santulator.matcher.StrategySelector;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Arguments to a console executable: the input and output paths and an
+ * optional strategy name, with options starting with two dashes allowed
+ * anywhere among them.
+ */
+public final class CommandLineOptions {
+    private static final String OPTION_PREFIX = "--";
+
+    private static final String COUNT_OPTION = "--count";
+
+    private static final String SEED_OPTION = "--seed=";
+
+    private static final int INPUT_ARGUMENT = 0;
+
+    private static final int OUTPUT_ARGUMENT = 1;
+
+    private static final int STRATEGY_ARGUMENT = 2;
+
+    private final List<String> arguments;
+
+    private final boolean isCounting;
+
+    private final OptionalLong seed;
+
+    private CommandLineOptions(final List<String> arguments, final boolean isCounting, final OptionalLong seed) {
+        this.arguments = List.copyOf(arguments);
+        this.isCounting = isCounting;
+        this.seed = seed;
+    }
+
+    public static CommandLineOptions parse(final String... args) {
+        List<String> arguments = new ArrayList<>();
+        boolean isCounting = false;
+        OptionalLong seed = OptionalLong.empty();
+
+        for (String arg : args) {
+            if (COUNT_OPTION.equals(arg)) {
+                isCounting = true;
+            } else if (arg.startsWith(SEED_OPTION)) {
+                seed = OptionalLong.of(seed(arg.substring(SEED_OPTION.length())));
+            } else if (arg.startsWith(OPTION_PREFIX)) {
+                throw new SantaException(String.format("Unknown option '%s'", arg));
+            } else {
+                arguments.add(arg);
+            }
+        }
+        if (arguments.size() <= OUTPUT_ARGUMENT || arguments.size() > STRATEGY_ARGUMENT + 1) {
+            throw new SantaException("Usage: <input> <output> [strategy] [--count] [--seed=<seed>]");
+        }
+
+        return new CommandLineOptions(arguments, isCounting, seed);
+    }
+
+    private static long seed(final String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (final NumberFormatException e) {
+            throw new SantaException(String.format("Invalid seed '%s'", value), e);
+        }
+    }
+
+    public Path getInput() {
+        return Paths.get(arguments.get(INPUT_ARGUMENT));
+    }
+
+    public Path getOutput() {
+        return Paths.get(arguments.get(OUTPUT_ARGUMENT));
+    }
+
+    public MatchingStrategy getStrategy() {
+        return arguments.size() > STRATEGY_ARGUMENT ? StrategySelector.forName(arguments.get(STRATEGY_ARGUMENT)) : new StrategySelector();
+    }
+
+    /**
+     * Counting the possible draws can take much longer than the draw itself,
+     * so it is only done when asked for.
+     */
+    public boolean isCounting() {
+        return isCounting;
+    }
+
+    /**
+     * The seed logged by an earlier draw, to draw the same participants
+     * again exactly.  It takes the place of any seed saved in a session file.
+     */
+    public OptionalLong getSeed() {
+        return seed;
+    }
+}
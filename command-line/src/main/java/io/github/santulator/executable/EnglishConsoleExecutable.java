@@ -8,7 +8,7 @@ import com.google.inject.Guice;
 import com.google.inject.Injector;
 import io.github.santulator.writer.WriterModule;
 
-import java.nio.file.Paths;
+import java.nio.file.Files;
 import java.util.Locale;
 
 public final class EnglishConsoleExecutable {
@@ -17,9 +17,14 @@ public final class EnglishConsoleExecutable {
     }
 
     public static void main(final String[] args) {
-        Injector injector = Guice.createInjector(new SantaModule(Locale.UK), new WriterModule());
+        CommandLineOptions options = CommandLineOptions.parse(args);
+        Injector injector = Guice.createInjector(new SantaModule(Locale.UK, options.getStrategy()), new WriterModule());
         SimpleSantaRunner runner = injector.getInstance(SimpleSantaRunner.class);
 
-        runner.run(Paths.get(args[0]), Paths.get(args[1]));
+        if (Files.isDirectory(options.getInput())) {
+            runner.runBatch(options);
+        } else {
+            runner.run(options);
+        }
     }
 }
@@ -5,22 +5,41 @@ import com.google.inject.Provides;
 import io.github.santulator.core.I18nBundleProvider;
 import io.github.santulator.engine.DrawService;
 import io.github.santulator.engine.DrawServiceImpl;
+import io.github.santulator.engine.DrawStatistics;
+import io.github.santulator.engine.DrawStatisticsImpl;
+import io.github.santulator.matcher.MatchingStrategy;
+import io.github.santulator.matcher.StrategySelector;
 import io.github.santulator.reader.ExcelRequirementsReader;
 import io.github.santulator.reader.RequirementsReader;
+import io.github.santulator.session.SessionSerialiser;
+import io.github.santulator.session.SessionSerialiserImpl;
+import io.github.santulator.session.SessionStateTranslator;
+import io.github.santulator.session.SessionStateTranslatorImpl;
 
 import java.util.Locale;
 
 public class SantaModule extends AbstractModule {
     private final Locale locale;
 
+    private final MatchingStrategy strategy;
+
     public SantaModule(final Locale locale) {
+        this(locale, new StrategySelector());
+    }
+
+    public SantaModule(final Locale locale, final MatchingStrategy strategy) {
         this.locale = locale;
+        this.strategy = strategy;
     }
 
     @Override
     protected void configure() {
+        bind(MatchingStrategy.class).toInstance(strategy);
         bind(DrawService.class).to(DrawServiceImpl.class);
+        bind(DrawStatistics.class).to(DrawStatisticsImpl.class);
         bind(RequirementsReader.class).to(ExcelRequirementsReader.class);
+        bind(SessionSerialiser.class).to(SessionSerialiserImpl.class);
+        bind(SessionStateTranslator.class).to(SessionStateTranslatorImpl.class);
         bind(SimpleSantaRunner.class).to(SimpleSantaRunnerImpl.class);
     }
 
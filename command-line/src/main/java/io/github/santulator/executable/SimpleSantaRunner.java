@@ -4,8 +4,8 @@
 
 package io.github.santulator.executable;
 
-import java.nio.file.Path;
-
 public interface SimpleSantaRunner {
-    void run(Path input, Path output);
+    void run(CommandLineOptions options);
+
+    void runBatch(CommandLineOptions options);
 }
@@ -7,11 +7,18 @@ package io.github.santulator.executable;
 import io.github.santulator.core.I18nBundleProvider;
 import io.github.santulator.core.NoOperation;
 import io.github.santulator.core.SantaException;
+import io.github.santulator.engine.DrawCount;
 import io.github.santulator.engine.DrawOutputTool;
+import io.github.santulator.engine.DrawResult;
 import io.github.santulator.engine.DrawService;
+import io.github.santulator.engine.DrawStatistics;
 import io.github.santulator.model.DrawRequirements;
 import io.github.santulator.model.DrawSelection;
+import io.github.santulator.model.SessionState;
 import io.github.santulator.reader.RequirementsReader;
+import io.github.santulator.session.FileNameTool;
+import io.github.santulator.session.SessionSerialiser;
+import io.github.santulator.session.SessionStateTranslator;
 import io.github.santulator.writer.DrawSelectionWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,43 +28,169 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import static java.util.stream.Collectors.toList;
+
 @Singleton
 public class SimpleSantaRunnerImpl implements SimpleSantaRunner {
     private static final Logger LOG = LoggerFactory.getLogger(SimpleSantaRunnerImpl.class);
 
     private static final String KEY_PASSWORD = "session.default.password";
 
+    private static final int FEW_DRAWS = 10;
+
+    private static final Pattern SPREADSHEET_NAME = Pattern.compile("(.+)\\.xlsx?", Pattern.CASE_INSENSITIVE);
+
     private final RequirementsReader reader;
 
     private final DrawService drawService;
 
+    private final DrawStatistics drawStatistics;
+
     private final DrawSelectionWriter writer;
 
+    private final SessionSerialiser serialiser;
+
+    private final SessionStateTranslator translator;
+
     private final String password;
 
+    private final SplittableRandom seeds = new SplittableRandom();
+
     @Inject
-    public SimpleSantaRunnerImpl(final RequirementsReader reader, final DrawService drawService, final DrawSelectionWriter writer, final I18nBundleProvider provider) {
+    public SimpleSantaRunnerImpl(final RequirementsReader reader, final DrawService drawService, final DrawStatistics drawStatistics, final DrawSelectionWriter writer,
+                                 final SessionSerialiser serialiser, final SessionStateTranslator translator, final I18nBundleProvider provider) {
         this.reader = reader;
         this.drawService = drawService;
+        this.drawStatistics = drawStatistics;
         this.writer = writer;
+        this.serialiser = serialiser;
+        this.translator = translator;
         this.password = provider.bundle().getString(KEY_PASSWORD);
     }
 
+    /*
+     * A session saved by the GUI after a draw holds the seed of that draw,
+     * so the same selection can be drawn again from the session file alone.
+     */
     @Override
-    public void run(final Path input, final Path output) {
-        try (InputStream in = new BufferedInputStream(Files.newInputStream(input))) {
-            DrawRequirements requirements = reader.read(input.toString(), in);
-            DrawSelection selection = drawService.draw(requirements);
-            DrawOutputTool tool = new DrawOutputTool(requirements);
+    public void run(final CommandLineOptions options) {
+        Path input = options.getInput();
+
+        if (FileNameTool.isSessionFile(input)) {
+            SessionState state = serialiser.read(input);
+            Long savedSeed = state.getDrawSeed();
+
+            run(options, translator.toRequirements(state), savedSeed == null ? OptionalLong.empty() : OptionalLong.of(savedSeed));
+        } else {
+            run(options, read(input), OptionalLong.empty());
+        }
+    }
+
+    private void run(final CommandLineOptions options, final DrawRequirements requirements, final OptionalLong savedSeed) {
+        if (options.isCounting()) {
+            reportDrawCount(drawStatistics.countDraws(requirements));
+        }
+
+        long seed = options.getSeed().orElseGet(() -> savedSeed.orElseGet(seeds::nextLong));
+
+        LOG.info("Drawing with seed {}", seed);
+
+        DrawSelection selection = drawService.draw(requirements, seed);
+        DrawOutputTool tool = new DrawOutputTool(requirements);
+
+        writer.writeDrawSelection(selection, options.getOutput(), password, NoOperation::doNothing);
+        tool.showSelection(selection);
+        LOG.info("Selection complete");
+    }
+
+    /*
+     * Each spreadsheet in the directory is a separate draw, written to a
+     * directory of the same name, so two spreadsheets differing only in
+     * their extension are refused.  A draw that fails does not stop the rest.
+     * One seed covers the whole batch, given the same spreadsheets.
+     */
+    @Override
+    public void runBatch(final CommandLineOptions options) {
+        Path inputDirectory = options.getInput();
+        Path output = options.getOutput();
+        Map<String, DrawRequirements> draws = new TreeMap<>();
+
+        for (Path input : spreadsheets(inputDirectory)) {
+            String name = baseName(input);
 
-            writer.writeDrawSelection(selection, output, password, NoOperation::doNothing);
-            tool.showSelection(selection);
-            LOG.info("Selection complete");
+            if (draws.containsKey(name)) {
+                throw new SantaException(String.format("More than one spreadsheet for the draw '%s' in '%s'", name, inputDirectory));
+            }
+            draws.put(name, read(input));
+        }
+
+        long seed = options.getSeed().orElseGet(seeds::nextLong);
+
+        LOG.info("Drawing batch with seed {}", seed);
+
+        List<DrawResult> results = drawService.drawBatch(draws, seed, r -> writeResult(r, output));
+        long failures = results.stream()
+            .filter(r -> !r.isSuccess())
+            .count();
+
+        if (failures > 0) {
+            throw new SantaException(String.format("%d of %d draws failed", failures, results.size()));
+        }
+        LOG.info("All {} selections complete", results.size());
+    }
+
+    private List<Path> spreadsheets(final Path inputDirectory) {
+        try (Stream<Path> files = Files.list(inputDirectory)) {
+            return files
+                .filter(p -> Files.isRegularFile(p) && SPREADSHEET_NAME.matcher(String.valueOf(p.getFileName())).matches())
+                .sorted()
+                .collect(toList());
+        } catch (IOException e) {
+            throw new SantaException(String.format("Unable to read directory '%s'", inputDirectory), e);
+        }
+    }
+
+    private String baseName(final Path input) {
+        String fileName = String.valueOf(input.getFileName());
+        Matcher matcher = SPREADSHEET_NAME.matcher(fileName);
+
+        return matcher.matches() ? matcher.group(1) : fileName;
+    }
+
+    private void writeResult(final DrawResult result, final Path output) {
+        result.getSelection().ifPresent(selection -> {
+            writer.writeDrawSelection(selection, output.resolve(result.getName()), password, NoOperation::doNothing);
+            LOG.info("Selection '{}' complete", result.getName());
+        });
+        result.getError().ifPresent(e -> LOG.error("Draw '{}' failed: {}", result.getName(), e.getMessage()));
+    }
+
+    private DrawRequirements read(final Path input) {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(input))) {
+            return reader.read(input.toString(), in);
         } catch (IOException e) {
             throw new SantaException(String.format("Unable to read file '%s'", input), e);
         }
     }
+
+    private void reportDrawCount(final DrawCount count) {
+        String description = count.isExact() ? "exactly" : "approximately";
+
+        if (count.isFewerThan(FEW_DRAWS)) {
+            LOG.warn("The restrictions leave only {} possible draw(s)", count.getCount());
+        } else {
+            LOG.info("There are {} {} possible draws", description, count.getCount());
+        }
+    }
 }
@@ -0,0 +1,63 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.executable;
+
+import io.github.santulator.core.SantaException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CommandLineOptionsTest {
+    private static final String INPUT = "input.xlsx";
+
+    private static final String OUTPUT = "output";
+
+    @Test
+    public void testPaths() {
+        CommandLineOptions options = CommandLineOptions.parse(INPUT, OUTPUT);
+
+        assertAll(
+            () -> assertEquals(Paths.get(INPUT), options.getInput(), "Input"),
+            () -> assertEquals(Paths.get(OUTPUT), options.getOutput(), "Output"),
+            () -> assertFalse(options.isCounting(), "Counting"),
+            () -> assertTrue(options.getSeed().isEmpty(), "Seed")
+        );
+    }
+
+    @Test
+    public void testCount() {
+        CommandLineOptions options = CommandLineOptions.parse("--count", INPUT, OUTPUT);
+
+        assertAll(
+            () -> assertEquals(Paths.get(INPUT), options.getInput(), "Input"),
+            () -> assertTrue(options.isCounting(), "Counting")
+        );
+    }
+
+    @Test
+    public void testSeed() {
+        CommandLineOptions options = CommandLineOptions.parse(INPUT, OUTPUT, "--seed=-42");
+
+        assertEquals(OptionalLong.of(-42), options.getSeed());
+    }
+
+    @Test
+    public void testInvalidSeed() {
+        assertThrows(SantaException.class, () -> CommandLineOptions.parse(INPUT, OUTPUT, "--seed=abc"));
+    }
+
+    @Test
+    public void testUnknownOption() {
+        assertThrows(SantaException.class, () -> CommandLineOptions.parse(INPUT, OUTPUT, "--fast"));
+    }
+
+    @Test
+    public void testMissingOutput() {
+        assertThrows(SantaException.class, () -> CommandLineOptions.parse(INPUT, "--count"));
+    }
+}
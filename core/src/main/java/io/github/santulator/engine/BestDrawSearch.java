@@ -0,0 +1,114 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.engine;
+
+import io.github.santulator.matcher.SearchCancelledException;
+import io.github.santulator.matcher.SearchMonitor;
+import io.github.santulator.model.DrawSelection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.BiFunction;
+
+/**
+ * Candidate draws made in parallel, each from its own random stream, and
+ * scored as they complete.  Only the best so far is kept, with ties going to
+ * the earliest candidate so that the choice does not depend on timing.
+ */
+final class BestDrawSearch {
+    private static final int NO_CANDIDATE = -1;
+
+    private final ForkJoinPool pool;
+
+    private final DrawScorer scorer;
+
+    private final SearchMonitor monitor = new SearchMonitor();
+
+    private final BlockingQueue<Integer> completed = new LinkedBlockingQueue<>();
+
+    BestDrawSearch(final ForkJoinPool pool, final DrawScorer scorer) {
+        this.pool = pool;
+        this.scorer = scorer;
+    }
+
+    DrawSelection search(final List<SplittableRandom> randoms, final BiFunction<SplittableRandom, SearchMonitor, DrawSelection> drawer) {
+        List<ForkJoinTask<DrawSelection>> tasks = new ArrayList<>(randoms.size());
+        double[] scores = new double[randoms.size()];
+
+        for (int i = 0; i < randoms.size(); i++) {
+            int candidate = i;
+            SplittableRandom candidateRandom = randoms.get(i);
+
+            tasks.add(pool.submit(() -> {
+                try {
+                    DrawSelection selection = drawer.apply(candidateRandom, monitor);
+
+                    scores[candidate] = scorer.score(selection);
+
+                    return selection;
+                } finally {
+                    completed.add(candidate);
+                }
+            }));
+        }
+
+        return best(tasks, scores);
+    }
+
+    private DrawSelection best(final List<ForkJoinTask<DrawSelection>> tasks, final double... scores) {
+        DrawSelection best = null;
+        int bestCandidate = NO_CANDIDATE;
+
+        for (int remaining = tasks.size(); remaining > 0; remaining--) {
+            int candidate = nextCompleted();
+            DrawSelection selection = join(tasks.set(candidate, null));
+
+            if (isBetter(candidate, bestCandidate, scores)) {
+                best = selection;
+                bestCandidate = candidate;
+            }
+        }
+
+        return best;
+    }
+
+    private boolean isBetter(final int candidate, final int bestCandidate, final double... scores) {
+        if (bestCandidate == NO_CANDIDATE) {
+            return true;
+        }
+
+        int comparison = Double.compare(scores[candidate], scores[bestCandidate]);
+
+        return comparison > 0 || comparison == 0 && candidate < bestCandidate;
+    }
+
+    private int nextCompleted() {
+        try {
+            return completed.take();
+        } catch (final InterruptedException e) {
+            monitor.cancel();
+            Thread.currentThread().interrupt();
+            throw new SearchCancelledException("Draw cancelled", e);
+        }
+    }
+
+    /*
+     * Every candidate faces the same requirements, so once one has failed
+     * the rest are stopped.
+     */
+    private DrawSelection join(final ForkJoinTask<DrawSelection> task) {
+        try {
+            return task.join();
+        } catch (final RuntimeException e) {
+            monitor.cancel();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.engine;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.math.BigInteger;
+
+public final class DrawCount {
+    private final BigInteger count;
+
+    private final boolean exact;
+
+    public DrawCount(final BigInteger count, final boolean exact) {
+        this.count = count;
+        this.exact = exact;
+    }
+
+    public BigInteger getCount() {
+        return count;
+    }
+
+    public boolean isExact() {
+        return exact;
+    }
+
+    public boolean isFewerThan(final long limit) {
+        return count.compareTo(BigInteger.valueOf(limit)) < 0;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        DrawCount that = (DrawCount) o;
+
+        return new EqualsBuilder()
+                .append(exact, that.exact)
+                .append(count, that.count)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder()
+                .append(count)
+                .append(exact)
+                .toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
+            .append("count", count)
+            .append("exact", exact)
+            .toString();
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.engine;
+
+import io.github.santulator.model.DrawSelection;
+import io.github.santulator.model.GiverAssignment;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * The selection after a repair, together with the assignments that differ
+ * from the earlier draw and so need new output.
+ */
+public final class DrawRepair {
+    private final DrawSelection selection;
+
+    private final Set<GiverAssignment> changes;
+
+    public DrawRepair(final DrawSelection selection, final Collection<GiverAssignment> changes) {
+        this.selection = selection;
+        this.changes = Set.copyOf(changes);
+    }
+
+    public DrawSelection getSelection() {
+        return selection;
+    }
+
+    public Set<GiverAssignment> getChanges() {
+        return changes;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        DrawRepair that = (DrawRepair) o;
+
+        return new EqualsBuilder()
+                .append(selection, that.selection)
+                .append(changes, that.changes)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder()
+                .append(selection)
+                .append(changes)
+                .toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
+            .append("selection", selection)
+            .append("changes", changes)
+            .toString();
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.engine;
+
+import io.github.santulator.core.SantaException;
+import io.github.santulator.model.DrawSelection;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.util.Optional;
+
+/**
+ * Outcome of one named draw in a batch: its selection, or the reason it
+ * failed.
+ */
+public final class DrawResult {
+    private final String name;
+
+    private final DrawSelection selection;
+
+    private final SantaException error;
+
+    private DrawResult(final String name, final DrawSelection selection, final SantaException error) {
+        this.name = name;
+        this.selection = selection;
+        this.error = error;
+    }
+
+    public static DrawResult success(final String name, final DrawSelection selection) {
+        return new DrawResult(name, selection, null);
+    }
+
+    public static DrawResult failure(final String name, final SantaException error) {
+        return new DrawResult(name, null, error);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Optional<DrawSelection> getSelection() {
+        return Optional.ofNullable(selection);
+    }
+
+    public Optional<SantaException> getError() {
+        return Optional.ofNullable(error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        DrawResult that = (DrawResult) o;
+
+        return new EqualsBuilder()
+                .append(name, that.name)
+                .append(selection, that.selection)
+                .append(error, that.error)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder()
+                .append(name)
+                .append(selection)
+                .append(error)
+                .toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
+            .append("name", name)
+            .append("selection", selection)
+            .append("error", error)
+            .toString();
+    }
+}
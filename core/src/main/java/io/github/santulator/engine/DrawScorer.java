@@ -0,0 +1,33 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.engine;
+
+import io.github.santulator.matcher.PairCost;
+import io.github.santulator.model.DrawSelection;
+import io.github.santulator.model.GiverAssignment;
+
+/**
+ * How nice a complete draw is, where higher scores are preferred.
+ */
+@FunctionalInterface
+public interface DrawScorer {
+    double score(DrawSelection selection);
+
+    static DrawScorer fewestReciprocalPairs() {
+        return selection -> -selection.getGivers().stream()
+            .filter(a -> selection.getGivers().contains(new GiverAssignment(a.getTo(), a.getFrom())))
+            .count();
+    }
+
+    static DrawScorer longestCycles() {
+        return DrawValidationTool::shortestCycle;
+    }
+
+    static DrawScorer lowestCost(final PairCost costs) {
+        return selection -> -selection.getGivers().stream()
+            .mapToLong(a -> costs.cost(a.getFrom(), a.getTo()))
+            .sum();
+    }
+}
@@ -4,9 +4,81 @@
 
 package io.github.santulator.engine;
 
+import io.github.santulator.core.NoOperation;
+import io.github.santulator.matcher.PairCost;
+import io.github.santulator.matcher.SearchMonitor;
 import io.github.santulator.model.DrawRequirements;
 import io.github.santulator.model.DrawSelection;
 
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Every kind of draw has a form taking a seed, and the same requirements,
+ * options and seed always give the same draw in that form.  A seed only
+ * replays a draw made by the same method with the same options.  Draws
+ * without a seed, and repairs, cannot be replayed.
+ */
 public interface DrawService {
-    DrawSelection draw(DrawRequirements requirements);
+    default DrawSelection draw(final DrawRequirements requirements) {
+        return draw(requirements, new SearchMonitor());
+    }
+
+    DrawSelection draw(DrawRequirements requirements, SearchMonitor monitor);
+
+    default DrawSelection draw(final DrawRequirements requirements, final long seed) {
+        return draw(requirements, seed, new SearchMonitor());
+    }
+
+    DrawSelection draw(DrawRequirements requirements, long seed, SearchMonitor monitor);
+
+    /**
+     * Draws with more than {@link io.github.santulator.matcher.AuctionMatcher#MAX_SIZE} participants are refused.
+     */
+    DrawSelection drawWeighted(DrawRequirements requirements, PairCost costs);
+
+    DrawSelection drawWeighted(DrawRequirements requirements, PairCost costs, long seed);
+
+    default DrawSelection drawSingleCycle(final DrawRequirements requirements) {
+        return drawSingleCycle(requirements, new SearchMonitor());
+    }
+
+    DrawSelection drawSingleCycle(DrawRequirements requirements, SearchMonitor monitor);
+
+    default DrawSelection drawSingleCycle(final DrawRequirements requirements, final long seed) {
+        return drawSingleCycle(requirements, seed, new SearchMonitor());
+    }
+
+    DrawSelection drawSingleCycle(DrawRequirements requirements, long seed, SearchMonitor monitor);
+
+    DrawSelection drawWithMinimumCycle(DrawRequirements requirements, int minimumLength);
+
+    DrawSelection drawWithMinimumCycle(DrawRequirements requirements, int minimumLength, long seed);
+
+    DrawSelection drawMultipleGifts(DrawRequirements requirements, int gifts);
+
+    DrawSelection drawMultipleGifts(DrawRequirements requirements, int gifts, long seed);
+
+    DrawSelection drawBest(DrawRequirements requirements, int candidates, DrawScorer scorer);
+
+    DrawSelection drawBest(DrawRequirements requirements, int candidates, DrawScorer scorer, long seed);
+
+    default List<DrawResult> drawBatch(final Map<String, DrawRequirements> draws) {
+        return drawBatch(draws, r -> NoOperation.doNothing());
+    }
+
+    List<DrawResult> drawBatch(Map<String, DrawRequirements> draws, Consumer<DrawResult> onResult);
+
+    default List<DrawResult> drawBatch(final Map<String, DrawRequirements> draws, final long seed) {
+        return drawBatch(draws, seed, r -> NoOperation.doNothing());
+    }
+
+    /**
+     * The draws are seeded in the order the map gives them, so the map's
+     * order must be the same for the batch to be replayed.
+     */
+    List<DrawResult> drawBatch(Map<String, DrawRequirements> draws, long seed, Consumer<DrawResult> onResult);
+
+    DrawRepair repair(DrawRequirements requirements, DrawSelection previous);
 }
@@ -5,61 +5,490 @@
 package io.github.santulator.engine;
 
 import io.github.santulator.core.SantaException;
+import io.github.santulator.matcher.AuctionMatcher;
+import io.github.santulator.matcher.AugmentingPathRepair;
+import io.github.santulator.matcher.ComponentFinder;
+import io.github.santulator.matcher.CycleLengthStrategy;
+import io.github.santulator.matcher.CycleSearch;
+import io.github.santulator.matcher.FeasibilityChecker;
 import io.github.santulator.matcher.MatchExtender;
 import io.github.santulator.matcher.MatchingEngine;
+import io.github.santulator.matcher.MatchingStrategy;
+import io.github.santulator.matcher.MultiGiftMatcher;
+import io.github.santulator.matcher.PairCost;
+import io.github.santulator.matcher.ParticipantIndex;
+import io.github.santulator.matcher.PreferenceStrategy;
+import io.github.santulator.matcher.SearchCancelledException;
+import io.github.santulator.matcher.SearchMonitor;
+import io.github.santulator.matcher.StrategySelector;
 import io.github.santulator.model.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
+import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import static io.github.santulator.matcher.HopcroftKarpMatcher.UNMATCHED;
 import static java.util.stream.Collectors.toList;
-import static java.util.stream.Collectors.toSet;
 
 @Singleton
 public class DrawServiceImpl implements DrawService {
+    public static final int LARGE_DRAW_SIZE = ParticipantIndex.MAX_SIZE;
+
+    private static final Comparator<Person> PARTICIPANT_ORDER = Comparator.comparing(Person::getName).thenComparing(Person::getRole);
+
+    private final MatchingStrategy strategy;
+
+    private final SplittableRandom random;
+
+    private final ForkJoinPool pool;
+
+    public DrawServiceImpl() {
+        this(new StrategySelector());
+    }
+
+    @Inject
+    public DrawServiceImpl(final MatchingStrategy strategy) {
+        this(strategy, new SplittableRandom());
+    }
+
+    public DrawServiceImpl(final MatchingStrategy strategy, final SplittableRandom random) {
+        this(strategy, random, ForkJoinPool.commonPool());
+    }
+
+    public DrawServiceImpl(final MatchingStrategy strategy, final SplittableRandom random, final ForkJoinPool pool) {
+        this.strategy = strategy;
+        this.random = random;
+        this.pool = pool;
+    }
+
+    @Override
+    public DrawSelection draw(final DrawRequirements requirements, final SearchMonitor monitor) {
+        return candidate(requirements, splitRandom(), monitor);
+    }
+
     @Override
-    public DrawSelection draw(final DrawRequirements requirements) {
+    public DrawSelection draw(final DrawRequirements requirements, final long seed, final SearchMonitor monitor) {
+        return candidate(requirements, new SplittableRandom(seed), monitor);
+    }
+
+    private DrawSelection draw(
+        final DrawRequirements requirements, final MatchingStrategy drawStrategy, final SplittableRandom drawRandom, final SearchMonitor monitor) {
+        return draw(requirements, drawStrategy, drawRandom, monitor, true);
+    }
+
+    /*
+     * A cycle can pass through several components of the allowed pairs, so
+     * a draw with a cycle rule is only solved whole.
+     */
+    private DrawSelection draw(final DrawRequirements requirements, final MatchingStrategy drawStrategy, final SplittableRandom drawRandom,
+        final SearchMonitor monitor, final boolean isSplit) {
         List<Person> givers = participants(requirements, ParticipantRole::isGiver);
-        List<Person> receivers = shuffle(participants(requirements, ParticipantRole::isReceiver));
-        Set<GiverAssignment> restrictions = restrictions(requirements);
-        MatchingEngine engine = new MatchingEngine();
-        MatchExtender match = engine.findMatch(givers, receivers, restrictions)
-            .orElseThrow(() -> new SantaException("Unable to find match"));
-        DrawSelection selection = selection(match);
+        List<Person> receivers = shuffle(participants(requirements, ParticipantRole::isReceiver), drawRandom);
+        ParticipantIndex index = ParticipantIndex.forRequirements(givers, receivers, requirements);
+
+        if (new FeasibilityChecker(index).findViolation().isPresent()) {
+            throw new SantaException("Unable to find match");
+        }
+
+        List<ParticipantIndex> components = isSplit ? new ComponentFinder(index).components() : List.of(index);
+        DrawSelection selection = selection(components, drawRandom, drawStrategy, monitor);
 
         DrawValidationTool.validate(requirements, selection);
 
         return selection;
     }
 
+    /*
+     * A draw too large for a participant index is always solved greedily, so
+     * a strategy other than the automatic one cannot be honoured.
+     */
+    private DrawSelection candidate(final DrawRequirements requirements, final SplittableRandom drawRandom, final SearchMonitor monitor) {
+        if (requirements.getParticipants().size() > LARGE_DRAW_SIZE) {
+            if (!(strategy instanceof StrategySelector)) {
+                throw new SantaException(String.format("A matching strategy can only be chosen for draws of up to %d participants", LARGE_DRAW_SIZE));
+            }
+            return drawLarge(requirements, drawRandom, monitor);
+        }
+
+        return draw(requirements, strategy, drawRandom, monitor);
+    }
+
+    private DrawSelection drawLarge(final DrawRequirements requirements, final SplittableRandom drawRandom, final SearchMonitor monitor) {
+        List<Person> givers = participants(requirements, ParticipantRole::isGiver);
+        List<Person> receivers = participants(requirements, ParticipantRole::isReceiver);
+        DrawSelection selection = new DrawSelection(new SparseDrawSolver(pool).draw(givers, receivers, requirements, drawRandom, monitor));
+
+        DrawValidationTool.validate(requirements, selection);
+
+        return selection;
+    }
+
+    @Override
+    public DrawSelection drawWeighted(final DrawRequirements requirements, final PairCost costs) {
+        return drawWeighted(requirements, costs, splitRandom());
+    }
+
+    @Override
+    public DrawSelection drawWeighted(final DrawRequirements requirements, final PairCost costs, final long seed) {
+        return drawWeighted(requirements, costs, new SplittableRandom(seed));
+    }
+
+    private DrawSelection drawWeighted(final DrawRequirements requirements, final PairCost costs, final SplittableRandom drawRandom) {
+        if (requirements.getParticipants().size() > AuctionMatcher.MAX_SIZE) {
+            throw new SantaException(String.format("Weighted draws are limited to %d participants", AuctionMatcher.MAX_SIZE));
+        }
+
+        return draw(requirements, new PreferenceStrategy(costs, pool), drawRandom, new SearchMonitor());
+    }
+
+    @Override
+    public DrawSelection drawSingleCycle(final DrawRequirements requirements, final SearchMonitor monitor) {
+        return drawSingleCycle(requirements, splitRandom(), monitor);
+    }
+
+    @Override
+    public DrawSelection drawSingleCycle(final DrawRequirements requirements, final long seed, final SearchMonitor monitor) {
+        return drawSingleCycle(requirements, new SplittableRandom(seed), monitor);
+    }
+
+    private DrawSelection drawSingleCycle(final DrawRequirements requirements, final SplittableRandom drawRandom, final SearchMonitor monitor) {
+        List<Person> people = shuffle(participants(requirements, ParticipantRole::isGiver), drawRandom);
+
+        if (people.size() != requirements.getParticipants().size() || !people.stream().allMatch(p -> p.getRole().isReceiver())) {
+            throw new SantaException("Everyone must both give and receive in a single-cycle draw");
+        }
+
+        ParticipantIndex index = ParticipantIndex.forRequirements(people, people, requirements);
+        int[] match = new CycleSearch(index, drawRandom, monitor).search();
+        DrawSelection selection = new DrawSelection(assignments(index, match));
+
+        DrawValidationTool.validate(requirements, selection);
+        DrawValidationTool.validateSingleCycle(selection);
+
+        return selection;
+    }
+
+    @Override
+    public DrawSelection drawWithMinimumCycle(final DrawRequirements requirements, final int minimumLength) {
+        return drawWithMinimumCycle(requirements, minimumLength, splitRandom());
+    }
+
+    @Override
+    public DrawSelection drawWithMinimumCycle(final DrawRequirements requirements, final int minimumLength, final long seed) {
+        return drawWithMinimumCycle(requirements, minimumLength, new SplittableRandom(seed));
+    }
+
+    private DrawSelection drawWithMinimumCycle(final DrawRequirements requirements, final int minimumLength, final SplittableRandom drawRandom) {
+        DrawSelection selection = draw(requirements, new CycleLengthStrategy(minimumLength), drawRandom, new SearchMonitor(), false);
+
+        DrawValidationTool.validateMinimumCycle(selection, minimumLength);
+
+        return selection;
+    }
+
+    @Override
+    public DrawSelection drawMultipleGifts(final DrawRequirements requirements, final int gifts) {
+        return drawMultipleGifts(requirements, gifts, splitRandom());
+    }
+
+    @Override
+    public DrawSelection drawMultipleGifts(final DrawRequirements requirements, final int gifts, final long seed) {
+        return drawMultipleGifts(requirements, gifts, new SplittableRandom(seed));
+    }
+
+    private DrawSelection drawMultipleGifts(final DrawRequirements requirements, final int gifts, final SplittableRandom drawRandom) {
+        if (gifts < 1) {
+            throw new SantaException(String.format("Invalid number of presents %d", gifts));
+        }
+
+        List<Person> givers = shuffle(participants(requirements, ParticipantRole::isGiver), drawRandom);
+        List<Person> receivers = shuffle(participants(requirements, ParticipantRole::isReceiver), drawRandom);
+        ParticipantIndex index = ParticipantIndex.forRequirements(givers, receivers, requirements);
+        int[] match = new MultiGiftMatcher(index, gifts).match();
+        List<GiverAssignment> assignments = new ArrayList<>(match.length);
+
+        for (int i = 0; i < match.length; i++) {
+            if (match[i] == UNMATCHED) {
+                throw new SantaException("Unable to find match");
+            }
+            assignments.add(index.assignment(i / gifts, match[i]));
+        }
+
+        DrawSelection selection = new DrawSelection(assignments);
+
+        DrawValidationTool.validate(requirements, selection, gifts);
+
+        return selection;
+    }
+
+    @Override
+    public DrawSelection drawBest(final DrawRequirements requirements, final int candidates, final DrawScorer scorer) {
+        return drawBest(requirements, candidates, scorer, splitRandom());
+    }
+
+    @Override
+    public DrawSelection drawBest(final DrawRequirements requirements, final int candidates, final DrawScorer scorer, final long seed) {
+        return drawBest(requirements, candidates, scorer, new SplittableRandom(seed));
+    }
+
+    private DrawSelection drawBest(final DrawRequirements requirements, final int candidates, final DrawScorer scorer, final SplittableRandom drawRandom) {
+        if (candidates < 1) {
+            throw new SantaException(String.format("Invalid number of candidates %d", candidates));
+        }
+
+        List<SplittableRandom> randoms = Stream.generate(drawRandom::split)
+            .limit(candidates)
+            .collect(toList());
+
+        return new BestDrawSearch(pool, scorer).search(randoms, (r, m) -> candidate(requirements, r, m));
+    }
+
+    @Override
+    public List<DrawResult> drawBatch(final Map<String, DrawRequirements> draws, final Consumer<DrawResult> onResult) {
+        return drawBatch(draws, onResult, splitRandom());
+    }
+
+    @Override
+    public List<DrawResult> drawBatch(final Map<String, DrawRequirements> draws, final long seed, final Consumer<DrawResult> onResult) {
+        return drawBatch(draws, onResult, new SplittableRandom(seed));
+    }
+
+    /*
+     * Each draw runs as its own task in the pool, and the results are passed
+     * on from the calling thread in the order they complete.  The random
+     * streams are split off before the tasks start, in the order of the
+     * draws, so that a seeded batch does not depend on timing.
+     */
+    private List<DrawResult> drawBatch(final Map<String, DrawRequirements> draws, final Consumer<DrawResult> onResult, final SplittableRandom batchRandom) {
+        BlockingQueue<Integer> completed = new LinkedBlockingQueue<>();
+        List<ForkJoinTask<DrawResult>> tasks = new ArrayList<>(draws.size());
+
+        draws.forEach((name, requirements) -> {
+            int task = tasks.size();
+            SplittableRandom drawRandom = batchRandom.split();
+
+            tasks.add(pool.submit(() -> {
+                try {
+                    return drawResult(name, requirements, drawRandom);
+                } finally {
+                    completed.add(task);
+                }
+            }));
+        });
+        for (int remaining = tasks.size(); remaining > 0; remaining--) {
+            onResult.accept(tasks.get(nextCompleted(completed, tasks)).join());
+        }
+
+        return tasks.stream()
+            .map(ForkJoinTask::join)
+            .collect(toList());
+    }
+
+    /*
+     * Any draw that fails, for whatever reason, is reported with the rest
+     * rather than aborting the batch.
+     */
+    private DrawResult drawResult(final String name, final DrawRequirements requirements, final SplittableRandom drawRandom) {
+        try {
+            return DrawResult.success(name, candidate(requirements, drawRandom, new SearchMonitor()));
+        } catch (final SantaException e) {
+            return DrawResult.failure(name, e);
+        } catch (final RuntimeException e) {
+            return DrawResult.failure(name, new SantaException(String.format("Draw '%s' failed unexpectedly", name), e));
+        }
+    }
+
+    private int nextCompleted(final BlockingQueue<Integer> completed, final List<ForkJoinTask<DrawResult>> tasks) {
+        try {
+            return completed.take();
+        } catch (final InterruptedException e) {
+            tasks.forEach(t -> t.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new SearchCancelledException("Draw cancelled", e);
+        }
+    }
+
+    @Override
+    public DrawRepair repair(final DrawRequirements requirements, final DrawSelection previous) {
+        if (requirements.getParticipants().size() > LARGE_DRAW_SIZE) {
+            return repairLarge(requirements, previous);
+        }
+
+        SplittableRandom drawRandom = splitRandom();
+        List<Person> givers = participants(requirements, ParticipantRole::isGiver);
+        List<Person> receivers = shuffle(participants(requirements, ParticipantRole::isReceiver), drawRandom);
+        ParticipantIndex index = ParticipantIndex.forRequirements(givers, receivers, requirements);
+
+        if (givers.size() != receivers.size()) {
+            throw new SantaException("Unable to find match");
+        }
+
+        int[] match = new AugmentingPathRepair(index, keptMatch(index, previous)).repair();
+        List<GiverAssignment> assignments = assignments(index, match);
+
+        return repaired(requirements, previous, assignments);
+    }
+
+    private DrawRepair repairLarge(final DrawRequirements requirements, final DrawSelection previous) {
+        List<Person> givers = participants(requirements, ParticipantRole::isGiver);
+        List<Person> receivers = participants(requirements, ParticipantRole::isReceiver);
+
+        return repaired(requirements, previous, new SparseDrawSolver(pool).repair(givers, receivers, requirements, previous));
+    }
+
+    private DrawRepair repaired(final DrawRequirements requirements, final DrawSelection previous, final List<GiverAssignment> assignments) {
+        DrawSelection selection = new DrawSelection(assignments);
+
+        DrawValidationTool.validate(requirements, selection);
+
+        return new DrawRepair(selection, assignments.stream()
+            .filter(a -> !previous.getGivers().contains(a))
+            .collect(toList()));
+    }
+
+    private List<GiverAssignment> assignments(final ParticipantIndex index, final int... match) {
+        List<GiverAssignment> assignments = new ArrayList<>(match.length);
+
+        for (int giver = 0; giver < match.length; giver++) {
+            if (match[giver] == UNMATCHED) {
+                throw new SantaException("Unable to find match");
+            }
+            assignments.add(index.assignment(giver, match[giver]));
+        }
+
+        return assignments;
+    }
+
+    private int[] keptMatch(final ParticipantIndex index, final DrawSelection previous) {
+        int[] match = new int[index.giverCount()];
+
+        Arrays.fill(match, UNMATCHED);
+        for (GiverAssignment assignment : previous.getGivers()) {
+            if (index.isAllowed(assignment)) {
+                match[index.giverId(assignment.getFrom())] = index.receiverId(assignment.getTo());
+            }
+        }
+
+        return match;
+    }
+
+    /*
+     * The participants are held in a set whose order changes from one run to
+     * the next, so they are sorted to make seeded draws repeatable.
+     */
     private List<Person> participants(final DrawRequirements requirements, final Predicate<ParticipantRole> roleFilter) {
         return requirements.getParticipants().stream()
             .filter(p -> roleFilter.test(p.getRole()))
+            .sorted(PARTICIPANT_ORDER)
             .collect(toList());
     }
 
-    private <T> List<T> shuffle(final List<T> original) {
+    private SplittableRandom splitRandom() {
+        synchronized (random) {
+            return random.split();
+        }
+    }
+
+    private <T> List<T> shuffle(final List<T> original, final SplittableRandom drawRandom) {
         List<T> result = new ArrayList<>(original);
 
-        Collections.shuffle(result);
+        for (int i = result.size() - 1; i > 0; i--) {
+            Collections.swap(result, i, drawRandom.nextInt(i + 1));
+        }
 
         return result;
     }
 
-    private Set<GiverAssignment> restrictions(final DrawRequirements requirements) {
-        return requirements.getRestrictions().stream()
-            .map(r -> new GiverAssignment(r.getFromPerson(), r.getToPerson()))
-            .collect(toSet());
+    private DrawSelection selection(
+        final List<ParticipantIndex> components, final SplittableRandom drawRandom, final MatchingStrategy drawStrategy, final SearchMonitor monitor) {
+        if (components.stream().anyMatch(c -> c.giverCount() != c.receiverCount())) {
+            throw new SantaException("Unable to find match");
+        }
+        if (components.size() == 1) {
+            return selection(List.of(match(components.get(0), drawRandom, drawStrategy, monitor)));
+        }
+
+        List<ForkJoinTask<MatchExtender>> tasks = new ArrayList<>(components.size());
+
+        List<SearchMonitor> parts = components.stream()
+            .map(c -> monitor.part(c.giverCount()))
+            .collect(toList());
+
+        for (int i = 0; i < components.size(); i++) {
+            ParticipantIndex component = components.get(i);
+            SearchMonitor part = parts.get(i);
+            SplittableRandom componentRandom = drawRandom.split();
+
+            tasks.add(pool.submit(() -> matchPart(component, componentRandom, drawStrategy, part)));
+        }
+
+        List<MatchExtender> matches = new ArrayList<>(tasks.size());
+
+        for (ForkJoinTask<MatchExtender> task : tasks) {
+            matches.add(await(task, monitor));
+        }
+
+        return selection(matches);
     }
 
-    private DrawSelection selection(final MatchExtender found) {
-        List<GiverAssignment> givers = found.assignmentStream()
+    private DrawSelection selection(final List<MatchExtender> matches) {
+        List<GiverAssignment> givers = matches.stream()
+            .flatMap(MatchExtender::assignmentStream)
             .collect(toList());
 
         return new DrawSelection(givers);
     }
+
+    /*
+     * Waiting for a component is interruptible, unlike joining it.  Either an
+     * interruption or a failed component cancels the searches still running
+     * in the pool, as the draw cannot succeed.
+     */
+    private MatchExtender await(final ForkJoinTask<MatchExtender> task, final SearchMonitor monitor) {
+        try {
+            return task.get();
+        } catch (final InterruptedException e) {
+            monitor.cancel();
+            Thread.currentThread().interrupt();
+            throw new SearchCancelledException("Draw cancelled", e);
+        } catch (final ExecutionException e) {
+            Throwable cause = e.getCause();
+
+            monitor.cancel();
+
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new SantaException("Unable to find match", e);
+        }
+    }
+
+    private MatchExtender matchPart(
+        final ParticipantIndex component, final SplittableRandom componentRandom, final MatchingStrategy drawStrategy, final SearchMonitor part) {
+        MatchExtender match = match(component, componentRandom, drawStrategy, part);
+
+        part.finish(component.giverCount());
+
+        return match;
+    }
+
+    private MatchExtender match(
+        final ParticipantIndex component, final SplittableRandom componentRandom, final MatchingStrategy drawStrategy, final SearchMonitor monitor) {
+        return new MatchingEngine(drawStrategy, componentRandom, monitor).findMatch(component)
+            .orElseThrow(() -> new SantaException("Unable to find match"));
+    }
 }
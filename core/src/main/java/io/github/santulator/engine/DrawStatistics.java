@@ -0,0 +1,11 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.engine;
+
+import io.github.santulator.model.DrawRequirements;
+
+public interface DrawStatistics {
+    DrawCount countDraws(DrawRequirements requirements);
+}
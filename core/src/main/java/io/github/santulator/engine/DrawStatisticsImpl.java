@@ -0,0 +1,90 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.engine;
+
+import io.github.santulator.matcher.HopcroftKarpMatcher;
+import io.github.santulator.matcher.ParticipantIndex;
+import io.github.santulator.matcher.PermanentCalculator;
+import io.github.santulator.matcher.PermanentEstimator;
+import io.github.santulator.model.DrawRequirements;
+import io.github.santulator.model.ParticipantRole;
+import io.github.santulator.model.Person;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import static io.github.santulator.matcher.HopcroftKarpMatcher.UNMATCHED;
+import static java.util.stream.Collectors.toList;
+
+@Singleton
+public class DrawStatisticsImpl implements DrawStatistics {
+    public static final int DEFAULT_EXACT_LIMIT = 30;
+
+    private static final int ESTIMATE_TRIALS = 2_000;
+
+    private final ForkJoinPool pool;
+
+    private final int exactLimit;
+
+    private final SplittableRandom random;
+
+    @Inject
+    public DrawStatisticsImpl() {
+        this(ForkJoinPool.commonPool(), DEFAULT_EXACT_LIMIT, new SplittableRandom());
+    }
+
+    public DrawStatisticsImpl(final ForkJoinPool pool, final int exactLimit, final SplittableRandom random) {
+        this.pool = pool;
+        this.exactLimit = Math.min(exactLimit, PermanentCalculator.MAX_SIZE);
+        this.random = random;
+    }
+
+    @Override
+    public DrawCount countDraws(final DrawRequirements requirements) {
+        List<Person> givers = participants(requirements, ParticipantRole::isGiver);
+        List<Person> receivers = participants(requirements, ParticipantRole::isReceiver);
+        ParticipantIndex index = ParticipantIndex.forRequirements(givers, receivers, requirements);
+
+        if (givers.size() == receivers.size() && isPossible(index)) {
+            return countPossibleDraws(index);
+        } else {
+            return new DrawCount(BigInteger.ZERO, true);
+        }
+    }
+
+    private DrawCount countPossibleDraws(final ParticipantIndex index) {
+        if (index.giverCount() <= exactLimit) {
+            return new DrawCount(new PermanentCalculator(pool).permanent(index), true);
+        } else {
+            BigInteger estimate = new PermanentEstimator(splitRandom()).estimate(index, ESTIMATE_TRIALS);
+
+            return new DrawCount(estimate.max(BigInteger.ONE), false);
+        }
+    }
+
+    private boolean isPossible(final ParticipantIndex index) {
+        int[] match = new HopcroftKarpMatcher(index).match();
+
+        return Arrays.stream(match).noneMatch(r -> r == UNMATCHED);
+    }
+
+    private SplittableRandom splitRandom() {
+        synchronized (random) {
+            return random.split();
+        }
+    }
+
+    private List<Person> participants(final DrawRequirements requirements, final Predicate<ParticipantRole> roleFilter) {
+        return requirements.getParticipants().stream()
+            .filter(p -> roleFilter.test(p.getRole()))
+            .collect(toList());
+    }
+}
@@ -10,73 +10,86 @@ import io.github.santulator.model.DrawSelection;
 import io.github.santulator.model.GiverAssignment;
 import io.github.santulator.model.Person;
 
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
-import java.util.function.Function;
-import java.util.function.Predicate;
 
-import static java.util.stream.Collectors.*;
+import static java.util.stream.Collectors.toMap;
 
 public final class DrawValidationTool {
+    private static final int MAX_REPORTED = 10;
+
     private DrawValidationTool() {
         // Prevent instantiation - all methods are static
     }
 
     public static void validate(final DrawRequirements requirements, final DrawSelection selection) {
-        validateRestrictions(requirements, selection);
-        validateRecipients(requirements, selection);
-        validateGivers(requirements, selection);
+        validate(requirements, selection, 1);
+    }
+
+    public static void validate(final DrawRequirements requirements, final DrawSelection selection, final int gifts) {
+        List<String> violations = findViolations(requirements, selection, gifts);
+
+        if (violations.size() > MAX_REPORTED) {
+            throw new SantaException(String.format("%s%n... and %d more", String.join("\n", violations.subList(0, MAX_REPORTED)), violations.size() - MAX_REPORTED));
+        } else if (!violations.isEmpty()) {
+            throw new SantaException(String.join("\n", violations));
+        }
+    }
+
+    public static List<String> findViolations(final DrawRequirements requirements, final DrawSelection selection) {
+        return findViolations(requirements, selection, 1);
+    }
+
+    public static List<String> findViolations(final DrawRequirements requirements, final DrawSelection selection, final int gifts) {
+        return new SelectionChecker(requirements, gifts).violations(selection);
     }
 
-    private static void validateRestrictions(final DrawRequirements requirements, final DrawSelection selection) {
-        Set<GiverAssignment> prohibited = requirements.getRestrictions().stream()
-            .map(r -> new GiverAssignment(r.getFromPerson(), r.getToPerson()))
-            .collect(toSet());
-        Optional<GiverAssignment> badAssignment = selection.getGivers().stream()
-            .filter(prohibited::contains)
-            .findFirst();
-
-        badAssignment.ifPresent(giverAssignment -> {
-            throw new SantaException(String.format("Bad present assignment %s", giverAssignment));
-        });
+    public static void validateSingleCycle(final DrawSelection selection) {
+        int size = selection.getGivers().size();
+
+        if (size > 0 && shortestCycle(selection) != size) {
+            throw new SantaException(String.format("The draw does not form a single cycle through all %d givers", size));
+        }
     }
 
-    private static void validateRecipients(final DrawRequirements requirements, final DrawSelection selection) {
-        validateSide(requirements, selection, GiverAssignment::getTo, p1 -> p1.getRole().isReceiver(), "receiver");
+    public static void validateMinimumCycle(final DrawSelection selection, final int minimumLength) {
+        int shortest = shortestCycle(selection);
+
+        if (shortest < minimumLength) {
+            throw new SantaException(String.format("The draw contains a cycle of %d people, below the minimum of %d", shortest, minimumLength));
+        }
     }
 
-    private static void validateGivers(final DrawRequirements requirements, final DrawSelection selection) {
-        validateSide(requirements, selection, GiverAssignment::getFrom, p1 -> p1.getRole().isGiver(), "giver");
+    /*
+     * Givers whose chain of presents ends at someone who does not give are
+     * on a path rather than a cycle and are ignored.
+     */
+    static int shortestCycle(final DrawSelection selection) {
+        Map<Person, Person> receivers = selection.getGivers().stream()
+            .collect(toMap(GiverAssignment::getFrom, GiverAssignment::getTo, (a, b) -> a));
+        Set<Person> visited = new HashSet<>();
+        int shortest = Integer.MAX_VALUE;
+
+        for (Person first : receivers.keySet()) {
+            if (visited.add(first)) {
+                shortest = Math.min(shortest, cycleLength(receivers, visited, first));
+            }
+        }
+
+        return shortest;
     }
 
-    private static void validateSide(final DrawRequirements requirements, final DrawSelection selection, final Function<GiverAssignment, Person> extractSide,
-                                     final Predicate<Person> roleFilter, final String sideName) {
-        Set<Person> expected = requirements.getParticipants().stream()
-            .filter(roleFilter)
-            .collect(toSet());
-        Map<Person, Long> appearances = selection.getGivers().stream()
-            .collect(groupingBy(extractSide, counting()));
-
-        appearances.keySet().stream()
-            .filter(p -> !expected.contains(p))
-            .findFirst()
-            .ifPresent(p -> {
-                throw new SantaException(String.format("Invalid %s '%s'", sideName, p.getName()));
-            });
-        appearances.entrySet().stream()
-            .filter(e -> e.getValue() > 1)
-            .map(Map.Entry::getKey)
-            .findFirst()
-            .ifPresent(p -> {
-                throw new SantaException(String.format("Duplicate %s '%s", sideName, p.getName()));
-            });
-        requirements.getParticipants().stream()
-            .filter(roleFilter)
-            .filter(key -> !appearances.containsKey(key))
-            .findFirst()
-            .ifPresent(p -> {
-                throw new SantaException(String.format("Missing %s '%s'", sideName, p.getName()));
-            });
+    private static int cycleLength(final Map<Person, Person> receivers, final Set<Person> visited, final Person first) {
+        Person person = receivers.get(first);
+        int length = 1;
+
+        while (person != null && !person.equals(first) && visited.add(person)) {
+            person = receivers.get(person);
+            length++;
+        }
+
+        return first.equals(person) ? length : Integer.MAX_VALUE;
     }
 }
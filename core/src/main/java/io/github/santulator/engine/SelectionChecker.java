@@ -0,0 +1,161 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.engine;
+
+import io.github.santulator.model.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Checks a selection in a single pass, counting the presents given and
+ * received by each participant in arrays indexed by position.  The
+ * restrictions are held as a sorted array of receivers for each giver, and
+ * large selections are looked up in parallel.  Every problem is reported.
+ */
+final class SelectionChecker {
+    static final int PARALLEL_SIZE = 1 << 16;
+
+    private static final int NOT_FOUND = -1;
+
+    private final List<Person> participants;
+
+    private final Map<Person, Integer> ids;
+
+    private final int[] offsets;
+
+    private final int[] excluded;
+
+    private final List<RestrictionRule> rules;
+
+    private final int gifts;
+
+    SelectionChecker(final DrawRequirements requirements, final int gifts) {
+        this.participants = requirements.getParticipants().stream()
+            .sorted(Comparator.comparing(Person::getName).thenComparing(Person::getRole))
+            .collect(toList());
+        this.ids = new HashMap<>(participants.size() * 2);
+        this.offsets = new int[participants.size() + 1];
+        this.excluded = new int[requirements.getRestrictions().size()];
+        this.rules = requirements.getRules();
+        this.gifts = gifts;
+        for (int i = 0; i < participants.size(); i++) {
+            ids.put(participants.get(i), i);
+        }
+        fillExclusions(requirements);
+    }
+
+    private void fillExclusions(final DrawRequirements requirements) {
+        int[] pairs = new int[excluded.length * 2];
+        int count = 0;
+
+        for (Restriction restriction : requirements.getRestrictions()) {
+            int giver = participantId(restriction.getFromPerson());
+            int receiver = participantId(restriction.getToPerson());
+
+            if (giver != NOT_FOUND && receiver != NOT_FOUND) {
+                pairs[count++] = giver;
+                pairs[count++] = receiver;
+                offsets[giver + 1]++;
+            }
+        }
+        for (int giver = 0; giver < participants.size(); giver++) {
+            offsets[giver + 1] += offsets[giver];
+        }
+
+        int[] next = Arrays.copyOf(offsets, participants.size());
+
+        for (int i = 0; i < count; i += 2) {
+            excluded[next[pairs[i]]++] = pairs[i + 1];
+        }
+        for (int giver = 0; giver < participants.size(); giver++) {
+            Arrays.sort(excluded, offsets[giver], offsets[giver + 1]);
+        }
+    }
+
+    List<String> violations(final DrawSelection selection) {
+        GiverAssignment[] assignments = selection.getGivers().toArray(new GiverAssignment[0]);
+        int[] givers = new int[assignments.length];
+        int[] receivers = new int[assignments.length];
+        boolean[] isExcluded = new boolean[assignments.length];
+        IntStream positions = IntStream.range(0, assignments.length);
+
+        if (assignments.length >= PARALLEL_SIZE) {
+            positions = positions.parallel();
+        }
+        positions.forEach(i -> {
+            givers[i] = participantId(assignments[i].getFrom());
+            receivers[i] = participantId(assignments[i].getTo());
+            isExcluded[i] = isExcluded(assignments[i], givers[i], receivers[i]);
+        });
+
+        return violations(assignments, givers, receivers, isExcluded);
+    }
+
+    private List<String> violations(final GiverAssignment[] assignments, final int[] givers, final int[] receivers, final boolean... isExcluded) {
+        List<String> violations = new ArrayList<>();
+        int[] given = new int[participants.size()];
+        int[] received = new int[participants.size()];
+
+        for (int i = 0; i < assignments.length; i++) {
+            if (isExcluded[i]) {
+                violations.add(String.format("Bad present assignment %s", assignments[i]));
+            }
+            countSide(violations, assignments[i].getFrom(), givers[i], given, ParticipantRole::isGiver, "giver");
+            countSide(violations, assignments[i].getTo(), receivers[i], received, ParticipantRole::isReceiver, "receiver");
+        }
+        addMissing(violations, given, ParticipantRole::isGiver, "giver");
+        addMissing(violations, received, ParticipantRole::isReceiver, "receiver");
+
+        return violations;
+    }
+
+    private void countSide(
+        final List<String> violations, final Person person, final int id, final int[] counts, final Predicate<ParticipantRole> roleFilter, final String sideName) {
+        if (id == NOT_FOUND || !roleFilter.test(person.getRole())) {
+            violations.add(String.format("Invalid %s '%s'", sideName, person.getName()));
+        } else {
+            counts[id]++;
+            if (counts[id] == gifts + 1) {
+                violations.add(String.format("Duplicate %s '%s'", sideName, person.getName()));
+            }
+        }
+    }
+
+    private void addMissing(final List<String> violations, final int[] counts, final Predicate<ParticipantRole> roleFilter, final String sideName) {
+        for (int id = 0; id < counts.length; id++) {
+            Person person = participants.get(id);
+
+            if (counts[id] < gifts && roleFilter.test(person.getRole())) {
+                violations.add(String.format("Missing %s '%s'", sideName, person.getName()));
+            }
+        }
+    }
+
+    private boolean isExcluded(final GiverAssignment assignment, final int giver, final int receiver) {
+        if (giver != NOT_FOUND && receiver != NOT_FOUND && Arrays.binarySearch(excluded, offsets[giver], offsets[giver + 1], receiver) >= 0) {
+            return true;
+        }
+        for (RestrictionRule rule : rules) {
+            if (rule.isExcluded(assignment.getFrom(), assignment.getTo())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private int participantId(final Person person) {
+        return ids.getOrDefault(person, NOT_FOUND);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.engine;
+
+import io.github.santulator.core.SantaException;
+import io.github.santulator.matcher.BitSetTool;
+import io.github.santulator.matcher.GreedyRepairMatcher;
+import io.github.santulator.matcher.SearchMonitor;
+import io.github.santulator.matcher.SparseIndex;
+import io.github.santulator.matcher.SparseMatcher;
+import io.github.santulator.model.DrawRequirements;
+import io.github.santulator.model.DrawSelection;
+import io.github.santulator.model.GiverAssignment;
+import io.github.santulator.model.Person;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static io.github.santulator.matcher.HopcroftKarpMatcher.UNMATCHED;
+
+/**
+ * Draws too large for the bitsets of a participant index, which grow with
+ * the square of the draw.  They keep only their restrictions, in a sparse
+ * index, and are always solved by greedy repair whatever the strategy.
+ */
+final class SparseDrawSolver {
+    private final ForkJoinPool pool;
+
+    SparseDrawSolver(final ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    List<GiverAssignment> draw(
+        final List<Person> givers, final List<Person> receivers, final DrawRequirements requirements, final SplittableRandom random, final SearchMonitor monitor) {
+        SparseIndex index = SparseIndex.forRequirements(givers, receivers, requirements);
+        int[] match = new GreedyRepairMatcher(index, random, pool, monitor).match();
+
+        return assignments(index, match);
+    }
+
+    /*
+     * The pairs that are still allowed are kept and the rest are matched
+     * exactly, without the random choice of new pairs made for smaller draws.
+     */
+    List<GiverAssignment> repair(final List<Person> givers, final List<Person> receivers, final DrawRequirements requirements, final DrawSelection previous) {
+        SparseIndex index = SparseIndex.forRequirements(givers, receivers, requirements);
+        int[] kept = new int[index.giverCount()];
+
+        Arrays.fill(kept, UNMATCHED);
+        for (GiverAssignment assignment : previous.getGivers()) {
+            int giver = index.giverId(assignment.getFrom());
+            int receiver = index.receiverId(assignment.getTo());
+
+            if (giver != BitSetTool.NOT_FOUND && receiver != BitSetTool.NOT_FOUND && index.isAllowed(giver, receiver)) {
+                kept[giver] = receiver;
+            }
+        }
+
+        int[] match = new SparseMatcher(index).complete(kept);
+
+        return assignments(index, match);
+    }
+
+    private List<GiverAssignment> assignments(final SparseIndex index, final int... match) {
+        List<GiverAssignment> assignments = new ArrayList<>(match.length);
+
+        for (int giver = 0; giver < match.length; giver++) {
+            if (match[giver] == UNMATCHED) {
+                throw new SantaException("Unable to find match");
+            }
+            assignments.add(index.assignment(giver, match[giver]));
+        }
+
+        return assignments;
+    }
+}
@@ -0,0 +1,361 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static io.github.santulator.matcher.BitSetTool.NOT_FOUND;
+import static io.github.santulator.matcher.HopcroftKarpMatcher.UNMATCHED;
+
+/**
+ * Minimum cost assignment of a square draw by Bertsekas' auction algorithm,
+ * with givers bidding in parallel and restricted pairs left out.  Costs are
+ * scaled by (n + 1)^2 plus random noise below n + 1, which picks at random
+ * among the cheapest draws and avoids bidding wars between equal choices.
+ * The bid margin shrinks to one, so the result is optimal for the costs.
+ * The cost of every pair is held in memory, which limits the draw to
+ * {@link #MAX_SIZE} givers.
+ */
+public final class AuctionMatcher {
+    public static final int MAX_SIZE = 5_000;
+
+    private static final int EPSILON_DIVISOR = 4;
+
+    private static final int INITIAL_EPSILON_FACTOR = 4;
+
+    private static final int PARALLEL_BIDDERS = 64;
+
+    private static final int CANDIDATES = 32;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private static final long MIX_1 = 0xBF58476D1CE4E5B9L;
+
+    private static final long MIX_2 = 0x94D049BB133111EBL;
+
+    private static final int SHIFT_1 = 30;
+
+    private static final int SHIFT_2 = 27;
+
+    private static final int SHIFT_3 = 31;
+
+    private final ParticipantIndex index;
+
+    private final ForkJoinPool pool;
+
+    private final SearchMonitor monitor;
+
+    private final int size;
+
+    private final long[] prices;
+
+    private final int[] giverMatch;
+
+    private final int[] receiverMatch;
+
+    private final int[] bidReceivers;
+
+    private final long[] bidPrices;
+
+    private final int[] winners;
+
+    private final int[] nextBidders;
+
+    private final int[] candidates;
+
+    private final int[] candidateCounts;
+
+    private final long[] cutoffs;
+
+    private final PairValues values;
+
+    public AuctionMatcher(
+        final ParticipantIndex index, final PairCost pairCost, final SplittableRandom random, final ForkJoinPool pool, final SearchMonitor monitor) {
+        this.index = index;
+        this.pool = pool;
+        this.monitor = monitor;
+        this.size = index.giverCount();
+        this.prices = new long[index.receiverCount()];
+        this.giverMatch = new int[size];
+        this.receiverMatch = new int[index.receiverCount()];
+        this.bidReceivers = new int[size];
+        this.bidPrices = new long[size];
+        this.winners = new int[index.receiverCount()];
+        this.nextBidders = new int[size];
+        this.candidates = new int[size * CANDIDATES];
+        this.candidateCounts = new int[size];
+        this.cutoffs = new long[size];
+        this.values = new PairValues(index, pairCost, random.nextLong());
+    }
+
+    public int[] match() {
+        if (index.giverCount() != index.receiverCount()) {
+            return unmatched();
+        }
+        if (Arrays.stream(new HopcroftKarpMatcher(index, monitor).match()).anyMatch(r -> r == UNMATCHED)) {
+            return unmatched();
+        }
+
+        return solve();
+    }
+
+    private int[] unmatched() {
+        int[] match = new int[index.giverCount()];
+
+        Arrays.fill(match, UNMATCHED);
+
+        return match;
+    }
+
+    /*
+     * Receivers of different cost differ in value by at least the scale, so
+     * the bid margins separate them without help and epsilon can start close
+     * to the noise rather than the whole cost range.
+     */
+    private int[] solve() {
+        long epsilon = (long) INITIAL_EPSILON_FACTOR * (size + 1);
+
+        while (true) {
+            runPhase(epsilon);
+            if (epsilon == 1) {
+                return giverMatch.clone();
+            }
+            epsilon = Math.max(1, epsilon / EPSILON_DIVISOR);
+        }
+    }
+
+    private void runPhase(final long epsilon) {
+        Arrays.fill(giverMatch, UNMATCHED);
+        Arrays.fill(receiverMatch, UNMATCHED);
+        Arrays.fill(winners, UNMATCHED);
+
+        int[] bidders = IntStream.range(0, size).toArray();
+
+        while (bidders.length > 0) {
+            int[] round = bidders;
+
+            if (round.length >= PARALLEL_BIDDERS) {
+                pool.submit(() -> IntStream.of(round).parallel().forEach(g -> bid(g, epsilon))).join();
+            } else {
+                for (int giver : round) {
+                    bid(giver, epsilon);
+                }
+            }
+            bidders = awardBids(round);
+            monitor.checkpoint(round.length, size - bidders.length, size);
+        }
+    }
+
+    /*
+     * The giver bids for the receiver of greatest value to them, raising its
+     * price by the margin over their second choice plus epsilon.
+     */
+    private void bid(final int giver, final long epsilon) {
+        if (!bidFromCandidates(giver, epsilon)) {
+            findCandidates(giver);
+            bidFromCandidates(giver, epsilon);
+        }
+    }
+
+    /*
+     * Prices only rise, so no receiver outside the cached candidates can be
+     * worth more than the cutoff recorded when they were found.
+     */
+    private boolean bidFromCandidates(final int giver, final long epsilon) {
+        int offset = giver * CANDIDATES;
+        long best = Long.MIN_VALUE;
+        long second = Long.MIN_VALUE;
+        int bestReceiver = NOT_FOUND;
+
+        for (int i = 0; i < candidateCounts[giver]; i++) {
+            int receiver = candidates[offset + i];
+            long value = value(giver, receiver);
+
+            if (value > best) {
+                second = best;
+                best = value;
+                bestReceiver = receiver;
+            } else if (value > second) {
+                second = value;
+            }
+        }
+        if (bestReceiver == NOT_FOUND || second < cutoffs[giver]) {
+            return false;
+        }
+        if (second == Long.MIN_VALUE) {
+            second = best - values.range;
+        }
+        bidReceivers[giver] = bestReceiver;
+        bidPrices[giver] = prices[bestReceiver] + best - second + epsilon;
+
+        return true;
+    }
+
+    private void findCandidates(final int giver) {
+        long[] topValues = new long[CANDIDATES + 1];
+        int[] topReceivers = new int[CANDIDATES + 1];
+        int count = 0;
+
+        for (int receiver = index.nextAllowed(giver, 0); receiver != NOT_FOUND; receiver = index.nextAllowed(giver, receiver + 1)) {
+            long value = value(giver, receiver);
+
+            if (count <= CANDIDATES) {
+                count++;
+                insert(topValues, topReceivers, count - 1, value, receiver);
+            } else if (value > topValues[CANDIDATES]) {
+                insert(topValues, topReceivers, CANDIDATES, value, receiver);
+            }
+        }
+        candidateCounts[giver] = Math.min(count, CANDIDATES);
+        cutoffs[giver] = count > CANDIDATES ? topValues[CANDIDATES] : Long.MIN_VALUE;
+        System.arraycopy(topReceivers, 0, candidates, giver * CANDIDATES, candidateCounts[giver]);
+    }
+
+    /*
+     * Inserts into the list sorted by descending value, replacing the entry
+     * at the last position.
+     */
+    private void insert(final long[] topValues, final int[] topReceivers, final int last, final long value, final int receiver) {
+        int position = last;
+
+        while (position > 0 && topValues[position - 1] < value) {
+            position = shiftDown(topValues, topReceivers, position);
+        }
+        topValues[position] = value;
+        topReceivers[position] = receiver;
+    }
+
+    private int shiftDown(final long[] topValues, final int[] topReceivers, final int position) {
+        topValues[position] = topValues[position - 1];
+        topReceivers[position] = topReceivers[position - 1];
+
+        return position - 1;
+    }
+
+    private long value(final int giver, final int receiver) {
+        return values.benefit(giver, receiver) - prices[receiver];
+    }
+
+    /*
+     * The highest bid for each receiver wins.  The givers left without a
+     * receiver, whether they lost or were outbid, bid again next round.
+     */
+    private int[] awardBids(final int... round) {
+        int count = 0;
+
+        for (int giver : round) {
+            int receiver = bidReceivers[giver];
+            int winner = winners[receiver];
+
+            if (winner == UNMATCHED || bidPrices[giver] > bidPrices[winner]) {
+                winners[receiver] = giver;
+            }
+        }
+        for (int giver : round) {
+            int receiver = bidReceivers[giver];
+
+            if (winners[receiver] == giver) {
+                int previous = receiverMatch[receiver];
+
+                if (previous != UNMATCHED) {
+                    giverMatch[previous] = UNMATCHED;
+                    nextBidders[count++] = previous;
+                }
+                assign(giver, receiver);
+            } else {
+                nextBidders[count++] = giver;
+            }
+        }
+        for (int giver : round) {
+            winners[bidReceivers[giver]] = UNMATCHED;
+        }
+
+        return Arrays.copyOf(nextBidders, count);
+    }
+
+    private void assign(final int giver, final int receiver) {
+        giverMatch[giver] = receiver;
+        receiverMatch[receiver] = giver;
+        prices[receiver] = bidPrices[giver];
+    }
+
+    /*
+     * Value of each allowed pair to its giver, with the costs held in one
+     * flat array.
+     */
+    private static final class PairValues {
+        private final ParticipantIndex index;
+
+        private final int[] costs;
+
+        private final int size;
+
+        private final long seed;
+
+        private final long scale;
+
+        private final long range;
+
+        private PairValues(final ParticipantIndex index, final PairCost pairCost, final long seed) {
+            this.index = index;
+            this.costs = costs(index, pairCost);
+            this.size = index.giverCount();
+            this.seed = seed;
+            this.scale = (long) (size + 1) * (size + 1);
+            this.range = (costRange() + 1) * scale;
+        }
+
+        private static int[] costs(final ParticipantIndex index, final PairCost pairCost) {
+            int stride = index.receiverCount();
+            int[] costs = new int[index.giverCount() * stride];
+
+            for (int giver = 0; giver < index.giverCount(); giver++) {
+                for (int receiver = index.nextAllowed(giver, 0); receiver != NOT_FOUND; receiver = index.nextAllowed(giver, receiver + 1)) {
+                    costs[giver * stride + receiver] = pairCost.cost(index.giver(giver), index.receiver(receiver));
+                }
+            }
+
+            return costs;
+        }
+
+        private long benefit(final int giver, final int receiver) {
+            return -cost(giver, receiver) * scale + noise(giver, receiver);
+        }
+
+        /*
+         * A hash of the pair mixed with the seed, so that the noise needs no
+         * storage, using the finaliser of SplitMix64.
+         */
+        private long noise(final int giver, final int receiver) {
+            long z = seed + ((long) giver * size + receiver) * GOLDEN_GAMMA;
+
+            z = (z ^ (z >>> SHIFT_1)) * MIX_1;
+            z = (z ^ (z >>> SHIFT_2)) * MIX_2;
+
+            return Math.floorMod(z ^ (z >>> SHIFT_3), size + 1);
+        }
+
+        private long costRange() {
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+
+            for (int giver = 0; giver < size; giver++) {
+                for (int receiver = index.nextAllowed(giver, 0); receiver != NOT_FOUND; receiver = index.nextAllowed(giver, receiver + 1)) {
+                    min = Math.min(min, cost(giver, receiver));
+                    max = Math.max(max, cost(giver, receiver));
+                }
+            }
+
+            return min > max ? 0 : max - min;
+        }
+
+        private int cost(final int giver, final int receiver) {
+            return costs[giver * size + receiver];
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import java.util.Arrays;
+
+import static io.github.santulator.matcher.BitSetTool.NOT_FOUND;
+import static io.github.santulator.matcher.HopcroftKarpMatcher.UNMATCHED;
+
+/**
+ * Completes a partial match by a breadth-first search for the shortest
+ * augmenting path from each unmatched giver.  Only the givers along a path
+ * change receiver, so the assignments kept from an earlier draw are disturbed
+ * as little as possible, and the search usually stays near the change.
+ */
+public final class AugmentingPathRepair {
+    private final ParticipantIndex index;
+
+    private final int[] giverMatch;
+
+    private final int[] receiverMatch;
+
+    private final int[] receiverParents;
+
+    private final int[] visited;
+
+    private final int[] queue;
+
+    private int visitedCount;
+
+    public AugmentingPathRepair(final ParticipantIndex index, final int... initialMatch) {
+        this.index = index;
+        this.giverMatch = initialMatch.clone();
+        this.receiverMatch = new int[index.receiverCount()];
+        this.receiverParents = new int[index.receiverCount()];
+        this.visited = new int[index.receiverCount()];
+        this.queue = new int[index.giverCount()];
+        Arrays.fill(receiverMatch, UNMATCHED);
+        Arrays.fill(receiverParents, NOT_FOUND);
+        for (int giver = 0; giver < giverMatch.length; giver++) {
+            if (giverMatch[giver] != UNMATCHED) {
+                receiverMatch[giverMatch[giver]] = giver;
+            }
+        }
+    }
+
+    public int[] repair() {
+        for (int giver = 0; giver < giverMatch.length; giver++) {
+            if (giverMatch[giver] == UNMATCHED && !augment(giver)) {
+                break;
+            }
+        }
+
+        return Arrays.copyOf(giverMatch, giverMatch.length);
+    }
+
+    private boolean augment(final int root) {
+        int head = 0;
+        int tail = 0;
+
+        queue[tail++] = root;
+        while (head < tail) {
+            int giver = queue[head++];
+
+            for (int receiver = index.nextAllowed(giver, 0); receiver != NOT_FOUND; receiver = index.nextAllowed(giver, receiver + 1)) {
+                if (receiverParents[receiver] == NOT_FOUND && receiver != giverMatch[giver]) {
+                    receiverParents[receiver] = giver;
+                    visited[visitedCount++] = receiver;
+                    if (receiverMatch[receiver] == UNMATCHED) {
+                        flipPath(receiver);
+                        clearVisited();
+
+                        return true;
+                    }
+                    queue[tail++] = receiverMatch[receiver];
+                }
+            }
+        }
+        clearVisited();
+
+        return false;
+    }
+
+    private void flipPath(final int end) {
+        int receiver = end;
+
+        while (receiver != UNMATCHED) {
+            int giver = receiverParents[receiver];
+            int previous = giverMatch[giver];
+
+            giverMatch[giver] = receiver;
+            receiverMatch[receiver] = giver;
+            receiver = previous;
+        }
+    }
+
+    private void clearVisited() {
+        for (int i = 0; i < visitedCount; i++) {
+            receiverParents[visited[i]] = NOT_FOUND;
+        }
+        visitedCount = 0;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+public final class BitSetTool {
+    public static final int NOT_FOUND = -1;
+
+    private static final int WORD_SHIFT = 6;
+
+    private static final int WORD_MASK = 63;
+
+    private static final long ALL_BITS = -1L;
+
+    private BitSetTool() {
+        // Prevent instantiation - all methods are static
+    }
+
+    public static int words(final int bits) {
+        return (bits + WORD_MASK) >>> WORD_SHIFT;
+    }
+
+    public static boolean get(final long[] bits, final int offset, final int index) {
+        return (bits[offset + (index >>> WORD_SHIFT)] & (1L << index)) != 0;
+    }
+
+    public static void set(final long[] bits, final int offset, final int index) {
+        bits[offset + (index >>> WORD_SHIFT)] |= 1L << index;
+    }
+
+    public static void clear(final long[] bits, final int offset, final int index) {
+        bits[offset + (index >>> WORD_SHIFT)] &= ~(1L << index);
+    }
+
+    public static void setRange(final long[] bits, final int offset, final int count) {
+        int fullWords = count >>> WORD_SHIFT;
+
+        for (int i = 0; i < fullWords; i++) {
+            bits[offset + i] = ALL_BITS;
+        }
+        if ((count & WORD_MASK) != 0) {
+            bits[offset + fullWords] = (1L << count) - 1;
+        }
+    }
+
+    public static int cardinality(final long[] bits, final int offset, final int words) {
+        int count = 0;
+
+        for (int i = 0; i < words; i++) {
+            count += Long.bitCount(bits[offset + i]);
+        }
+
+        return count;
+    }
+
+    public static int cardinalityAndNot(final long[] bits, final int offset, final long[] mask, final int words) {
+        int count = 0;
+
+        for (int i = 0; i < words; i++) {
+            count += Long.bitCount(bits[offset + i] & ~mask[i]);
+        }
+
+        return count;
+    }
+
+    public static int nthSetBitAndNot(final long[] bits, final int offset, final long[] mask, final int words, final int n) {
+        int remaining = n;
+
+        for (int i = 0; i < words; i++) {
+            long current = bits[offset + i] & ~mask[i];
+            int count = Long.bitCount(current);
+
+            if (remaining < count) {
+                for (int skip = 0; skip < remaining; skip++) {
+                    current &= current - 1;
+                }
+
+                return (i << WORD_SHIFT) + Long.numberOfTrailingZeros(current);
+            }
+            remaining -= count;
+        }
+
+        return NOT_FOUND;
+    }
+
+    public static int nextSetBit(final long[] bits, final int offset, final int words, final int from) {
+        int word = from >>> WORD_SHIFT;
+
+        if (word >= words) {
+            return NOT_FOUND;
+        }
+
+        long current = bits[offset + word] & (ALL_BITS << from);
+
+        while (current == 0) {
+            word++;
+            if (word == words) {
+                return NOT_FOUND;
+            }
+            current = bits[offset + word];
+        }
+
+        return (word << WORD_SHIFT) + Long.numberOfTrailingZeros(current);
+    }
+
+    public static int nextSetBitAnd(final long[] bits, final int offset, final long[] mask, final int words, final int from) {
+        int word = from >>> WORD_SHIFT;
+
+        if (word >= words) {
+            return NOT_FOUND;
+        }
+
+        long current = bits[offset + word] & mask[word] & (ALL_BITS << from);
+
+        while (current == 0) {
+            word++;
+            if (word == words) {
+                return NOT_FOUND;
+            }
+            current = bits[offset + word] & mask[word];
+        }
+
+        return (word << WORD_SHIFT) + Long.numberOfTrailingZeros(current);
+    }
+
+    public static int nextSetBitAndNot(final long[] bits, final int offset, final long[] mask, final int words, final int from) {
+        int word = from >>> WORD_SHIFT;
+
+        if (word >= words) {
+            return NOT_FOUND;
+        }
+
+        long current = bits[offset + word] & ~mask[word] & (ALL_BITS << from);
+
+        while (current == 0) {
+            word++;
+            if (word == words) {
+                return NOT_FOUND;
+            }
+            current = bits[offset + word] & ~mask[word];
+        }
+
+        return (word << WORD_SHIFT) + Long.numberOfTrailingZeros(current);
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static io.github.santulator.matcher.BitSetTool.NOT_FOUND;
+import static io.github.santulator.matcher.HopcroftKarpMatcher.UNMATCHED;
+
+/**
+ * Matches classes of interchangeable participants rather than people.  A
+ * maximum flow decides how many givers of each class go to each receiver
+ * class, then random permutations within the classes pick the people, and
+ * anyone left with themselves swaps with another giver of the same class.
+ * When the participants barely collapse the people are matched directly.
+ */
+public final class ClassCountMatcher {
+    public static final int CLASS_LIMIT = 128;
+
+    private final ParticipantIndex index;
+
+    private final SplittableRandom random;
+
+    private final SearchMonitor monitor;
+
+    public ClassCountMatcher(final ParticipantIndex index, final SplittableRandom random) {
+        this(index, random, new SearchMonitor());
+    }
+
+    public ClassCountMatcher(final ParticipantIndex index, final SplittableRandom random, final SearchMonitor monitor) {
+        this.index = index;
+        this.random = random;
+        this.monitor = monitor;
+    }
+
+    public int[] match() {
+        if (index.giverCount() > index.receiverCount()) {
+            return unmatched();
+        }
+
+        ParticipantClasses classes = new ParticipantClasses(index);
+
+        if (classes.giverClassCount() > CLASS_LIMIT || classes.receiverClassCount() > CLASS_LIMIT) {
+            return new HopcroftKarpMatcher(index, monitor).match();
+        }
+
+        ClassFlow flow = new ClassFlow(classes);
+        int matchedCount = flow.solve();
+
+        monitor.checkpoint(1, matchedCount, index.giverCount());
+        if (matchedCount < index.giverCount()) {
+            return unmatched();
+        }
+
+        return expand(classes, flow);
+    }
+
+    private int[] expand(final ParticipantClasses classes, final ClassFlow flow) {
+        int[] giverMatch = new int[index.giverCount()];
+        int[] receiverMatch = new int[index.receiverCount()];
+        int[][] receiverPools = new int[classes.receiverClassCount()][];
+        int[] poolNext = new int[classes.receiverClassCount()];
+
+        Arrays.fill(receiverMatch, UNMATCHED);
+        for (int receiverClass = 0; receiverClass < receiverPools.length; receiverClass++) {
+            receiverPools[receiverClass] = shuffled(classes.receiverMembers(receiverClass));
+        }
+        for (int giverClass = 0; giverClass < classes.giverClassCount(); giverClass++) {
+            int[] givers = shuffled(classes.giverMembers(giverClass));
+            int next = 0;
+
+            for (int receiverClass = 0; receiverClass < receiverPools.length; receiverClass++) {
+                for (int i = 0; i < flow.flow(giverClass, receiverClass); i++) {
+                    int receiver = receiverPools[receiverClass][poolNext[receiverClass]++];
+
+                    giverMatch[givers[next]] = receiver;
+                    receiverMatch[receiver] = givers[next++];
+                }
+            }
+        }
+        for (int giver = 0; giver < giverMatch.length; giver++) {
+            if (giverMatch[giver] == classes.selfReceiver(giver)) {
+                repair(classes, giver, giverMatch, receiverMatch);
+            }
+        }
+
+        return giverMatch;
+    }
+
+    /*
+     * Any other receiver of the same class, or failing that the receiver of
+     * any other giver of the same class, can be exchanged with the giver's
+     * own without breaking a restriction or creating a new self-assignment.
+     */
+    private void repair(final ParticipantClasses classes, final int giver, final int[] giverMatch, final int... receiverMatch) {
+        int self = giverMatch[giver];
+
+        for (int receiver : classes.receiverMembers(classes.receiverClass(self))) {
+            if (receiver != self) {
+                exchange(giver, receiverMatch[receiver], receiver, giverMatch, receiverMatch);
+
+                return;
+            }
+        }
+        for (int other : classes.giverMembers(classes.giverClass(giver))) {
+            if (other != giver) {
+                exchange(giver, other, giverMatch[other], giverMatch, receiverMatch);
+
+                return;
+            }
+        }
+    }
+
+    private void exchange(final int giver, final int other, final int receiver, final int[] giverMatch, final int... receiverMatch) {
+        int self = giverMatch[giver];
+
+        giverMatch[giver] = receiver;
+        receiverMatch[receiver] = giver;
+        receiverMatch[self] = other;
+        if (other != UNMATCHED) {
+            giverMatch[other] = self;
+        }
+    }
+
+    private int[] shuffled(final int... members) {
+        for (int i = members.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = members[i];
+
+            members[i] = members[j];
+            members[j] = swap;
+        }
+
+        return members;
+    }
+
+    private int[] unmatched() {
+        int[] match = new int[index.giverCount()];
+
+        Arrays.fill(match, UNMATCHED);
+
+        return match;
+    }
+
+    /*
+     * Maximum flow from giver classes to receiver classes with the class
+     * sizes as capacities and unlimited capacity between allowed classes.
+     */
+    private static final class ClassFlow {
+        private static final int SOURCE = -2;
+
+        private final ParticipantClasses classes;
+
+        private final int[][] flows;
+
+        private final int[] giverLeft;
+
+        private final int[] receiverLeft;
+
+        private final int[] receiverParents;
+
+        private final int[] giverParents;
+
+        private final int[] queue;
+
+        private ClassFlow(final ParticipantClasses classes) {
+            this.classes = classes;
+            this.flows = new int[classes.giverClassCount()][classes.receiverClassCount()];
+            this.giverLeft = new int[classes.giverClassCount()];
+            this.receiverLeft = new int[classes.receiverClassCount()];
+            this.receiverParents = new int[classes.receiverClassCount()];
+            this.giverParents = new int[classes.giverClassCount()];
+            this.queue = new int[classes.giverClassCount()];
+            for (int giverClass = 0; giverClass < giverLeft.length; giverClass++) {
+                giverLeft[giverClass] = classes.giverClassSize(giverClass);
+            }
+            for (int receiverClass = 0; receiverClass < receiverLeft.length; receiverClass++) {
+                receiverLeft[receiverClass] = classes.receiverClassSize(receiverClass);
+            }
+        }
+
+        private int flow(final int giverClass, final int receiverClass) {
+            return flows[giverClass][receiverClass];
+        }
+
+        private int solve() {
+            int total = 0;
+
+            for (int giverClass = 0; giverClass < giverLeft.length; giverClass++) {
+                for (int receiverClass = 0; receiverClass < receiverLeft.length; receiverClass++) {
+                    if (classes.isAllowed(giverClass, receiverClass)) {
+                        int amount = Math.min(giverLeft[giverClass], receiverLeft[receiverClass]);
+
+                        flows[giverClass][receiverClass] += amount;
+                        giverLeft[giverClass] -= amount;
+                        receiverLeft[receiverClass] -= amount;
+                        total += amount;
+                    }
+                }
+            }
+            for (int sink = findPath(); sink != NOT_FOUND; sink = findPath()) {
+                total += augment(sink);
+            }
+
+            return total;
+        }
+
+        /*
+         * Breadth-first search from every giver class with spare givers to a
+         * receiver class with spare receivers, returning that receiver class.
+         */
+        private int findPath() {
+            int tail = 0;
+
+            Arrays.fill(giverParents, NOT_FOUND);
+            Arrays.fill(receiverParents, NOT_FOUND);
+            for (int giverClass = 0; giverClass < giverLeft.length; giverClass++) {
+                if (giverLeft[giverClass] > 0) {
+                    giverParents[giverClass] = SOURCE;
+                    queue[tail++] = giverClass;
+                }
+            }
+
+            int head = 0;
+
+            while (head < tail) {
+                int giverClass = queue[head++];
+
+                for (int receiverClass = 0; receiverClass < receiverLeft.length; receiverClass++) {
+                    if (receiverParents[receiverClass] == NOT_FOUND && classes.isAllowed(giverClass, receiverClass)) {
+                        receiverParents[receiverClass] = giverClass;
+                        if (receiverLeft[receiverClass] > 0) {
+                            return receiverClass;
+                        }
+                        tail = enqueueSenders(receiverClass, tail);
+                    }
+                }
+            }
+
+            return NOT_FOUND;
+        }
+
+        private int enqueueSenders(final int receiverClass, final int tail) {
+            int next = tail;
+
+            for (int giverClass = 0; giverClass < giverLeft.length; giverClass++) {
+                if (giverParents[giverClass] == NOT_FOUND && flows[giverClass][receiverClass] > 0) {
+                    giverParents[giverClass] = receiverClass;
+                    queue[next++] = giverClass;
+                }
+            }
+
+            return next;
+        }
+
+        private int augment(final int sink) {
+            int amount = receiverLeft[sink];
+            int giverClass = receiverParents[sink];
+
+            while (giverParents[giverClass] != SOURCE) {
+                int receiverClass = giverParents[giverClass];
+
+                amount = Math.min(amount, flows[giverClass][receiverClass]);
+                giverClass = receiverParents[receiverClass];
+            }
+            amount = Math.min(amount, giverLeft[giverClass]);
+            giverLeft[giverClass] -= amount;
+            receiverLeft[sink] -= amount;
+
+            for (int receiverClass = sink; receiverClass != SOURCE; receiverClass = shiftFlow(receiverClass, amount)) {
+                flows[receiverParents[receiverClass]][receiverClass] += amount;
+            }
+
+            return amount;
+        }
+
+        private int shiftFlow(final int receiverClass, final int amount) {
+            int sender = receiverParents[receiverClass];
+            int previous = giverParents[sender];
+
+            if (previous != SOURCE) {
+                flows[sender][previous] -= amount;
+            }
+
+            return previous;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static io.github.santulator.matcher.BitSetTool.NOT_FOUND;
+
+/**
+ * Splits a draw into the connected components of its allowed-pair graph.
+ * No giver can be assigned a receiver outside their own component, so each
+ * component can be matched on its own and the results combined.
+ */
+public final class ComponentFinder {
+    private final ParticipantIndex index;
+
+    private final int giverWords;
+
+    private final long[] unvisitedGivers;
+
+    private final long[] unvisitedReceivers;
+
+    private final int[] giverQueue;
+
+    private final int[] receiverQueue;
+
+    public ComponentFinder(final ParticipantIndex index) {
+        this.index = index;
+        this.giverWords = BitSetTool.words(index.giverCount());
+        this.unvisitedGivers = new long[giverWords];
+        this.unvisitedReceivers = index.newReceiverSet();
+        this.giverQueue = new int[index.giverCount()];
+        this.receiverQueue = new int[index.receiverCount()];
+        BitSetTool.setRange(unvisitedGivers, 0, index.giverCount());
+        BitSetTool.setRange(unvisitedReceivers, 0, index.receiverCount());
+    }
+
+    public List<ParticipantIndex> components() {
+        List<ParticipantIndex> components = new ArrayList<>();
+
+        for (int giver = nextUnvisitedGiver(0); giver != NOT_FOUND; giver = nextUnvisitedGiver(0)) {
+            components.add(component(giver));
+        }
+        for (int receiver = nextUnvisitedReceiver(0); receiver != NOT_FOUND; receiver = nextUnvisitedReceiver(receiver + 1)) {
+            components.add(index.subIndex(new int[0], receiver));
+        }
+        if (components.size() == 1) {
+            return List.of(index);
+        } else {
+            return components;
+        }
+    }
+
+    private ParticipantIndex component(final int root) {
+        int giverCount = 0;
+        int receiverCount = 0;
+        int giverHead = 0;
+        int receiverHead = 0;
+
+        BitSetTool.clear(unvisitedGivers, 0, root);
+        giverQueue[giverCount++] = root;
+        while (giverHead < giverCount || receiverHead < receiverCount) {
+            if (giverHead < giverCount) {
+                int giver = giverQueue[giverHead++];
+
+                for (int receiver = index.nextAllowedIn(giver, unvisitedReceivers, 0); receiver != NOT_FOUND;
+                     receiver = index.nextAllowedIn(giver, unvisitedReceivers, receiver + 1)) {
+                    BitSetTool.clear(unvisitedReceivers, 0, receiver);
+                    receiverQueue[receiverCount++] = receiver;
+                }
+            } else {
+                int receiver = receiverQueue[receiverHead++];
+
+                for (int giver = nextUnvisitedGiver(0); giver != NOT_FOUND; giver = nextUnvisitedGiver(giver + 1)) {
+                    if (index.isAllowed(giver, receiver)) {
+                        BitSetTool.clear(unvisitedGivers, 0, giver);
+                        giverQueue[giverCount++] = giver;
+                    }
+                }
+            }
+        }
+
+        return index.subIndex(sorted(giverQueue, giverCount), sorted(receiverQueue, receiverCount));
+    }
+
+    private int nextUnvisitedGiver(final int from) {
+        return BitSetTool.nextSetBit(unvisitedGivers, 0, giverWords, from);
+    }
+
+    private int nextUnvisitedReceiver(final int from) {
+        return BitSetTool.nextSetBit(unvisitedReceivers, 0, unvisitedReceivers.length, from);
+    }
+
+    private static int[] sorted(final int[] queue, final int count) {
+        int[] result = Arrays.copyOf(queue, count);
+
+        Arrays.sort(result);
+
+        return result;
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import java.util.SplittableRandom;
+
+/**
+ * Draws in which every cycle of presents has at least the minimum length,
+ * so that a minimum of three rules out pairs giving to each other.  The
+ * cycle lengths are checked inside the search rather than by rejecting
+ * complete draws.
+ */
+public final class CycleLengthStrategy implements MatchingStrategy {
+    private final int minimumLength;
+
+    public CycleLengthStrategy(final int minimumLength) {
+        this.minimumLength = minimumLength;
+    }
+
+    @Override
+    public int[] match(final ParticipantIndex index, final SplittableRandom random, final SearchMonitor monitor) {
+        return new MostConstrainedSearch(index, random, monitor, minimumLength).search();
+    }
+}
@@ -0,0 +1,425 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static io.github.santulator.matcher.BitSetTool.NOT_FOUND;
+import static io.github.santulator.matcher.HopcroftKarpMatcher.UNMATCHED;
+
+/**
+ * Randomised search for a draw forming one cycle through everyone, where
+ * giver and receiver n are the same person.  The path grows towards the
+ * person with the fewest onward choices, takes forced moves at once and
+ * backtracks as soon as someone is left with no way in or out or cannot be
+ * reached.  Searches that run long restart with a larger node budget.
+ */
+public final class CycleSearch {
+    private static final int FOUND = 1;
+
+    private static final int IMPOSSIBLE = 0;
+
+    private static final int GAVE_UP = -1;
+
+    private static final int PATCH_ATTEMPTS = 32;
+
+    private static final int INITIAL_BUDGET_FACTOR = 16;
+
+    private static final int KEY_BITS = 21;
+
+    private static final long KEY_MASK = (1L << KEY_BITS) - 1;
+
+    private final ParticipantIndex index;
+
+    private final SplittableRandom random;
+
+    private final SearchMonitor monitor;
+
+    private final int size;
+
+    private final int words;
+
+    private final long[] outRows;
+
+    private final long[] inRows;
+
+    private final long[] unvisited;
+
+    private final long[] reached;
+
+    private final int[] queue;
+
+    private final int[] outAvailable;
+
+    private final int[] inAvailable;
+
+    private final int[] path;
+
+    private final long[] choices;
+
+    private final int[] choiceNext;
+
+    private final int[] choiceEnd;
+
+    private final NodeCounter counter;
+
+    private int remaining;
+
+    public CycleSearch(final ParticipantIndex index, final SplittableRandom random) {
+        this(index, random, new SearchMonitor());
+    }
+
+    public CycleSearch(final ParticipantIndex index, final SplittableRandom random, final SearchMonitor monitor) {
+        this.index = index;
+        this.random = random;
+        this.monitor = monitor;
+        this.size = index.giverCount();
+        this.words = BitSetTool.words(size);
+        this.outRows = new long[size * words];
+        this.inRows = new long[size * words];
+        this.unvisited = new long[words];
+        this.reached = new long[words];
+        this.queue = new int[size];
+        this.outAvailable = new int[size];
+        this.inAvailable = new int[size];
+        this.path = new int[size];
+        this.choiceNext = new int[size];
+        this.choiceEnd = new int[size];
+        this.counter = new NodeCounter(monitor, size);
+
+        int edges = 0;
+
+        for (int giver = 0; giver < size; giver++) {
+            for (int receiver = index.nextAllowed(giver, 0); receiver != NOT_FOUND; receiver = index.nextAllowed(giver, receiver + 1)) {
+                BitSetTool.set(outRows, giver * words, receiver);
+                BitSetTool.set(inRows, receiver * words, giver);
+                edges++;
+            }
+        }
+        this.choices = new long[edges + 1];
+    }
+
+    public int[] search() {
+        int[] match = new int[size];
+
+        Arrays.fill(match, UNMATCHED);
+        if (size < 2) {
+            return match;
+        }
+
+        for (int attempt = 0; attempt < PATCH_ATTEMPTS; attempt++) {
+            int[] cover = randomCover();
+
+            if (Arrays.stream(cover).anyMatch(r -> r == UNMATCHED)) {
+                return match;
+            }
+            if (isPatched(cover)) {
+                return cover;
+            }
+        }
+
+        int outcome = GAVE_UP;
+
+        for (long budget = (long) INITIAL_BUDGET_FACTOR * size; outcome == GAVE_UP; budget += budget / 4) {
+            outcome = runSearch(budget);
+        }
+        if (outcome == FOUND) {
+            for (int i = 0; i < size; i++) {
+                match[path[i]] = path[(i + 1) % size];
+            }
+        }
+
+        return match;
+    }
+
+    /*
+     * A complete match found with everyone in a random order, so that each
+     * attempt at patching starts from different cycles.
+     */
+    private int[] randomCover() {
+        int[] order = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            int j = random.nextInt(i + 1);
+
+            order[i] = order[j];
+            order[j] = i;
+        }
+
+        int[] shuffled = new HopcroftKarpMatcher(index.subIndex(order, order), monitor).match();
+        int[] cover = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            cover[order[i]] = shuffled[i] == UNMATCHED ? UNMATCHED : order[shuffled[i]];
+        }
+
+        return cover;
+    }
+
+    /*
+     * Karp's patching: the cycles of a complete match are joined by
+     * exchanging the receivers of two givers on different cycles, smallest
+     * cycle first, until one cycle is left or no exchange is allowed.
+     */
+    private boolean isPatched(final int... cover) {
+        int[] cycles = new int[size];
+
+        for (int count = labelCycles(cover, cycles); count > 1; count = labelCycles(cover, cycles)) {
+            monitor.checkpoint(1, size - count, size);
+            if (!isMerged(cover, cycles, count)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private int labelCycles(final int[] cover, final int... cycles) {
+        int count = 0;
+
+        Arrays.fill(cycles, NOT_FOUND);
+        for (int node = 0; node < size; node++) {
+            if (cycles[node] == NOT_FOUND) {
+                for (int member = node; cycles[member] == NOT_FOUND; member = cover[member]) {
+                    cycles[member] = count;
+                }
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    private boolean isMerged(final int[] cover, final int[] cycles, final int count) {
+        int[] order = cycleOrder(cycles, count);
+
+        for (int node : order) {
+            int target = cover[node];
+
+            for (int other = BitSetTool.nextSetBit(inRows, target * words, words, 0); other != NOT_FOUND;
+                 other = BitSetTool.nextSetBit(inRows, target * words, words, other + 1)) {
+                if (cycles[other] != cycles[node] && BitSetTool.get(outRows, node * words, cover[other])) {
+                    cover[node] = cover[other];
+                    cover[other] = target;
+
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /*
+     * Everyone, with the members of the smallest cycles first.
+     */
+    private int[] cycleOrder(final int[] cycles, final int count) {
+        int[] cycleSizes = new int[count];
+
+        for (int cycle : cycles) {
+            cycleSizes[cycle]++;
+        }
+
+        long[] keys = new long[size];
+
+        for (int node = 0; node < size; node++) {
+            keys[node] = ((long) cycleSizes[cycles[node]] << Integer.SIZE) | node;
+        }
+        Arrays.sort(keys);
+
+        return Arrays.stream(keys)
+            .mapToInt(k -> (int) k)
+            .toArray();
+    }
+
+    private int runSearch(final long budget) {
+        int start = reset();
+
+        if (!isReachable(start, start)) {
+            return IMPOSSIBLE;
+        }
+
+        long nodes = 0;
+        int depth = 0;
+
+        pushCandidates(0);
+        while (depth >= 0 && depth < size - 1) {
+            if (choiceNext[depth] == choiceEnd[depth]) {
+                if (depth > 0) {
+                    retreat(path[depth - 1], path[depth]);
+                }
+                depth--;
+            } else {
+                counter.count(depth);
+                nodes++;
+                if (nodes > budget) {
+                    counter.flush(depth);
+
+                    return GAVE_UP;
+                }
+
+                int next = (int) (choices[choiceNext[depth]++] & KEY_MASK);
+
+                if (advance(path[depth], next, start)) {
+                    depth++;
+                    path[depth] = next;
+                    pushCandidates(depth);
+                } else {
+                    retreat(path[depth], next);
+                }
+            }
+        }
+        counter.flush(Math.max(depth, 0));
+
+        return depth < 0 ? IMPOSSIBLE : FOUND;
+    }
+
+    /*
+     * Starts from someone with the fewest ways in or out, as their edges
+     * are the hardest to fit into the cycle.
+     */
+    private int reset() {
+        int start = NOT_FOUND;
+        int bestDegree = Integer.MAX_VALUE;
+        int ties = 0;
+
+        BitSetTool.setRange(unvisited, 0, size);
+        for (int node = 0; node < size; node++) {
+            outAvailable[node] = BitSetTool.cardinality(outRows, node * words, words);
+            inAvailable[node] = BitSetTool.cardinality(inRows, node * words, words);
+
+            int degree = Math.min(outAvailable[node], inAvailable[node]);
+
+            if (degree < bestDegree) {
+                start = node;
+                bestDegree = degree;
+                ties = 1;
+            } else if (degree == bestDegree) {
+                ties++;
+                if (random.nextInt(ties) == 0) {
+                    start = node;
+                }
+            }
+        }
+        BitSetTool.clear(unvisited, 0, start);
+        remaining = size - 1;
+        path[0] = start;
+
+        return start;
+    }
+
+    /*
+     * Candidates are ordered by their onward choices, with ties at random.
+     * Someone whose only way in is from the end of the path must come next,
+     * and two such people mean the path is stuck.
+     */
+    private void pushCandidates(final int depth) {
+        int node = path[depth];
+        int begin = depth == 0 ? 0 : choiceEnd[depth - 1];
+        int end = begin;
+        int forced = NOT_FOUND;
+        int forcedCount = 0;
+
+        for (int next = nextUnvisited(outRows, node, 0); next != NOT_FOUND; next = nextUnvisited(outRows, node, next + 1)) {
+            if (inAvailable[next] == 1) {
+                forced = next;
+                forcedCount++;
+            }
+            choices[end++] = ((long) outAvailable[next] << (2 * KEY_BITS)) | ((long) random.nextInt(1 << KEY_BITS) << KEY_BITS) | next;
+        }
+        if (forcedCount > 1) {
+            end = begin;
+        } else if (forcedCount == 1) {
+            choices[begin] = forced;
+            end = begin + 1;
+        } else {
+            Arrays.sort(choices, begin, end);
+        }
+        choiceNext[depth] = begin;
+        choiceEnd[depth] = end;
+    }
+
+    /*
+     * Moves the end of the path from one person to the next, keeping count
+     * of the ways into and out of everyone not yet on the path.
+     */
+    private boolean advance(final int previous, final int next, final int start) {
+        boolean isConsistent = true;
+
+        BitSetTool.clear(unvisited, 0, next);
+        remaining--;
+        for (int node = BitSetTool.nextSetBit(inRows, next * words, words, 0); node != NOT_FOUND; node = BitSetTool.nextSetBit(inRows, next * words, words, node + 1)) {
+            outAvailable[node]--;
+            isConsistent &= outAvailable[node] > 0 || !isUnvisited(node);
+        }
+        for (int node = BitSetTool.nextSetBit(outRows, previous * words, words, 0); node != NOT_FOUND; node = BitSetTool.nextSetBit(outRows, previous * words, words, node + 1)) {
+            inAvailable[node]--;
+            isConsistent &= inAvailable[node] > 0 || !isUnvisited(node);
+        }
+        if (remaining == 0) {
+            return BitSetTool.get(outRows, next * words, start);
+        }
+
+        return isConsistent && isReachable(next, start);
+    }
+
+    private void retreat(final int previous, final int next) {
+        for (int node = BitSetTool.nextSetBit(outRows, previous * words, words, 0); node != NOT_FOUND; node = BitSetTool.nextSetBit(outRows, previous * words, words, node + 1)) {
+            inAvailable[node]++;
+        }
+        for (int node = BitSetTool.nextSetBit(inRows, next * words, words, 0); node != NOT_FOUND; node = BitSetTool.nextSetBit(inRows, next * words, words, node + 1)) {
+            outAvailable[node]++;
+        }
+        BitSetTool.set(unvisited, 0, next);
+        remaining++;
+    }
+
+    /*
+     * Everyone not yet on the path must be reachable from its end, and able
+     * to reach its start, without passing through anyone already on it.
+     */
+    private boolean isReachable(final int end, final int start) {
+        return countReached(outRows, end) == remaining && countReached(inRows, start) == remaining;
+    }
+
+    private int countReached(final long[] rows, final int origin) {
+        int head = 0;
+        int tail = 0;
+
+        Arrays.fill(reached, 0);
+        queue[tail++] = origin;
+        while (head < tail) {
+            int offset = queue[head++] * words;
+
+            for (int word = 0; word < words; word++) {
+                long found = rows[offset + word] & unvisited[word] & ~reached[word];
+
+                reached[word] |= found;
+                tail = enqueue(found, word, tail);
+            }
+        }
+
+        return tail - 1;
+    }
+
+    private int enqueue(final long found, final int word, final int tail) {
+        int next = tail;
+
+        for (long bits = found; bits != 0; bits &= bits - 1) {
+            queue[next++] = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+        }
+
+        return next;
+    }
+
+    private int nextUnvisited(final long[] rows, final int node, final int from) {
+        return BitSetTool.nextSetBitAnd(rows, node * words, unvisited, words, from);
+    }
+
+    private boolean isUnvisited(final int node) {
+        return BitSetTool.get(unvisited, 0, node);
+    }
+}
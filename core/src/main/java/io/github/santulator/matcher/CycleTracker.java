@@ -0,0 +1,98 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import java.util.Arrays;
+
+import static io.github.santulator.matcher.BitSetTool.NOT_FOUND;
+
+/**
+ * Tracks the paths formed by a partial draw so that a search can refuse any
+ * assignment closing a cycle shorter than the minimum.  Each path records its
+ * start at its end and its end and length at its start, so that joining two
+ * paths, and undoing the join in reverse order, takes constant time.
+ */
+final class CycleTracker {
+    private final int minimumLength;
+
+    private final int[] receiverPeople;
+
+    private final int[] personReceivers;
+
+    private final int[] pathStart;
+
+    private final int[] pathEnd;
+
+    private final int[] pathLength;
+
+    CycleTracker(final ParticipantIndex index, final int minimumLength) {
+        int peopleCount = index.giverCount() + index.receiverCount();
+
+        this.minimumLength = minimumLength;
+        this.receiverPeople = new int[index.receiverCount()];
+        this.personReceivers = new int[peopleCount];
+        this.pathStart = new int[peopleCount];
+        this.pathEnd = new int[peopleCount];
+        this.pathLength = new int[peopleCount];
+        Arrays.fill(personReceivers, NOT_FOUND);
+        for (int receiver = 0; receiver < receiverPeople.length; receiver++) {
+            int giver = index.giverId(index.receiver(receiver));
+
+            receiverPeople[receiver] = giver == NOT_FOUND ? index.giverCount() + receiver : giver;
+            personReceivers[receiverPeople[receiver]] = receiver;
+        }
+        for (int person = 0; person < peopleCount; person++) {
+            pathStart[person] = person;
+            pathEnd[person] = person;
+            pathLength[person] = 1;
+        }
+    }
+
+    boolean isAllowed(final int giver, final int receiver) {
+        int start = pathStart[giver];
+
+        return start != receiverPeople[receiver] || pathLength[start] >= minimumLength;
+    }
+
+    /*
+     * An unassigned giver ends a path, and the only receiver it may not
+     * have is the start of that path while the path is too short.
+     */
+    int blockedReceiver(final int giver) {
+        int start = pathStart[giver];
+
+        return pathLength[start] >= minimumLength ? NOT_FOUND : personReceivers[start];
+    }
+
+    void join(final int giver, final int receiver) {
+        int start = pathStart[giver];
+        int next = receiverPeople[receiver];
+
+        if (start != next) {
+            int end = pathEnd[next];
+
+            pathEnd[start] = end;
+            pathStart[end] = start;
+            pathLength[start] += pathLength[next];
+        }
+    }
+
+    /*
+     * The receiver's record of its old end is untouched while it sits inside
+     * a path, and later joins have already been undone.
+     */
+    void split(final int giver, final int receiver) {
+        int start = pathStart[giver];
+        int next = receiverPeople[receiver];
+
+        if (start != next) {
+            int end = pathEnd[next];
+
+            pathStart[end] = next;
+            pathEnd[start] = giver;
+            pathLength[start] -= pathLength[next];
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import io.github.santulator.model.Person;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static io.github.santulator.matcher.BitSetTool.NOT_FOUND;
+import static io.github.santulator.matcher.HopcroftKarpMatcher.UNMATCHED;
+
+/**
+ * Decides in polynomial time whether every giver can be matched and, if not,
+ * explains why.  By Konig's theorem the givers reachable by alternating paths
+ * from a giver left out of a maximum matching can reach one receiver fewer
+ * than their number, which breaks Hall's condition.  The smallest such group
+ * over the unmatched givers is reported.
+ */
+public final class FeasibilityChecker {
+    private final ParticipantIndex index;
+
+    private final int[] receiverMatch;
+
+    private final int[] queue;
+
+    private final boolean[] reachedGivers;
+
+    private final boolean[] reachedReceivers;
+
+    public FeasibilityChecker(final ParticipantIndex index) {
+        this.index = index;
+        this.receiverMatch = new int[index.receiverCount()];
+        this.queue = new int[index.giverCount()];
+        this.reachedGivers = new boolean[index.giverCount()];
+        this.reachedReceivers = new boolean[index.receiverCount()];
+    }
+
+    public Optional<HallViolation> findViolation() {
+        int[] giverMatch = new HopcroftKarpMatcher(index).match();
+        int[] best = null;
+
+        Arrays.fill(receiverMatch, UNMATCHED);
+        for (int giver = 0; giver < giverMatch.length; giver++) {
+            if (giverMatch[giver] != UNMATCHED) {
+                receiverMatch[giverMatch[giver]] = giver;
+            }
+        }
+        for (int giver = 0; giver < giverMatch.length; giver++) {
+            if (giverMatch[giver] == UNMATCHED) {
+                int[] group = reachableGivers(giver);
+
+                if (best == null || group.length < best.length) {
+                    best = group;
+                }
+            }
+        }
+
+        return Optional.ofNullable(best)
+            .map(this::violation);
+    }
+
+    private int[] reachableGivers(final int root) {
+        int tail = 0;
+
+        Arrays.fill(reachedGivers, false);
+        reachedGivers[root] = true;
+        queue[tail++] = root;
+        for (int head = 0; head < tail; head++) {
+            int giver = queue[head];
+
+            for (int receiver = index.nextAllowed(giver, 0); receiver != NOT_FOUND; receiver = index.nextAllowed(giver, receiver + 1)) {
+                int next = receiverMatch[receiver];
+
+                if (!reachedGivers[next]) {
+                    reachedGivers[next] = true;
+                    queue[tail++] = next;
+                }
+            }
+        }
+
+        int[] group = Arrays.copyOf(queue, tail);
+
+        Arrays.sort(group);
+
+        return group;
+    }
+
+    private HallViolation violation(final int... group) {
+        List<Person> givers = new ArrayList<>(group.length);
+        List<Person> receivers = new ArrayList<>();
+
+        Arrays.fill(reachedReceivers, false);
+        for (int giver : group) {
+            givers.add(index.giver(giver));
+            for (int receiver = index.nextAllowed(giver, 0); receiver != NOT_FOUND; receiver = index.nextAllowed(giver, receiver + 1)) {
+                reachedReceivers[receiver] = true;
+            }
+        }
+        for (int receiver = 0; receiver < reachedReceivers.length; receiver++) {
+            if (reachedReceivers[receiver]) {
+                receivers.add(index.receiver(receiver));
+            }
+        }
+
+        return new HallViolation(givers, receivers);
+    }
+}
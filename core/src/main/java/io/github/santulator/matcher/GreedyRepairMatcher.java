@@ -0,0 +1,236 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
+
+import static io.github.santulator.matcher.HopcroftKarpMatcher.UNMATCHED;
+
+/**
+ * Draws too large for an exact search.  Once a {@link SparseMatcher} shows
+ * the draw is possible, receivers are dealt at random and each broken pair is
+ * repaired by a short random path rotating receivers along a chain of givers.
+ * Repairs never break a pair and can run in parallel over disjoint blocks of
+ * givers.  Pairs still broken after the last round are matched exactly.
+ */
+public final class GreedyRepairMatcher {
+    private static final int MAX_PATH = 8;
+
+    private static final int WALKS = 64;
+
+    private static final int MAX_ROUNDS = 1 << 10;
+
+    private static final int BLOCK_SIZE = 1 << 14;
+
+    private final SparseIndex index;
+
+    private final SplittableRandom random;
+
+    private final ForkJoinPool pool;
+
+    private final boolean isParallel;
+
+    private final SearchMonitor monitor;
+
+    private final int size;
+
+    public GreedyRepairMatcher(final SparseIndex index, final SplittableRandom random) {
+        this(index, random, new SearchMonitor());
+    }
+
+    public GreedyRepairMatcher(final SparseIndex index, final SplittableRandom random, final SearchMonitor monitor) {
+        this(index, random, ForkJoinPool.commonPool(), false, monitor);
+    }
+
+    public GreedyRepairMatcher(final SparseIndex index, final SplittableRandom random, final ForkJoinPool pool, final SearchMonitor monitor) {
+        this(index, random, pool, true, monitor);
+    }
+
+    private GreedyRepairMatcher(
+        final SparseIndex index, final SplittableRandom random, final ForkJoinPool pool, final boolean isParallel, final SearchMonitor monitor) {
+        this.index = index;
+        this.random = random;
+        this.pool = pool;
+        this.isParallel = isParallel;
+        this.monitor = monitor;
+        this.size = index.giverCount();
+    }
+
+    public int[] match() {
+        if (size != index.receiverCount() || !isPossible()) {
+            return unmatched();
+        }
+
+        int[] match = deal();
+        int[] conflicts = isParallel ? repairBlocks(match, parallelConflicts(match)) : conflicts(match);
+
+        for (int round = 0; conflicts.length > 0 && round < MAX_ROUNDS; round++) {
+            conflicts = repair(match, conflicts, 0, size, random);
+            monitor.checkpoint(conflicts.length, size - conflicts.length, size);
+        }
+        if (conflicts.length == 0) {
+            return match;
+        }
+        for (int giver : conflicts) {
+            match[giver] = UNMATCHED;
+        }
+
+        return new SparseMatcher(index, monitor).complete(match);
+    }
+
+    private boolean isPossible() {
+        int[] match = new SparseMatcher(index, monitor).match();
+
+        return Arrays.stream(match).noneMatch(r -> r == UNMATCHED);
+    }
+
+    private int[] unmatched() {
+        int[] match = new int[size];
+
+        Arrays.fill(match, UNMATCHED);
+
+        return match;
+    }
+
+    private int[] deal() {
+        int[] match = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            int j = random.nextInt(i + 1);
+
+            match[i] = match[j];
+            match[j] = i;
+        }
+
+        return match;
+    }
+
+    private int[] conflicts(final int... match) {
+        NodeCounter counter = new NodeCounter(monitor, size);
+        int[] conflicts = new int[size];
+        int count = 0;
+
+        for (int giver = 0; giver < size; giver++) {
+            counter.count(giver);
+            if (!index.isAllowed(giver, match[giver])) {
+                conflicts[count++] = giver;
+            }
+        }
+        counter.flush(size - count);
+
+        return Arrays.copyOf(conflicts, count);
+    }
+
+    private int[] parallelConflicts(final int... match) {
+        int[] conflicts = pool.submit(() -> IntStream.range(0, size).parallel()
+            .filter(g -> !index.isAllowed(g, match[g]))
+            .toArray())
+            .join();
+
+        monitor.checkpoint(size, size - conflicts.length, size);
+
+        return conflicts;
+    }
+
+    /*
+     * The conflicts are repaired within their own block of givers, so that
+     * the blocks share nothing.  Whatever a block cannot repair is left for
+     * the rounds over everyone.
+     */
+    private int[] repairBlocks(final int[] match, final int... conflicts) {
+        List<ForkJoinTask<int[]>> tasks = new ArrayList<>();
+        int first = 0;
+
+        while (first < conflicts.length) {
+            int block = conflicts[first] / BLOCK_SIZE;
+            int end = first;
+
+            while (end < conflicts.length && conflicts[end] / BLOCK_SIZE == block) {
+                end++;
+            }
+
+            int[] blockConflicts = Arrays.copyOfRange(conflicts, first, end);
+            SplittableRandom blockRandom = random.split();
+
+            tasks.add(pool.submit(() -> repair(match, blockConflicts, block * BLOCK_SIZE, Math.min(size, (block + 1) * BLOCK_SIZE), blockRandom)));
+            first = end;
+        }
+
+        return tasks.stream()
+            .flatMapToInt(t -> IntStream.of(t.join()))
+            .toArray();
+    }
+
+    private int[] repair(final int[] match, final int[] conflicts, final int from, final int to, final SplittableRandom walkRandom) {
+        int[] path = new int[MAX_PATH + 1];
+        int[] remaining = new int[conflicts.length];
+        int count = 0;
+
+        for (int giver : conflicts) {
+            if (!index.isAllowed(giver, match[giver]) && !isRepaired(giver, match, path, from, to, walkRandom)) {
+                remaining[count++] = giver;
+            }
+        }
+
+        return Arrays.copyOf(remaining, count);
+    }
+
+    private boolean isRepaired(final int giver, final int[] match, final int[] path, final int from, final int to, final SplittableRandom walkRandom) {
+        for (int walk = 0; walk < WALKS; walk++) {
+            if (isWalked(giver, match, path, from, to - from, walkRandom)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /*
+     * Each giver on the path can take the receiver of the next one, and the
+     * walk succeeds once the last can take the receiver of the first, when
+     * the receivers rotate along it.
+     */
+    private boolean isWalked(final int giver, final int[] match, final int[] path, final int from, final int span, final SplittableRandom walkRandom) {
+        int free = match[giver];
+        int length = 1;
+        int next = from + walkRandom.nextInt(span);
+
+        path[0] = giver;
+        while (length <= MAX_PATH && !isOnPath(next, length, path) && index.isAllowed(path[length - 1], match[next])) {
+            path[length++] = next;
+            if (index.isAllowed(next, free)) {
+                rotate(match, free, length, path);
+
+                return true;
+            }
+            next = from + walkRandom.nextInt(span);
+        }
+
+        return false;
+    }
+
+    private boolean isOnPath(final int giver, final int length, final int... path) {
+        for (int i = 0; i < length; i++) {
+            if (path[i] == giver) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void rotate(final int[] match, final int free, final int length, final int... path) {
+        for (int i = 0; i < length - 1; i++) {
+            match[path[i]] = match[path[i + 1]];
+        }
+        match[path[length - 1]] = free;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import io.github.santulator.model.Person;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.util.List;
+
+/**
+ * Proof that a draw is impossible: a group of givers who, between them, are
+ * allowed to give to fewer receivers than there are givers in the group.
+ */
+public final class HallViolation {
+    private final List<Person> givers;
+
+    private final List<Person> receivers;
+
+    public HallViolation(final List<Person> givers, final List<Person> receivers) {
+        this.givers = List.copyOf(givers);
+        this.receivers = List.copyOf(receivers);
+    }
+
+    public List<Person> getGivers() {
+        return givers;
+    }
+
+    public List<Person> getReceivers() {
+        return receivers;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        HallViolation that = (HallViolation) o;
+
+        return new EqualsBuilder()
+                .append(givers, that.givers)
+                .append(receivers, that.receivers)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder()
+                .append(givers)
+                .append(receivers)
+                .toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
+            .append("givers", givers)
+            .append("receivers", receivers)
+            .toString();
+    }
+}
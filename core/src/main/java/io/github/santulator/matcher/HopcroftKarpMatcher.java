@@ -0,0 +1,168 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import java.util.Arrays;
+
+import static io.github.santulator.matcher.BitSetTool.NOT_FOUND;
+
+/**
+ * Maximum bipartite matching of givers to receivers using the Hopcroft-Karp
+ * algorithm, which runs in O(E * sqrt(V)) time.  Receivers are tried in index
+ * order, so callers can randomise the result through that order.  The search
+ * for augmenting paths uses preallocated arrays rather than recursion, so the
+ * stack depth does not grow with the number of participants.
+ */
+public final class HopcroftKarpMatcher {
+    public static final int UNMATCHED = -1;
+
+    private static final int INFINITE_DISTANCE = Integer.MAX_VALUE;
+
+    private final ParticipantIndex index;
+
+    private final int[] giverMatch;
+
+    private final int[] receiverMatch;
+
+    private final long[] matchedReceivers;
+
+    private final int[] distance;
+
+    private final int[] queue;
+
+    private final int[] path;
+
+    private final int[] pathReceivers;
+
+    private final int[] cursor;
+
+    private final NodeCounter counter;
+
+    private int freeDistance;
+
+    private int matchedCount;
+
+    public HopcroftKarpMatcher(final ParticipantIndex index) {
+        this(index, new SearchMonitor());
+    }
+
+    public HopcroftKarpMatcher(final ParticipantIndex index, final SearchMonitor monitor) {
+        this.index = index;
+        this.counter = new NodeCounter(monitor, index.giverCount());
+        this.giverMatch = new int[index.giverCount()];
+        this.receiverMatch = new int[index.receiverCount()];
+        this.matchedReceivers = index.newReceiverSet();
+        this.distance = new int[index.giverCount()];
+        this.queue = new int[index.giverCount()];
+        this.path = new int[index.giverCount()];
+        this.pathReceivers = new int[index.giverCount()];
+        this.cursor = new int[index.giverCount()];
+        Arrays.fill(giverMatch, UNMATCHED);
+        Arrays.fill(receiverMatch, UNMATCHED);
+    }
+
+    public int[] match() {
+        while (buildLayers()) {
+            for (int giver = 0; giver < giverMatch.length; giver++) {
+                if (giverMatch[giver] == UNMATCHED) {
+                    augment(giver);
+                    counter.count(matchedCount);
+                }
+            }
+        }
+        counter.flush(matchedCount);
+
+        return Arrays.copyOf(giverMatch, giverMatch.length);
+    }
+
+    private boolean buildLayers() {
+        int head = 0;
+        int tail = 0;
+
+        for (int giver = 0; giver < giverMatch.length; giver++) {
+            cursor[giver] = 0;
+            if (giverMatch[giver] == UNMATCHED) {
+                distance[giver] = 0;
+                queue[tail++] = giver;
+            } else {
+                distance[giver] = INFINITE_DISTANCE;
+            }
+        }
+
+        freeDistance = INFINITE_DISTANCE;
+        while (head < tail) {
+            int giver = queue[head++];
+
+            if (distance[giver] < freeDistance) {
+                if (index.nextAllowedNotIn(giver, matchedReceivers, 0) != NOT_FOUND) {
+                    freeDistance = distance[giver];
+                }
+                for (int receiver = index.nextAllowedIn(giver, matchedReceivers, 0); receiver != NOT_FOUND;
+                     receiver = index.nextAllowedIn(giver, matchedReceivers, receiver + 1)) {
+                    int next = receiverMatch[receiver];
+
+                    if (distance[next] == INFINITE_DISTANCE) {
+                        distance[next] = distance[giver] + 1;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+
+        return freeDistance != INFINITE_DISTANCE;
+    }
+
+    private void augment(final int root) {
+        int top = 0;
+
+        path[0] = root;
+        while (top >= 0) {
+            int giver = path[top];
+            int receiver = nextStep(giver);
+
+            if (receiver == NOT_FOUND) {
+                distance[giver] = INFINITE_DISTANCE;
+                top--;
+            } else if (receiverMatch[receiver] == UNMATCHED) {
+                pathReceivers[top] = receiver;
+                flipPath(top);
+                matchedCount++;
+
+                return;
+            } else {
+                pathReceivers[top] = receiver;
+                top++;
+                path[top] = receiverMatch[receiver];
+            }
+        }
+    }
+
+    private int nextStep(final int giver) {
+        if (distance[giver] == freeDistance) {
+            return index.nextAllowedNotIn(giver, matchedReceivers, 0);
+        } else {
+            int receiver = index.nextAllowedIn(giver, matchedReceivers, cursor[giver]);
+
+            while (receiver != NOT_FOUND && distance[receiverMatch[receiver]] != distance[giver] + 1) {
+                receiver = index.nextAllowedIn(giver, matchedReceivers, receiver + 1);
+            }
+            cursor[giver] = receiver + 1;
+
+            return receiver;
+        }
+    }
+
+    private void flipPath(final int top) {
+        for (int i = top; i >= 0; i--) {
+            assign(path[i], pathReceivers[i]);
+        }
+    }
+
+    private void assign(final int giver, final int receiver) {
+        giverMatch[giver] = receiver;
+        receiverMatch[receiver] = giver;
+        BitSetTool.set(matchedReceivers, 0, receiver);
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import io.github.santulator.model.GiverAssignment;
+import io.github.santulator.model.Person;
+
+import java.util.*;
+
+import static io.github.santulator.matcher.BitSetTool.NOT_FOUND;
+import static io.github.santulator.matcher.HopcroftKarpMatcher.UNMATCHED;
+
+/**
+ * Maximum match kept up to date while participants and exclusions change.
+ * Each change alters the size of the maximum match by at most one, so one
+ * search for an augmenting path from all the unmatched givers at once is
+ * enough to restore it.  Each participant keeps a slot while they take part,
+ * and the allowed pairs are held as a bitset over the receiver slots for each
+ * giver slot, which the search scans a word at a time.
+ */
+public final class IncrementalMatcher {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Map<Person, Integer> giverSlots = new HashMap<>();
+
+    private final Map<Person, Integer> receiverSlots = new HashMap<>();
+
+    private final Map<Person, Set<Person>> exclusions = new HashMap<>();
+
+    private final Map<Person, Set<Person>> excluders = new HashMap<>();
+
+    private final Set<GiverAssignment> exclusionPairs = new HashSet<>();
+
+    private int[] giverMatch = new int[0];
+
+    private int[] receiverMatch = new int[0];
+
+    private int[] freeGiverSlots = new int[0];
+
+    private int[] freeReceiverSlots = new int[0];
+
+    private int freeGiverCount;
+
+    private int freeReceiverCount;
+
+    private int usedGiverSlots;
+
+    private int usedReceiverSlots;
+
+    private long[] activeGivers = new long[0];
+
+    private long[] activeReceivers = new long[0];
+
+    private long[] allowed = new long[0];
+
+    private int receiverWords;
+
+    private int[] parents = new int[0];
+
+    private int[] queue = new int[0];
+
+    private int matchedCount;
+
+    /*
+     * Removals come first, so that slots are free for the additions.
+     */
+    public void update(final Collection<Person> participants, final Collection<GiverAssignment> newExclusions) {
+        Set<Person> newGivers = role(participants, true);
+        Set<Person> newReceivers = role(participants, false);
+        Set<GiverAssignment> excluded = new HashSet<>(newExclusions);
+
+        new ArrayList<>(exclusionPairs).stream()
+            .filter(e -> !excluded.contains(e))
+            .forEach(this::include);
+        new ArrayList<>(giverSlots.keySet()).stream()
+            .filter(p -> !newGivers.contains(p))
+            .forEach(this::removeGiver);
+        new ArrayList<>(receiverSlots.keySet()).stream()
+            .filter(p -> !newReceivers.contains(p))
+            .forEach(this::removeReceiver);
+        excluded.stream()
+            .filter(e -> !exclusionPairs.contains(e))
+            .forEach(this::exclude);
+        newGivers.stream()
+            .filter(p -> !giverSlots.containsKey(p))
+            .forEach(this::addGiver);
+        newReceivers.stream()
+            .filter(p -> !receiverSlots.containsKey(p))
+            .forEach(this::addReceiver);
+    }
+
+    private static Set<Person> role(final Collection<Person> participants, final boolean isGiver) {
+        Set<Person> people = new LinkedHashSet<>();
+
+        for (Person person : participants) {
+            if (isGiver ? person.getRole().isGiver() : person.getRole().isReceiver()) {
+                people.add(person);
+            }
+        }
+
+        return people;
+    }
+
+    public void addGiver(final Person person) {
+        if (!giverSlots.containsKey(person)) {
+            int slot = giverSlot();
+            int row = slot * receiverWords;
+
+            giverSlots.put(person, slot);
+            BitSetTool.set(activeGivers, 0, slot);
+            System.arraycopy(activeReceivers, 0, allowed, row, receiverWords);
+            clearAllowed(slot, receiverSlots.get(person));
+            for (Person receiver : exclusions.getOrDefault(person, Set.of())) {
+                clearAllowed(slot, receiverSlots.get(receiver));
+            }
+            augment();
+        }
+    }
+
+    public void addReceiver(final Person person) {
+        if (!receiverSlots.containsKey(person)) {
+            int slot = receiverSlot();
+            int giverWords = BitSetTool.words(giverMatch.length);
+
+            receiverSlots.put(person, slot);
+            BitSetTool.set(activeReceivers, 0, slot);
+            for (int giver = BitSetTool.nextSetBit(activeGivers, 0, giverWords, 0); giver != NOT_FOUND;
+                 giver = BitSetTool.nextSetBit(activeGivers, 0, giverWords, giver + 1)) {
+                BitSetTool.set(allowed, giver * receiverWords, slot);
+            }
+            clearAllowed(giverSlots.get(person), slot);
+            for (Person giver : excluders.getOrDefault(person, Set.of())) {
+                clearAllowed(giverSlots.get(giver), slot);
+            }
+            augment();
+        }
+    }
+
+    private void clearAllowed(final Integer giver, final Integer receiver) {
+        if (giver != null && receiver != null) {
+            BitSetTool.clear(allowed, giver * receiverWords, receiver);
+        }
+    }
+
+    private int giverSlot() {
+        if (freeGiverCount > 0) {
+            return freeGiverSlots[--freeGiverCount];
+        }
+        if (usedGiverSlots == giverMatch.length) {
+            growGivers(capacity(giverMatch.length));
+        }
+
+        return usedGiverSlots++;
+    }
+
+    private int receiverSlot() {
+        if (freeReceiverCount > 0) {
+            return freeReceiverSlots[--freeReceiverCount];
+        }
+        if (usedReceiverSlots == receiverMatch.length) {
+            growReceivers(capacity(receiverMatch.length));
+        }
+
+        return usedReceiverSlots++;
+    }
+
+    private static int capacity(final int current) {
+        return Math.max(INITIAL_CAPACITY, current * 2);
+    }
+
+    private void growGivers(final int capacity) {
+        giverMatch = grown(giverMatch, capacity);
+        freeGiverSlots = Arrays.copyOf(freeGiverSlots, capacity);
+        activeGivers = Arrays.copyOf(activeGivers, BitSetTool.words(capacity));
+        allowed = Arrays.copyOf(allowed, capacity * receiverWords);
+        queue = new int[capacity];
+    }
+
+    /*
+     * A wider row for each giver means the rows are laid out again.
+     */
+    private void growReceivers(final int capacity) {
+        int words = BitSetTool.words(capacity);
+        long[] grownAllowed = new long[giverMatch.length * words];
+
+        for (int giver = 0; giver < giverMatch.length; giver++) {
+            System.arraycopy(allowed, giver * receiverWords, grownAllowed, giver * words, receiverWords);
+        }
+        allowed = grownAllowed;
+        receiverWords = words;
+        receiverMatch = grown(receiverMatch, capacity);
+        freeReceiverSlots = Arrays.copyOf(freeReceiverSlots, capacity);
+        activeReceivers = Arrays.copyOf(activeReceivers, words);
+        parents = new int[capacity];
+    }
+
+    private static int[] grown(final int[] match, final int size) {
+        int[] grown = Arrays.copyOf(match, size);
+
+        Arrays.fill(grown, match.length, size, UNMATCHED);
+
+        return grown;
+    }
+
+    public void removeGiver(final Person person) {
+        Integer slot = giverSlots.remove(person);
+
+        if (slot != null) {
+            unmatch(slot);
+            BitSetTool.clear(activeGivers, 0, slot);
+            freeGiverSlots[freeGiverCount++] = slot;
+            augment();
+        }
+    }
+
+    public void removeReceiver(final Person person) {
+        Integer slot = receiverSlots.remove(person);
+
+        if (slot != null) {
+            if (receiverMatch[slot] != UNMATCHED) {
+                unmatch(receiverMatch[slot]);
+            }
+            BitSetTool.clear(activeReceivers, 0, slot);
+            freeReceiverSlots[freeReceiverCount++] = slot;
+            augment();
+        }
+    }
+
+    public void exclude(final GiverAssignment pair) {
+        if (exclusionPairs.add(pair)) {
+            exclusions.computeIfAbsent(pair.getFrom(), p -> new HashSet<>()).add(pair.getTo());
+            excluders.computeIfAbsent(pair.getTo(), p -> new HashSet<>()).add(pair.getFrom());
+
+            Integer giver = giverSlots.get(pair.getFrom());
+            Integer receiver = receiverSlots.get(pair.getTo());
+
+            clearAllowed(giver, receiver);
+            if (giver != null && receiver != null && giverMatch[giver] == receiver) {
+                unmatch(giver);
+                augment();
+            }
+        }
+    }
+
+    public void include(final GiverAssignment pair) {
+        if (exclusionPairs.remove(pair)) {
+            forget(exclusions, pair.getFrom(), pair.getTo());
+            forget(excluders, pair.getTo(), pair.getFrom());
+
+            Integer giver = giverSlots.get(pair.getFrom());
+            Integer receiver = receiverSlots.get(pair.getTo());
+
+            if (giver != null && receiver != null && !pair.getFrom().equals(pair.getTo())) {
+                BitSetTool.set(allowed, giver * receiverWords, receiver);
+                augment();
+            }
+        }
+    }
+
+    private static void forget(final Map<Person, Set<Person>> map, final Person key, final Person value) {
+        Set<Person> values = map.get(key);
+
+        values.remove(value);
+        if (values.isEmpty()) {
+            map.remove(key);
+        }
+    }
+
+    public int giverCount() {
+        return giverSlots.size();
+    }
+
+    public int receiverCount() {
+        return receiverSlots.size();
+    }
+
+    public int matchedCount() {
+        return matchedCount;
+    }
+
+    public boolean isComplete() {
+        return matchedCount == giverCount() && matchedCount == receiverCount();
+    }
+
+    private void unmatch(final int giver) {
+        int receiver = giverMatch[giver];
+
+        if (receiver != UNMATCHED) {
+            giverMatch[giver] = UNMATCHED;
+            receiverMatch[receiver] = UNMATCHED;
+            matchedCount--;
+        }
+    }
+
+    /*
+     * Breadth-first search from every unmatched giver for an unmatched
+     * receiver, flipping the path found.  Each receiver is visited at most
+     * once, so each giver is queued at most once.
+     */
+    private void augment() {
+        if (matchedCount == giverCount() || matchedCount == receiverCount()) {
+            return;
+        }
+
+        int giverWords = BitSetTool.words(giverMatch.length);
+        long[] unvisited = activeReceivers.clone();
+        int head = 0;
+        int tail = 0;
+
+        for (int giver = BitSetTool.nextSetBit(activeGivers, 0, giverWords, 0); giver != NOT_FOUND;
+             giver = BitSetTool.nextSetBit(activeGivers, 0, giverWords, giver + 1)) {
+            if (giverMatch[giver] == UNMATCHED) {
+                queue[tail++] = giver;
+            }
+        }
+        while (head < tail) {
+            int giver = queue[head++];
+            int row = giver * receiverWords;
+
+            for (int receiver = BitSetTool.nextSetBitAnd(allowed, row, unvisited, receiverWords, 0); receiver != NOT_FOUND;
+                 receiver = BitSetTool.nextSetBitAnd(allowed, row, unvisited, receiverWords, receiver + 1)) {
+                BitSetTool.clear(unvisited, 0, receiver);
+                parents[receiver] = giver;
+                if (receiverMatch[receiver] == UNMATCHED) {
+                    flip(receiver);
+
+                    return;
+                }
+                queue[tail++] = receiverMatch[receiver];
+            }
+        }
+    }
+
+    private void flip(final int end) {
+        int receiver = end;
+
+        while (receiver != UNMATCHED) {
+            int giver = parents[receiver];
+            int previous = giverMatch[giver];
+
+            giverMatch[giver] = receiver;
+            receiverMatch[receiver] = giver;
+            receiver = previous;
+        }
+        matchedCount++;
+    }
+}
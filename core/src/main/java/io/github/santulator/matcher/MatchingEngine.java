@@ -11,36 +11,56 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.SplittableRandom;
+
+import static io.github.santulator.matcher.HopcroftKarpMatcher.UNMATCHED;
 
 public class MatchingEngine {
+    private final MatchingStrategy strategy;
+
+    private final SplittableRandom random;
+
+    private final SearchMonitor monitor;
+
+    public MatchingEngine() {
+        this(MatchingMode.MAXIMUM_MATCHING);
+    }
+
+    public MatchingEngine(final MatchingStrategy strategy) {
+        this(strategy, new SplittableRandom());
+    }
+
+    public MatchingEngine(final MatchingStrategy strategy, final SplittableRandom random) {
+        this(strategy, random, new SearchMonitor());
+    }
+
+    public MatchingEngine(final MatchingStrategy strategy, final SplittableRandom random, final SearchMonitor monitor) {
+        this.strategy = strategy;
+        this.random = random;
+        this.monitor = monitor;
+    }
+
     public Optional<MatchExtender> findMatch(
         final List<Person> givers, final Collection<Person> receivers, final Set<GiverAssignment> restrictions) {
-        MatchExtender matcher = new RootMatcher(restrictions);
-
-        return completeMatch(matcher, givers, receivers);
+        return findMatch(ParticipantIndex.forAssignments(givers, receivers, restrictions));
     }
 
-    private Optional<MatchExtender> completeMatch(
-        final MatchExtender matcher, final List<Person> remaining, final Collection<Person> receivers) {
-        if (remaining.isEmpty()) {
-            return Optional.of(matcher);
-        } else {
-            Person head = remaining.get(0);
-            List<Person> tail = remaining.subList(1, remaining.size());
+    public Optional<MatchExtender> findMatch(final ParticipantIndex index) {
+        int[] match = strategy.match(index, random, monitor);
 
-            for (Person rhs : receivers) {
-                GiverAssignment pair = new GiverAssignment(head, rhs);
+        return buildMatch(match, index);
+    }
 
-                if (matcher.isPossibleExtension(pair)) {
-                    Optional<MatchExtender> result = completeMatch(new PairMatch(matcher, pair), tail, receivers);
+    private Optional<MatchExtender> buildMatch(final int[] match, final ParticipantIndex index) {
+        MatchExtender matcher = new RootMatcher(index);
 
-                    if (result.isPresent()) {
-                        return result;
-                    }
-                }
+        for (int giver = index.giverCount() - 1; giver >= 0; giver--) {
+            if (match[giver] == UNMATCHED) {
+                return Optional.empty();
             }
-
-            return Optional.empty();
+            matcher = new PairMatch(matcher, index.assignment(giver, match[giver]));
         }
+
+        return Optional.of(matcher);
     }
 }
@@ -0,0 +1,52 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import java.util.SplittableRandom;
+
+public enum MatchingMode implements MatchingStrategy {
+    /**
+     * Polynomial time maximum bipartite matching.
+     */
+    MAXIMUM_MATCHING {
+        @Override
+        public int[] match(final ParticipantIndex index, final SplittableRandom random, final SearchMonitor monitor) {
+            return new HopcroftKarpMatcher(index, monitor).match();
+        }
+    },
+
+    /**
+     * Backtracking search that places the most constrained giver first and
+     * abandons a branch as soon as any giver is left without a candidate.
+     */
+    MOST_CONSTRAINED_FIRST {
+        @Override
+        public int[] match(final ParticipantIndex index, final SplittableRandom random, final SearchMonitor monitor) {
+            return new MostConstrainedSearch(index, random, monitor).search();
+        }
+    },
+
+    /**
+     * Random choice in which every valid assignment is equally likely.  Large
+     * draws with many restrictions fail as too slow to sample.
+     */
+    UNIFORM_SAMPLE {
+        @Override
+        public int[] match(final ParticipantIndex index, final SplittableRandom random, final SearchMonitor monitor) {
+            return new UniformSampler(random, monitor).sample(index);
+        }
+    },
+
+    /**
+     * Maximum flow between classes of interchangeable participants, expanded
+     * into people by random permutations within each class.
+     */
+    EQUIVALENCE_CLASSES {
+        @Override
+        public int[] match(final ParticipantIndex index, final SplittableRandom random, final SearchMonitor monitor) {
+            return new ClassCountMatcher(index, random, monitor).match();
+        }
+    }
+}
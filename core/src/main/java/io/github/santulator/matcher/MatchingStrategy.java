@@ -0,0 +1,16 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import java.util.SplittableRandom;
+
+/**
+ * A way of assigning givers to receivers.  The result holds the receiver of
+ * each giver, with {@link HopcroftKarpMatcher#UNMATCHED} for any giver who
+ * could not be placed.
+ */
+public interface MatchingStrategy {
+    int[] match(ParticipantIndex index, SplittableRandom random, SearchMonitor monitor);
+}
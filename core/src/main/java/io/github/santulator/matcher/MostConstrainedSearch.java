@@ -0,0 +1,272 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static io.github.santulator.matcher.BitSetTool.NOT_FOUND;
+import static io.github.santulator.matcher.HopcroftKarpMatcher.UNMATCHED;
+
+/**
+ * Backtracking search that always extends the match with the giver who has
+ * the fewest receivers left (ties broken at random) and uses forward checking
+ * to abandon a branch as soon as the unassigned givers cannot all be matched.
+ * Receivers closing a cycle below the minimum length are not candidates.
+ * Each receiver tried counts as a node, and searches that run long restart
+ * with a larger node budget.
+ */
+public final class MostConstrainedSearch {
+    private static final int NONE = -1;
+
+    private static final int FOUND = 1;
+
+    private static final int IMPOSSIBLE = 0;
+
+    private static final int GAVE_UP = -1;
+
+    private static final int INITIAL_BUDGET_FACTOR = 16;
+
+    private final ParticipantIndex index;
+
+    private final SplittableRandom random;
+
+    private final int giverCount;
+
+    private final int giverWords;
+
+    private final long[] receiverColumns;
+
+    private final long[] unassignedGivers;
+
+    private final long[] usedReceivers;
+
+    private final int[] candidates;
+
+    private final int[] giverMatch;
+
+    private final int[] stackGivers;
+
+    private final int[] stackReceivers;
+
+    private final NodeCounter counter;
+
+    private final CycleTracker tracker;
+
+    private final ResidualMatcher residual;
+
+    public MostConstrainedSearch(final ParticipantIndex index, final SplittableRandom random) {
+        this(index, random, new SearchMonitor());
+    }
+
+    public MostConstrainedSearch(final ParticipantIndex index, final SplittableRandom random, final SearchMonitor monitor) {
+        this(index, random, monitor, 1);
+    }
+
+    public MostConstrainedSearch(final ParticipantIndex index, final SplittableRandom random, final SearchMonitor monitor, final int minimumCycleLength) {
+        this.index = index;
+        this.random = random;
+        this.giverCount = index.giverCount();
+        this.giverWords = BitSetTool.words(giverCount);
+        this.receiverColumns = new long[index.receiverCount() * giverWords];
+        this.unassignedGivers = new long[giverWords];
+        this.usedReceivers = index.newReceiverSet();
+        this.candidates = new int[giverCount];
+        this.giverMatch = new int[giverCount];
+        this.stackGivers = new int[giverCount];
+        this.stackReceivers = new int[giverCount];
+        this.counter = new NodeCounter(monitor, giverCount);
+        this.tracker = new CycleTracker(index, minimumCycleLength);
+        this.residual = new ResidualMatcher(index, tracker);
+        BitSetTool.setRange(unassignedGivers, 0, giverCount);
+        Arrays.fill(giverMatch, UNMATCHED);
+        for (int giver = 0; giver < giverCount; giver++) {
+            candidates[giver] = index.allowedCount(giver);
+            for (int receiver = index.nextAllowed(giver, 0); receiver != NOT_FOUND; receiver = index.nextAllowed(giver, receiver + 1)) {
+                BitSetTool.set(receiverColumns, receiver * giverWords, giver);
+            }
+        }
+    }
+
+    public int[] search() {
+        if (isSearchNeeded()) {
+            int outcome = GAVE_UP;
+
+            for (long budget = (long) INITIAL_BUDGET_FACTOR * giverCount; outcome == GAVE_UP; budget += budget / 4) {
+                outcome = runSearch(budget);
+            }
+        }
+
+        return Arrays.copyOf(giverMatch, giverCount);
+    }
+
+    private boolean isSearchNeeded() {
+        return giverCount > 0 && giverCount <= index.receiverCount() && isEveryGiverPossible();
+    }
+
+    private int runSearch(final long budget) {
+        stackGivers[0] = selectGiver();
+        stackReceivers[0] = NONE;
+        if (stackGivers[0] == NONE) {
+            return IMPOSSIBLE;
+        }
+
+        int depth = 0;
+        long nodes = 0;
+
+        while (depth >= 0 && depth < giverCount) {
+            if (nodes == budget) {
+                counter.flush(depth);
+                abandon(depth);
+
+                return GAVE_UP;
+            }
+            nodes++;
+            depth = step(depth);
+        }
+        counter.flush(Math.max(depth, 0));
+
+        return depth < 0 ? IMPOSSIBLE : FOUND;
+    }
+
+    private int step(final int depth) {
+        int giver = stackGivers[depth];
+        int previous = stackReceivers[depth];
+
+        if (previous != NONE) {
+            unassign(giver, previous);
+        }
+
+        int receiver = nextReceiver(giver, previous + 1);
+
+        counter.count(depth);
+        stackReceivers[depth] = receiver;
+        if (receiver == NOT_FOUND) {
+            return depth - 1;
+        } else if (assign(giver, receiver)) {
+            return descend(depth);
+        } else {
+            return depth;
+        }
+    }
+
+    private void abandon(final int depth) {
+        for (int level = depth; level >= 0; level--) {
+            if (stackReceivers[level] != NONE) {
+                unassign(stackGivers[level], stackReceivers[level]);
+            }
+        }
+    }
+
+    /*
+     * Stays at the same depth if choosing the next giver shows the branch
+     * to be a dead end.
+     */
+    private int descend(final int depth) {
+        int next = depth + 1;
+
+        if (next < giverCount) {
+            int giver = selectGiver();
+
+            if (giver == NONE) {
+                return depth;
+            }
+            stackGivers[next] = giver;
+            stackReceivers[next] = NONE;
+        }
+
+        return next;
+    }
+
+    private int nextReceiver(final int giver, final int from) {
+        int receiver = index.nextAllowedNotIn(giver, usedReceivers, from);
+
+        while (receiver != NOT_FOUND && !tracker.isAllowed(giver, receiver)) {
+            receiver = index.nextAllowedNotIn(giver, usedReceivers, receiver + 1);
+        }
+
+        return receiver;
+    }
+
+    private boolean isEveryGiverPossible() {
+        for (int candidateCount : candidates) {
+            if (candidateCount == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /*
+     * None if some giver has no candidates once the cycle rule is applied,
+     * or the givers left cannot all be matched at once.
+     */
+    private int selectGiver() {
+        int best = NONE;
+        int bestCount = Integer.MAX_VALUE;
+        int ties = 0;
+
+        for (int giver = BitSetTool.nextSetBit(unassignedGivers, 0, giverWords, 0); giver != NOT_FOUND;
+             giver = BitSetTool.nextSetBit(unassignedGivers, 0, giverWords, giver + 1)) {
+            int count = candidateCount(giver);
+
+            if (count == 0 || !residual.isMatchable(giver, usedReceivers)) {
+                return NONE;
+            } else if (count < bestCount) {
+                best = giver;
+                bestCount = count;
+                ties = 1;
+            } else if (count == bestCount) {
+                ties++;
+                if (random.nextInt(ties) == 0) {
+                    best = giver;
+                }
+            }
+        }
+
+        return best;
+    }
+
+    private int candidateCount(final int giver) {
+        int blocked = tracker.blockedReceiver(giver);
+
+        if (blocked != NOT_FOUND && index.isAllowed(giver, blocked) && !BitSetTool.get(usedReceivers, 0, blocked)) {
+            return candidates[giver] - 1;
+        } else {
+            return candidates[giver];
+        }
+    }
+
+    private boolean assign(final int giver, final int receiver) {
+        boolean isConsistent = true;
+
+        giverMatch[giver] = receiver;
+        tracker.join(giver, receiver);
+        BitSetTool.clear(unassignedGivers, 0, giver);
+        BitSetTool.set(usedReceivers, 0, receiver);
+        for (int other = nextAffectedGiver(receiver, 0); other != NOT_FOUND; other = nextAffectedGiver(receiver, other + 1)) {
+            candidates[other]--;
+            isConsistent &= candidates[other] > 0;
+        }
+        residual.remove(giver, receiver);
+
+        return isConsistent;
+    }
+
+    private void unassign(final int giver, final int receiver) {
+        for (int other = nextAffectedGiver(receiver, 0); other != NOT_FOUND; other = nextAffectedGiver(receiver, other + 1)) {
+            candidates[other]++;
+        }
+        BitSetTool.clear(usedReceivers, 0, receiver);
+        BitSetTool.set(unassignedGivers, 0, giver);
+        tracker.split(giver, receiver);
+        giverMatch[giver] = UNMATCHED;
+    }
+
+    private int nextAffectedGiver(final int receiver, final int from) {
+        return BitSetTool.nextSetBitAnd(receiverColumns, receiver * giverWords, unassignedGivers, giverWords, from);
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import java.util.Arrays;
+
+import static io.github.santulator.matcher.BitSetTool.NOT_FOUND;
+import static io.github.santulator.matcher.HopcroftKarpMatcher.UNMATCHED;
+
+/**
+ * Draws in which everyone gives and receives the same number of presents,
+ * found as a maximum flow with Dinic's algorithm.  Each giver and receiver
+ * has that many presents as capacity and each allowed pair a capacity of one,
+ * so nobody gives to the same person twice.  The residual network is held
+ * as bitsets by giver and by receiver rather than as an edge list.
+ */
+public final class MultiGiftMatcher {
+    private static final int INFINITE_DISTANCE = Integer.MAX_VALUE;
+
+    private final ParticipantIndex index;
+
+    private final int gifts;
+
+    private final int giverWords;
+
+    private final long[] openPairs;
+
+    private final long[] giverPairs;
+
+    private final long[] receiverPairs;
+
+    private final int[] giverLoad;
+
+    private final int[] receiverLoad;
+
+    private final int[] giverDistance;
+
+    private final int[] receiverDistance;
+
+    private final int[] giverCursor;
+
+    private final int[] receiverCursor;
+
+    private final int[] queue;
+
+    private final int[] path;
+
+    private final int[] pathReceivers;
+
+    private final NodeCounter counter;
+
+    private int freeDistance;
+
+    private int flow;
+
+    public MultiGiftMatcher(final ParticipantIndex index, final int gifts) {
+        this(index, gifts, new SearchMonitor());
+    }
+
+    public MultiGiftMatcher(final ParticipantIndex index, final int gifts, final SearchMonitor monitor) {
+        int giverCount = index.giverCount();
+
+        this.index = index;
+        this.gifts = gifts;
+        this.giverWords = BitSetTool.words(giverCount);
+        this.openPairs = new long[giverCount * index.words()];
+        this.giverPairs = new long[giverCount * index.words()];
+        this.receiverPairs = new long[index.receiverCount() * giverWords];
+        this.giverLoad = new int[giverCount];
+        this.receiverLoad = new int[index.receiverCount()];
+        this.giverDistance = new int[giverCount];
+        this.receiverDistance = new int[index.receiverCount()];
+        this.giverCursor = new int[giverCount];
+        this.receiverCursor = new int[index.receiverCount()];
+        this.queue = new int[giverCount];
+        this.path = new int[giverCount + 1];
+        this.pathReceivers = new int[giverCount + 1];
+        this.counter = new NodeCounter(monitor, giverCount * gifts);
+        for (int giver = 0; giver < giverCount; giver++) {
+            System.arraycopy(index.allowedReceivers(giver), 0, openPairs, giver * index.words(), index.words());
+        }
+    }
+
+    /**
+     * The receivers of giver g are at positions g * gifts to
+     * (g + 1) * gifts - 1, and are all UNMATCHED if the draw is impossible.
+     */
+    public int[] match() {
+        int[] match = new int[index.giverCount() * gifts];
+
+        Arrays.fill(match, UNMATCHED);
+        if (index.giverCount() != index.receiverCount()) {
+            return match;
+        }
+        while (buildLevels()) {
+            for (int giver = 0; giver < giverLoad.length; giver++) {
+                while (giverLoad[giver] < gifts && augment(giver)) {
+                    counter.count(flow);
+                }
+            }
+        }
+        counter.flush(flow);
+        if (flow == match.length) {
+            for (int giver = 0; giver < giverLoad.length; giver++) {
+                copyReceivers(giver, match);
+            }
+        }
+
+        return match;
+    }
+
+    private void copyReceivers(final int giver, final int... match) {
+        int position = giver * gifts;
+
+        for (int receiver = nextPair(giver, 0); receiver != NOT_FOUND; receiver = nextPair(giver, receiver + 1)) {
+            match[position++] = receiver;
+        }
+    }
+
+    /*
+     * Breadth-first search of the residual network from the givers with
+     * presents left to give, stopping at the first level with a receiver
+     * who can still take one.
+     */
+    private boolean buildLevels() {
+        int tail = 0;
+
+        Arrays.fill(receiverDistance, INFINITE_DISTANCE);
+        Arrays.fill(receiverCursor, 0);
+        for (int giver = 0; giver < giverLoad.length; giver++) {
+            giverCursor[giver] = 0;
+            if (giverLoad[giver] < gifts) {
+                giverDistance[giver] = 0;
+                queue[tail++] = giver;
+            } else {
+                giverDistance[giver] = INFINITE_DISTANCE;
+            }
+        }
+        freeDistance = INFINITE_DISTANCE;
+
+        int head = 0;
+
+        while (head < tail) {
+            int giver = queue[head++];
+
+            if (giverDistance[giver] < freeDistance) {
+                tail = visitReceivers(giver, tail);
+            }
+        }
+
+        return freeDistance != INFINITE_DISTANCE;
+    }
+
+    private int visitReceivers(final int giver, final int tail) {
+        int next = tail;
+        int distance = giverDistance[giver] + 1;
+
+        for (int receiver = nextOpen(giver, 0); receiver != NOT_FOUND; receiver = nextOpen(giver, receiver + 1)) {
+            if (receiverDistance[receiver] == INFINITE_DISTANCE) {
+                receiverDistance[receiver] = distance;
+                if (receiverLoad[receiver] < gifts) {
+                    freeDistance = distance;
+                } else {
+                    next = visitGivers(receiver, next);
+                }
+            }
+        }
+
+        return next;
+    }
+
+    private int visitGivers(final int receiver, final int tail) {
+        int next = tail;
+
+        for (int giver = nextSender(receiver, 0); giver != NOT_FOUND; giver = nextSender(receiver, giver + 1)) {
+            if (giverDistance[giver] == INFINITE_DISTANCE) {
+                giverDistance[giver] = receiverDistance[receiver] + 1;
+                queue[next++] = giver;
+            }
+        }
+
+        return next;
+    }
+
+    /*
+     * Depth-first search along the levels for one augmenting path, which
+     * either ends at a receiver with room or abandons every dead end it met.
+     */
+    private boolean augment(final int root) {
+        int top = 0;
+
+        path[0] = root;
+        while (top >= 0) {
+            int giver = path[top];
+            int receiver = nextLevelReceiver(giver);
+
+            if (receiver == NOT_FOUND) {
+                giverDistance[giver] = INFINITE_DISTANCE;
+                top--;
+            } else if (receiverLoad[receiver] < gifts) {
+                pathReceivers[top] = receiver;
+                flipPath(top);
+
+                return true;
+            } else {
+                int sender = nextLevelGiver(receiver);
+
+                if (sender == NOT_FOUND) {
+                    receiverDistance[receiver] = INFINITE_DISTANCE;
+                } else {
+                    pathReceivers[top] = receiver;
+                    top++;
+                    path[top] = sender;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private int nextLevelReceiver(final int giver) {
+        int distance = giverDistance[giver] + 1;
+        int receiver = nextOpen(giver, giverCursor[giver]);
+
+        while (receiver != NOT_FOUND && !isOnLevel(receiver, distance)) {
+            receiver = nextOpen(giver, receiver + 1);
+        }
+        giverCursor[giver] = Math.max(receiver, 0);
+
+        return receiver;
+    }
+
+    private boolean isOnLevel(final int receiver, final int distance) {
+        return receiverDistance[receiver] == distance && (distance < freeDistance || receiverLoad[receiver] < gifts);
+    }
+
+    private int nextLevelGiver(final int receiver) {
+        int distance = receiverDistance[receiver] + 1;
+        int giver = nextSender(receiver, receiverCursor[receiver]);
+
+        while (giver != NOT_FOUND && giverDistance[giver] != distance) {
+            giver = nextSender(receiver, giver + 1);
+        }
+        receiverCursor[receiver] = Math.max(giver, 0);
+
+        return giver;
+    }
+
+    /*
+     * Each receiver on the path moves from the following giver to the one
+     * before it, so only the ends of the path change their load.
+     */
+    private void flipPath(final int top) {
+        for (int i = 0; i < top; i++) {
+            setPair(path[i + 1], pathReceivers[i], false);
+        }
+        for (int i = 0; i <= top; i++) {
+            setPair(path[i], pathReceivers[i], true);
+        }
+        giverLoad[path[0]]++;
+        receiverLoad[pathReceivers[top]]++;
+        flow++;
+    }
+
+    private void setPair(final int giver, final int receiver, final boolean isSet) {
+        if (isSet) {
+            BitSetTool.clear(openPairs, giver * index.words(), receiver);
+            BitSetTool.set(giverPairs, giver * index.words(), receiver);
+            BitSetTool.set(receiverPairs, receiver * giverWords, giver);
+        } else {
+            BitSetTool.set(openPairs, giver * index.words(), receiver);
+            BitSetTool.clear(giverPairs, giver * index.words(), receiver);
+            BitSetTool.clear(receiverPairs, receiver * giverWords, giver);
+        }
+    }
+
+    private int nextOpen(final int giver, final int from) {
+        return BitSetTool.nextSetBit(openPairs, giver * index.words(), index.words(), from);
+    }
+
+    private int nextPair(final int giver, final int from) {
+        return BitSetTool.nextSetBit(giverPairs, giver * index.words(), index.words(), from);
+    }
+
+    private int nextSender(final int receiver, final int from) {
+        return BitSetTool.nextSetBit(receiverPairs, receiver * giverWords, giverWords, from);
+    }
+}
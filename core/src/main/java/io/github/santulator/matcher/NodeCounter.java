@@ -0,0 +1,34 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+/**
+ * Counts the nodes of a single search and passes them to the monitor in
+ * batches, so that the hot loops only pay for an increment.
+ */
+final class NodeCounter {
+    private final SearchMonitor monitor;
+
+    private final int size;
+
+    private int pending;
+
+    NodeCounter(final SearchMonitor monitor, final int size) {
+        this.monitor = monitor;
+        this.size = size;
+    }
+
+    void count(final int depth) {
+        pending++;
+        if (pending == SearchMonitor.CHECK_INTERVAL) {
+            flush(depth);
+        }
+    }
+
+    void flush(final int depth) {
+        monitor.checkpoint(pending, depth, size);
+        pending = 0;
+    }
+}
@@ -0,0 +1,16 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import io.github.santulator.model.Person;
+
+/**
+ * The cost of a giver giving to a receiver, where lower costs are preferred.
+ * Restricted pairs are never chosen whatever their cost.
+ */
+@FunctionalInterface
+public interface PairCost {
+    int cost(Person giver, Person receiver);
+}
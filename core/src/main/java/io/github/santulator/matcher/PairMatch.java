@@ -18,7 +18,18 @@ public class PairMatch implements MatchExtender {
 
     @Override
     public boolean isPossibleExtension(final GiverAssignment pair) {
-        return !this.pair.getTo().equals(pair.getTo()) && parent.isPossibleExtension(pair);
+        MatchExtender current = this;
+
+        while (current instanceof PairMatch) {
+            PairMatch match = (PairMatch) current;
+
+            if (match.pair.getTo().equals(pair.getTo())) {
+                return false;
+            }
+            current = match.parent;
+        }
+
+        return current.isPossibleExtension(pair);
     }
 
     public GiverAssignment getPair() {
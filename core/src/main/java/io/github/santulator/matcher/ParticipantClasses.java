@@ -0,0 +1,200 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.github.santulator.matcher.BitSetTool.NOT_FOUND;
+
+/**
+ * Groups interchangeable participants.  Givers are in the same class when
+ * their allowed receivers match, and receivers when the same giver classes
+ * may choose them, so every giver in a class may be assigned any receiver in
+ * an allowed class other than themselves.
+ */
+public final class ParticipantClasses {
+    private final ParticipantIndex index;
+
+    private final int[] selfReceivers;
+
+    private final int[] giverClasses;
+
+    private final int[] receiverClasses;
+
+    private final List<long[]> giverKeys = new ArrayList<>();
+
+    private final List<int[]> giverMembers;
+
+    private final List<int[]> receiverMembers;
+
+    public ParticipantClasses(final ParticipantIndex index) {
+        this.index = index;
+        this.selfReceivers = new int[index.giverCount()];
+        this.giverClasses = new int[index.giverCount()];
+        this.receiverClasses = new int[index.receiverCount()];
+        for (int giver = 0; giver < selfReceivers.length; giver++) {
+            selfReceivers[giver] = index.receiverId(index.giver(giver));
+        }
+        this.giverMembers = members(classifyGivers(), giverClasses);
+        this.receiverMembers = members(classifyReceivers(), receiverClasses);
+    }
+
+    /*
+     * Keys include the giver's own receiver, so that unrestricted givers
+     * match, unless nobody shares that key, so that households match.
+     */
+    private int classifyGivers() {
+        Map<BitKey, Integer> keyCounts = new HashMap<>();
+        Map<BitKey, Integer> classes = new HashMap<>();
+
+        for (int giver = 0; giver < giverClasses.length; giver++) {
+            keyCounts.merge(new BitKey(keyWithSelf(giver)), 1, Integer::sum);
+        }
+        for (int giver = 0; giver < giverClasses.length; giver++) {
+            long[] key = keyWithSelf(giver);
+
+            if (keyCounts.get(new BitKey(key)) == 1) {
+                key = index.allowedReceivers(giver);
+            }
+
+            Integer giverClass = classes.computeIfAbsent(new BitKey(key), k -> classes.size());
+
+            if (giverClass == giverKeys.size()) {
+                giverKeys.add(key);
+            }
+            giverClasses[giver] = giverClass;
+        }
+
+        return classes.size();
+    }
+
+    private long[] keyWithSelf(final int giver) {
+        long[] key = index.allowedReceivers(giver);
+
+        if (selfReceivers[giver] != NOT_FOUND) {
+            BitSetTool.set(key, 0, selfReceivers[giver]);
+        }
+
+        return key;
+    }
+
+    private int classifyReceivers() {
+        int classWords = BitSetTool.words(giverKeys.size());
+        long[] receiverKeys = new long[receiverClasses.length * classWords];
+        Map<BitKey, Integer> classes = new HashMap<>();
+
+        for (int giverClass = 0; giverClass < giverKeys.size(); giverClass++) {
+            long[] key = giverKeys.get(giverClass);
+
+            for (int receiver = BitSetTool.nextSetBit(key, 0, key.length, 0); receiver != NOT_FOUND;
+                 receiver = BitSetTool.nextSetBit(key, 0, key.length, receiver + 1)) {
+                BitSetTool.set(receiverKeys, receiver * classWords, giverClass);
+            }
+        }
+        for (int receiver = 0; receiver < receiverClasses.length; receiver++) {
+            long[] key = Arrays.copyOfRange(receiverKeys, receiver * classWords, (receiver + 1) * classWords);
+
+            receiverClasses[receiver] = classes.computeIfAbsent(new BitKey(key), k -> classes.size());
+        }
+
+        return classes.size();
+    }
+
+    private static List<int[]> members(final int classCount, final int... classes) {
+        int[] sizes = new int[classCount];
+        List<int[]> members = new ArrayList<>(classCount);
+
+        for (int participantClass : classes) {
+            sizes[participantClass]++;
+        }
+        for (int size : sizes) {
+            members.add(new int[size]);
+        }
+        Arrays.fill(sizes, 0);
+        for (int participant = 0; participant < classes.length; participant++) {
+            int participantClass = classes[participant];
+
+            members.get(participantClass)[sizes[participantClass]++] = participant;
+        }
+
+        return members;
+    }
+
+    public int giverClassCount() {
+        return giverMembers.size();
+    }
+
+    public int receiverClassCount() {
+        return receiverMembers.size();
+    }
+
+    public int giverClass(final int giver) {
+        return giverClasses[giver];
+    }
+
+    public int receiverClass(final int receiver) {
+        return receiverClasses[receiver];
+    }
+
+    public int[] giverMembers(final int giverClass) {
+        return giverMembers.get(giverClass).clone();
+    }
+
+    public int[] receiverMembers(final int receiverClass) {
+        return receiverMembers.get(receiverClass).clone();
+    }
+
+    public int giverClassSize(final int giverClass) {
+        return giverMembers.get(giverClass).length;
+    }
+
+    public int receiverClassSize(final int receiverClass) {
+        return receiverMembers.get(receiverClass).length;
+    }
+
+    public int selfReceiver(final int giver) {
+        return selfReceivers[giver];
+    }
+
+    /*
+     * A lone giver whose class holds only their own receiver has nobody else
+     * to give to in it, even though the class keys allow it.
+     */
+    public boolean isAllowed(final int giverClass, final int receiverClass) {
+        int[] givers = giverMembers.get(giverClass);
+        int[] receivers = receiverMembers.get(receiverClass);
+
+        if (givers.length == 1 && receivers.length == 1 && selfReceivers[givers[0]] == receivers[0]) {
+            return false;
+        }
+
+        return BitSetTool.get(giverKeys.get(giverClass), 0, receivers[0]);
+    }
+
+    private static final class BitKey {
+        private final long[] bits;
+
+        private final int hash;
+
+        private BitKey(final long... bits) {
+            this.bits = bits.clone();
+            this.hash = Arrays.hashCode(bits);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof BitKey && Arrays.equals(bits, ((BitKey) o).bits);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import io.github.santulator.core.SantaException;
+import io.github.santulator.model.*;
+
+import java.util.*;
+
+/**
+ * Dense integer view of a draw.  Givers and receivers are numbered in list
+ * order and the allowed pairs are held as one bitset row per giver, so the
+ * matchers can test and enumerate candidates without allocating.  Memory
+ * grows with the square of the draw, so draws larger than {@link #MAX_SIZE}
+ * are refused and need a {@link SparseIndex}.
+ */
+public final class ParticipantIndex {
+    public static final int MAX_SIZE = 20_000;
+
+    private final List<Person> givers;
+
+    private final List<Person> receivers;
+
+    private final Map<Person, Integer> giverIds;
+
+    private final Map<Person, Integer> receiverIds;
+
+    private final int words;
+
+    private final long[] allowed;
+
+    private ParticipantIndex(final List<Person> givers, final List<Person> receivers) {
+        if (givers.size() > MAX_SIZE || receivers.size() > MAX_SIZE) {
+            throw new SantaException(String.format("Unable to run this kind of draw for more than %d participants", MAX_SIZE));
+        }
+        this.givers = List.copyOf(givers);
+        this.receivers = List.copyOf(receivers);
+        this.giverIds = ids(this.givers);
+        this.receiverIds = ids(this.receivers);
+        this.words = BitSetTool.words(receivers.size());
+        this.allowed = new long[givers.size() * words];
+        for (int giver = 0; giver < givers.size(); giver++) {
+            BitSetTool.setRange(allowed, giver * words, receivers.size());
+            exclude(this.givers.get(giver), this.givers.get(giver));
+        }
+    }
+
+    public static ParticipantIndex forRestrictions(final List<Person> givers, final List<Person> receivers, final Collection<Restriction> restrictions) {
+        ParticipantIndex index = new ParticipantIndex(givers, receivers);
+
+        restrictions.forEach(r -> index.exclude(r.getFromPerson(), r.getToPerson()));
+
+        return index;
+    }
+
+    public static ParticipantIndex forRequirements(final List<Person> givers, final List<Person> receivers, final DrawRequirements requirements) {
+        ParticipantIndex index = forRestrictions(givers, receivers, requirements.getRestrictions());
+
+        requirements.getRules().forEach(index::excludeRule);
+
+        return index;
+    }
+
+    public static ParticipantIndex forAssignments(final List<Person> givers, final Collection<Person> receivers, final Collection<GiverAssignment> restrictions) {
+        ParticipantIndex index = new ParticipantIndex(givers, new ArrayList<>(receivers));
+
+        restrictions.forEach(r -> index.exclude(r.getFrom(), r.getTo()));
+
+        return index;
+    }
+
+    public ParticipantIndex subIndex(final int[] giverSubset, final int... receiverSubset) {
+        List<Person> subGivers = new ArrayList<>(giverSubset.length);
+        List<Person> subReceivers = new ArrayList<>(receiverSubset.length);
+        int[] positions = new int[receiverCount()];
+
+        Arrays.fill(positions, BitSetTool.NOT_FOUND);
+        for (int giver : giverSubset) {
+            subGivers.add(givers.get(giver));
+        }
+        for (int i = 0; i < receiverSubset.length; i++) {
+            subReceivers.add(receivers.get(receiverSubset[i]));
+            positions[receiverSubset[i]] = i;
+        }
+
+        ParticipantIndex index = new ParticipantIndex(subGivers, subReceivers);
+
+        Arrays.fill(index.allowed, 0);
+        for (int i = 0; i < giverSubset.length; i++) {
+            for (int receiver = nextAllowed(giverSubset[i], 0); receiver != BitSetTool.NOT_FOUND; receiver = nextAllowed(giverSubset[i], receiver + 1)) {
+                if (positions[receiver] != BitSetTool.NOT_FOUND) {
+                    BitSetTool.set(index.allowed, i * index.words, positions[receiver]);
+                }
+            }
+        }
+
+        return index;
+    }
+
+    private static Map<Person, Integer> ids(final List<Person> people) {
+        Map<Person, Integer> ids = new HashMap<>();
+
+        for (int i = 0; i < people.size(); i++) {
+            ids.put(people.get(i), i);
+        }
+
+        return ids;
+    }
+
+    /*
+     * Rules hand out the same collection to everyone they treat alike, so a
+     * collection larger than a row is turned into a mask once and cleared a
+     * word at a time.  Each giver then costs at most one row, however large
+     * the groups.
+     */
+    private void excludeRule(final RestrictionRule rule) {
+        Map<Collection<Person>, long[]> masks = new IdentityHashMap<>();
+
+        for (int giver = 0; giver < givers.size(); giver++) {
+            Collection<Person> excluded = rule.excludedReceivers(givers.get(giver));
+
+            if (excluded.size() > words) {
+                long[] mask = masks.computeIfAbsent(excluded, this::receiverMask);
+
+                for (int word = 0; word < words; word++) {
+                    allowed[giver * words + word] &= ~mask[word];
+                }
+            } else {
+                for (Person receiver : excluded) {
+                    exclude(givers.get(giver), receiver);
+                }
+            }
+        }
+    }
+
+    private long[] receiverMask(final Collection<Person> people) {
+        long[] mask = new long[words];
+
+        for (Person person : people) {
+            int receiver = receiverId(person);
+
+            if (receiver != BitSetTool.NOT_FOUND) {
+                BitSetTool.set(mask, 0, receiver);
+            }
+        }
+
+        return mask;
+    }
+
+    private void exclude(final Person from, final Person to) {
+        int giver = giverId(from);
+        int receiver = receiverId(to);
+
+        if (giver != BitSetTool.NOT_FOUND && receiver != BitSetTool.NOT_FOUND) {
+            BitSetTool.clear(allowed, giver * words, receiver);
+        }
+    }
+
+    public int giverCount() {
+        return givers.size();
+    }
+
+    public int receiverCount() {
+        return receivers.size();
+    }
+
+    public Person giver(final int giver) {
+        return givers.get(giver);
+    }
+
+    public Person receiver(final int receiver) {
+        return receivers.get(receiver);
+    }
+
+    public int giverId(final Person person) {
+        return giverIds.getOrDefault(person, BitSetTool.NOT_FOUND);
+    }
+
+    public int receiverId(final Person person) {
+        return receiverIds.getOrDefault(person, BitSetTool.NOT_FOUND);
+    }
+
+    public int words() {
+        return words;
+    }
+
+    public long[] newReceiverSet() {
+        return new long[words];
+    }
+
+    public boolean isAllowed(final int giver, final int receiver) {
+        return BitSetTool.get(allowed, giver * words, receiver);
+    }
+
+    public boolean isAllowed(final GiverAssignment pair) {
+        int giver = giverId(pair.getFrom());
+        int receiver = receiverId(pair.getTo());
+
+        return giver != BitSetTool.NOT_FOUND && receiver != BitSetTool.NOT_FOUND && isAllowed(giver, receiver);
+    }
+
+    public long[] allowedReceivers(final int giver) {
+        return Arrays.copyOfRange(allowed, giver * words, (giver + 1) * words);
+    }
+
+    public int allowedCount(final int giver) {
+        return BitSetTool.cardinality(allowed, giver * words, words);
+    }
+
+    public int allowedCountNotIn(final long[] receiverSet, final int giver) {
+        return BitSetTool.cardinalityAndNot(allowed, giver * words, receiverSet, words);
+    }
+
+    public int nthAllowedNotIn(final int giver, final long[] receiverSet, final int n) {
+        return BitSetTool.nthSetBitAndNot(allowed, giver * words, receiverSet, words, n);
+    }
+
+    public int nextAllowed(final int giver, final int from) {
+        return BitSetTool.nextSetBit(allowed, giver * words, words, from);
+    }
+
+    public int nextAllowedIn(final int giver, final long[] receiverSet, final int from) {
+        return BitSetTool.nextSetBitAnd(allowed, giver * words, receiverSet, words, from);
+    }
+
+    public int nextAllowedNotIn(final int giver, final long[] receiverSet, final int from) {
+        return BitSetTool.nextSetBitAndNot(allowed, giver * words, receiverSet, words, from);
+    }
+
+    public GiverAssignment assignment(final int giver, final int receiver) {
+        return new GiverAssignment(givers.get(giver), receivers.get(receiver));
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import io.github.santulator.core.SantaException;
+
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the valid assignments of a square draw exactly, as the permanent of
+ * its allowed-pair matrix, using Ryser's formula with the column subsets
+ * visited in Gray code order.  Ranges of the Gray code are summed in parallel
+ * modulo 2^64 and 2^61 - 1, and the results combined by the Chinese
+ * remainder theorem, which is exact while n! fits in both moduli.
+ */
+public final class PermanentCalculator {
+    public static final int MAX_SIZE = 33;
+
+    private static final int SINGLE_MODULUS_LIMIT = 20;
+
+    private static final long MERSENNE_PRIME = (1L << 61) - 1;
+
+    private static final int MERSENNE_BITS = 61;
+
+    private static final int HIGH_SHIFT = 3;
+
+    private static final long CHUNK_SIZE = 1L << 16;
+
+    private final ForkJoinPool pool;
+
+    public PermanentCalculator(final ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public BigInteger permanent(final ParticipantIndex index) {
+        int size = index.giverCount();
+
+        if (size != index.receiverCount()) {
+            throw new SantaException("The permanent is only defined for a square draw");
+        }
+        if (size > MAX_SIZE) {
+            throw new SantaException(String.format("Unable to count draws of more than %d participants exactly", MAX_SIZE));
+        }
+        if (size == 0) {
+            return BigInteger.ONE;
+        }
+
+        RyserMatrix matrix = new RyserMatrix(index);
+        long[] sums = pool.invoke(new RyserTask(matrix, 0, 1L << size));
+
+        if (matrix.isMersenneNeeded) {
+            return combine(sums[0], sums[1]);
+        } else {
+            return BigInteger.valueOf(sums[0]);
+        }
+    }
+
+    private static BigInteger combine(final long wrapped, final long mersenne) {
+        BigInteger wrappedModulus = BigInteger.ONE.shiftLeft(Long.SIZE);
+        BigInteger mersenneModulus = BigInteger.valueOf(MERSENNE_PRIME);
+        BigInteger low = new BigInteger(Long.toUnsignedString(wrapped));
+        BigInteger multiple = BigInteger.valueOf(mersenne)
+            .subtract(low)
+            .multiply(wrappedModulus.modInverse(mersenneModulus))
+            .mod(mersenneModulus);
+
+        return low.add(wrappedModulus.multiply(multiple));
+    }
+
+    private static long multiplyMersenne(final long value, final int factor) {
+        long high = Math.multiplyHigh(value, factor);
+        long low = value * factor;
+        long result = (low & MERSENNE_PRIME) + ((low >>> MERSENNE_BITS) | (high << HIGH_SHIFT));
+
+        return result >= MERSENNE_PRIME ? result - MERSENNE_PRIME : result;
+    }
+
+    private static long addMersenne(final long sum, final long value, final boolean isNegative) {
+        if (isNegative) {
+            return sum >= value ? sum - value : sum - value + MERSENNE_PRIME;
+        } else {
+            long result = sum + value;
+
+            return result >= MERSENNE_PRIME ? result - MERSENNE_PRIME : result;
+        }
+    }
+
+    private static final class RyserMatrix {
+        private final int size;
+
+        private final int[] columns;
+
+        private final boolean isMersenneNeeded;
+
+        private RyserMatrix(final ParticipantIndex index) {
+            this.size = index.giverCount();
+            this.columns = new int[size * size];
+            this.isMersenneNeeded = size > SINGLE_MODULUS_LIMIT;
+            for (int receiver = 0; receiver < size; receiver++) {
+                for (int giver = 0; giver < size; giver++) {
+                    if (index.isAllowed(giver, receiver)) {
+                        columns[receiver * size + giver] = 1;
+                    }
+                }
+            }
+        }
+
+        private void addColumn(final int[] rowSums, final int column, final int delta) {
+            int offset = column * size;
+
+            for (int row = 0; row < size; row++) {
+                rowSums[row] += delta * columns[offset + row];
+            }
+        }
+    }
+
+    private static final class RyserTask extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient RyserMatrix matrix;
+
+        private final long start;
+
+        private final long end;
+
+        private long wrapped;
+
+        private long mersenne;
+
+        private RyserTask(final RyserMatrix matrix, final long start, final long end) {
+            this.matrix = matrix;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (end - start <= CHUNK_SIZE) {
+                return sumRange();
+            }
+
+            long middle = (start + end) >>> 1;
+            RyserTask left = new RyserTask(matrix, start, middle);
+            RyserTask right = new RyserTask(matrix, middle, end);
+
+            left.fork();
+
+            long[] rightSums = right.compute();
+            long[] leftSums = left.join();
+
+            return new long[] {leftSums[0] + rightSums[0], addMersenne(leftSums[1], rightSums[1], false)};
+        }
+
+        private long[] sumRange() {
+            int[] rowSums = new int[matrix.size];
+            long subset = start ^ (start >>> 1);
+
+            for (int column = 0; column < matrix.size; column++) {
+                if ((subset & (1L << column)) != 0) {
+                    matrix.addColumn(rowSums, column, 1);
+                }
+            }
+            addTerm(rowSums, subset);
+            for (long step = start + 1; step < end; step++) {
+                int column = Long.numberOfTrailingZeros(step);
+
+                subset ^= 1L << column;
+                matrix.addColumn(rowSums, column, (subset & (1L << column)) == 0 ? -1 : 1);
+                addTerm(rowSums, subset);
+            }
+
+            return new long[] {wrapped, mersenne};
+        }
+
+        /*
+         * Adds the product of the row sums for one column subset, with the
+         * sign (-1)^(n - |subset|).  A zero row sum makes the term vanish.
+         */
+        private void addTerm(final int[] rowSums, final long subset) {
+            boolean isNegative = ((matrix.size - Long.bitCount(subset)) & 1) != 0;
+            long product = 1;
+            long mersenneProduct = 1;
+            int row = 0;
+
+            while (row < matrix.size && rowSums[row] != 0) {
+                product *= rowSums[row];
+                if (matrix.isMersenneNeeded) {
+                    mersenneProduct = multiplyMersenne(mersenneProduct, rowSums[row]);
+                }
+                row++;
+            }
+            if (row == matrix.size) {
+                wrapped += isNegative ? -product : product;
+                if (matrix.isMersenneNeeded) {
+                    mersenne = addMersenne(mersenne, mersenneProduct, isNegative);
+                }
+            }
+        }
+    }
+}
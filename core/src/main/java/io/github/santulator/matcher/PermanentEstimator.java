@@ -0,0 +1,73 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+
+/**
+ * Unbiased estimate of the number of valid assignments of a square draw,
+ * using Rasmussen's estimator: each giver in turn takes a random receiver
+ * still open to them and the trial scores the product of the choice counts.
+ * Products are averaged in log space so that large draws do not overflow.
+ */
+public final class PermanentEstimator {
+    private final SplittableRandom random;
+
+    public PermanentEstimator(final SplittableRandom random) {
+        this.random = random;
+    }
+
+    public BigInteger estimate(final ParticipantIndex index, final int trials) {
+        double[] logs = new double[trials];
+        double maxLog = Double.NEGATIVE_INFINITY;
+
+        for (int i = 0; i < trials; i++) {
+            logs[i] = logTrial(index);
+            maxLog = Math.max(maxLog, logs[i]);
+        }
+        if (maxLog == Double.NEGATIVE_INFINITY) {
+            return BigInteger.ZERO;
+        }
+
+        double scaledTotal = 0;
+
+        for (double log : logs) {
+            scaledTotal += Math.exp(log - maxLog);
+        }
+
+        return fromLog(maxLog + Math.log(scaledTotal / trials));
+    }
+
+    private double logTrial(final ParticipantIndex index) {
+        long[] used = index.newReceiverSet();
+        double log = 0;
+
+        for (int giver = 0; giver < index.giverCount(); giver++) {
+            int count = index.allowedCountNotIn(used, giver);
+
+            if (count == 0) {
+                return Double.NEGATIVE_INFINITY;
+            }
+            log += Math.log(count);
+            BitSetTool.set(used, 0, index.nthAllowedNotIn(giver, used, random.nextInt(count)));
+        }
+
+        return log;
+    }
+
+    private BigInteger fromLog(final double log) {
+        double log10 = log / Math.log(10);
+        int exponent = (int) Math.floor(log10);
+        double mantissa = Math.pow(10, log10 - exponent);
+
+        return BigDecimal.valueOf(mantissa)
+            .scaleByPowerOfTen(exponent)
+            .setScale(0, RoundingMode.HALF_UP)
+            .toBigInteger();
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Matches at the lowest total cost of the given pair costs, choosing at
+ * random among the cheapest draws.
+ */
+public final class PreferenceStrategy implements MatchingStrategy {
+    private final PairCost pairCost;
+
+    private final ForkJoinPool pool;
+
+    public PreferenceStrategy(final PairCost pairCost, final ForkJoinPool pool) {
+        this.pairCost = pairCost;
+        this.pool = pool;
+    }
+
+    @Override
+    public int[] match(final ParticipantIndex index, final SplittableRandom random, final SearchMonitor monitor) {
+        return new AuctionMatcher(index, pairCost, random, pool, monitor).match();
+    }
+}
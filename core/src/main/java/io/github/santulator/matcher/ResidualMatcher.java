@@ -0,0 +1,128 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import java.util.Arrays;
+
+import static io.github.santulator.matcher.BitSetTool.NOT_FOUND;
+import static io.github.santulator.matcher.HopcroftKarpMatcher.UNMATCHED;
+
+/**
+ * Match between the givers a search has not yet assigned and the receivers
+ * it has not yet used, leaving out the receiver that would close a cycle
+ * too soon.  Givers are rematched by one augmenting path at a time, and a
+ * giver for whom no path exists shows that the partial draw cannot be
+ * completed.
+ */
+final class ResidualMatcher {
+    private final ParticipantIndex index;
+
+    private final CycleTracker tracker;
+
+    private final int[] giverMatch;
+
+    private final int[] receiverMatch;
+
+    private final int[] queue;
+
+    private final int[] receiverParents;
+
+    private final int[] giverVisits;
+
+    private final int[] receiverVisits;
+
+    private int visit;
+
+    ResidualMatcher(final ParticipantIndex index, final CycleTracker tracker) {
+        this.index = index;
+        this.tracker = tracker;
+        this.giverMatch = new int[index.giverCount()];
+        this.receiverMatch = new int[index.receiverCount()];
+        this.queue = new int[index.giverCount()];
+        this.receiverParents = new int[index.receiverCount()];
+        this.giverVisits = new int[index.giverCount()];
+        this.receiverVisits = new int[index.receiverCount()];
+        Arrays.fill(giverMatch, UNMATCHED);
+        Arrays.fill(receiverMatch, UNMATCHED);
+    }
+
+    /*
+     * Called once the giver has been assigned the receiver, so that both
+     * leave the residual match.
+     */
+    void remove(final int giver, final int receiver) {
+        int otherGiver = receiverMatch[receiver];
+        int otherReceiver = giverMatch[giver];
+
+        if (otherGiver != UNMATCHED) {
+            giverMatch[otherGiver] = UNMATCHED;
+        }
+        if (otherReceiver != UNMATCHED) {
+            receiverMatch[otherReceiver] = UNMATCHED;
+        }
+        giverMatch[giver] = UNMATCHED;
+        receiverMatch[receiver] = UNMATCHED;
+    }
+
+    /*
+     * A giver's match may have become the receiver closing its path since
+     * it was made, in which case it is released first.
+     */
+    boolean isMatchable(final int giver, final long... usedReceivers) {
+        int receiver = giverMatch[giver];
+
+        if (receiver != UNMATCHED && receiver == tracker.blockedReceiver(giver)) {
+            giverMatch[giver] = UNMATCHED;
+            receiverMatch[receiver] = UNMATCHED;
+        }
+
+        return giverMatch[giver] != UNMATCHED || augment(giver, usedReceivers);
+    }
+
+    private boolean augment(final int root, final long... usedReceivers) {
+        int tail = 0;
+
+        visit++;
+        giverVisits[root] = visit;
+        queue[tail++] = root;
+        for (int head = 0; head < tail; head++) {
+            int giver = queue[head];
+            int blocked = tracker.blockedReceiver(giver);
+
+            for (int receiver = index.nextAllowedNotIn(giver, usedReceivers, 0); receiver != NOT_FOUND;
+                 receiver = index.nextAllowedNotIn(giver, usedReceivers, receiver + 1)) {
+                if (receiver != blocked && receiverVisits[receiver] != visit) {
+                    int next = receiverMatch[receiver];
+
+                    receiverVisits[receiver] = visit;
+                    receiverParents[receiver] = giver;
+                    if (next == UNMATCHED) {
+                        flip(receiver);
+
+                        return true;
+                    } else if (giverVisits[next] != visit) {
+                        giverVisits[next] = visit;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private void flip(final int end) {
+        int receiver = end;
+
+        while (receiver != UNMATCHED) {
+            int giver = receiverParents[receiver];
+            int previous = giverMatch[giver];
+
+            giverMatch[giver] = receiver;
+            receiverMatch[receiver] = giver;
+            receiver = previous;
+        }
+    }
+}
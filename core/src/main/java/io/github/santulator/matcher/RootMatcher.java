@@ -6,17 +6,15 @@ package io.github.santulator.matcher;
 
 import io.github.santulator.model.GiverAssignment;
 
-import java.util.Set;
-
 public class RootMatcher implements MatchExtender {
-    private final Set<GiverAssignment> restrictions;
+    private final ParticipantIndex index;
 
-    public RootMatcher(final Set<GiverAssignment> restrictions) {
-        this.restrictions = restrictions;
+    public RootMatcher(final ParticipantIndex index) {
+        this.index = index;
     }
 
     @Override
     public boolean isPossibleExtension(final GiverAssignment pair) {
-        return !(pair.getFrom().equals(pair.getTo()) || restrictions.contains(pair));
+        return index.isAllowed(pair);
     }
 }
@@ -0,0 +1,13 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import io.github.santulator.core.SantaException;
+
+public class SampleLimitException extends SantaException {
+    public SampleLimitException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import io.github.santulator.core.SantaException;
+
+public class SearchCancelledException extends SantaException {
+    public SearchCancelledException(final String message) {
+        super(message);
+    }
+
+    public SearchCancelledException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
+}
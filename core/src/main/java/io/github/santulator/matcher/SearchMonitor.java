@@ -0,0 +1,134 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import io.github.santulator.core.NoOperation;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Shared by the searches of one draw to report their progress and to stop
+ * them.  Searches call {@link #checkpoint} every so often, which throws once
+ * the monitor is cancelled, its time limit passes or the thread is
+ * interrupted.  A draw split into parts searched separately gives each part
+ * its own monitor from {@link #part}, so that progress is reported against
+ * the whole draw rather than against whichever part reported last.
+ */
+public final class SearchMonitor {
+    public static final int CHECK_INTERVAL = 1 << 12;
+
+    private final Consumer<SearchProgress> listener;
+
+    private final long deadline;
+
+    private final boolean isTimeLimited;
+
+    private final AtomicBoolean isCancelled;
+
+    private final AtomicLong nodes;
+
+    private final AtomicInteger deepest = new AtomicInteger();
+
+    private final SearchMonitor whole;
+
+    private final AtomicInteger partSize = new AtomicInteger();
+
+    private final AtomicInteger partDepth = new AtomicInteger();
+
+    public SearchMonitor() {
+        this(p -> NoOperation.doNothing());
+    }
+
+    public SearchMonitor(final Consumer<SearchProgress> listener) {
+        this(listener, 0, false);
+    }
+
+    public SearchMonitor(final Duration timeLimit, final Consumer<SearchProgress> listener) {
+        this(listener, System.nanoTime() + timeLimit.toNanos(), true);
+    }
+
+    private SearchMonitor(final Consumer<SearchProgress> listener, final long deadline, final boolean isTimeLimited) {
+        this.listener = listener;
+        this.deadline = deadline;
+        this.isTimeLimited = isTimeLimited;
+        this.isCancelled = new AtomicBoolean();
+        this.nodes = new AtomicLong();
+        this.whole = null;
+    }
+
+    private SearchMonitor(final SearchMonitor whole) {
+        this.listener = whole.listener;
+        this.deadline = whole.deadline;
+        this.isTimeLimited = whole.isTimeLimited;
+        this.isCancelled = whole.isCancelled;
+        this.nodes = whole.nodes;
+        this.whole = whole;
+    }
+
+    /**
+     * Monitor for a part of the draw with the given number of givers.  It
+     * shares the cancellation, time limit and node count of this monitor.
+     * Every part should be created before any of them is searched, so that
+     * the size of the whole draw is known from the first report.
+     */
+    public SearchMonitor part(final int size) {
+        partSize.addAndGet(size);
+
+        return new SearchMonitor(this);
+    }
+
+    public void cancel() {
+        isCancelled.set(true);
+    }
+
+    public boolean isCancelled() {
+        return isCancelled.get();
+    }
+
+    public long getNodes() {
+        return nodes.get();
+    }
+
+    public void checkpoint(final long newNodes, final int depth, final int size) {
+        long total = nodes.addAndGet(newNodes);
+        int previous = deepest.getAndAccumulate(depth, Math::max);
+
+        if (isCancelled.get() || Thread.currentThread().isInterrupted()) {
+            throw new SearchCancelledException("Draw cancelled");
+        }
+        if (isTimeLimited && System.nanoTime() - deadline >= 0) {
+            throw new SearchCancelledException("Draw took too long");
+        }
+        report(total, previous, depth, size);
+    }
+
+    /**
+     * Records that the search of this part has assigned all of its givers,
+     * whether or not its last checkpoint reached that far.
+     */
+    public void finish(final int size) {
+        int previous = deepest.getAndAccumulate(size, Math::max);
+
+        report(nodes.get(), previous, size, size);
+    }
+
+    /*
+     * The depths reached by the parts are added up, so the whole draw is
+     * only reported complete once every part is.
+     */
+    private void report(final long total, final int previous, final int depth, final int size) {
+        if (whole == null) {
+            listener.accept(new SearchProgress(total, Math.max(previous, depth), size));
+        } else {
+            int reached = whole.partDepth.addAndGet(Math.max(depth - previous, 0));
+
+            listener.accept(new SearchProgress(total, reached, whole.partSize.get()));
+        }
+    }
+}
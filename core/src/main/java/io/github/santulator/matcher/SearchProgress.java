@@ -0,0 +1,77 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * A snapshot of a running search: the nodes explored so far, the deepest
+ * partial assignment reached and the number of givers being assigned.
+ */
+public final class SearchProgress {
+    private final long nodes;
+
+    private final int depth;
+
+    private final int size;
+
+    public SearchProgress(final long nodes, final int depth, final int size) {
+        this.nodes = nodes;
+        this.depth = depth;
+        this.size = size;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        SearchProgress that = (SearchProgress) o;
+
+        return new EqualsBuilder()
+                .append(nodes, that.nodes)
+                .append(depth, that.depth)
+                .append(size, that.size)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder()
+                .append(nodes)
+                .append(depth)
+                .append(size)
+                .toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
+            .append("nodes", nodes)
+            .append("depth", depth)
+            .append("size", size)
+            .toString();
+    }
+}
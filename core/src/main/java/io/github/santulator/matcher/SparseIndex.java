@@ -0,0 +1,182 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import io.github.santulator.model.*;
+
+import java.util.*;
+
+import static io.github.santulator.matcher.BitSetTool.NOT_FOUND;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Integer view of a draw too large for the bitsets of {@link ParticipantIndex}.
+ * Only the excluded pairs are stored, as a sorted array of receivers for each
+ * giver, so memory grows with the participants and restrictions rather than
+ * with their square.  Rules are evaluated on each check, and givers given the
+ * same exclusions by every rule share a rule group.
+ */
+public final class SparseIndex {
+    private final List<Person> givers;
+
+    private final List<Person> receivers;
+
+    private final Map<Person, Integer> giverIds;
+
+    private final Map<Person, Integer> receiverIds;
+
+    private final int[] selfReceivers;
+
+    private final int[] offsets;
+
+    private final int[] excluded;
+
+    private final List<RestrictionRule> rules;
+
+    private final int[] ruleGroups;
+
+    private final int ruleGroupCount;
+
+    private SparseIndex(
+        final List<Person> givers, final List<Person> receivers, final Collection<GiverAssignment> restrictions, final List<RestrictionRule> rules) {
+        this.givers = List.copyOf(givers);
+        this.receivers = List.copyOf(receivers);
+        this.giverIds = ids(this.givers);
+        this.receiverIds = ids(this.receivers);
+        this.selfReceivers = new int[givers.size()];
+        this.offsets = new int[givers.size() + 1];
+        this.rules = List.copyOf(rules);
+
+        List<int[]> pairs = new ArrayList<>(restrictions.size());
+
+        for (int giver = 0; giver < selfReceivers.length; giver++) {
+            selfReceivers[giver] = receiverId(this.givers.get(giver));
+        }
+        for (GiverAssignment restriction : restrictions) {
+            int giver = giverId(restriction.getFrom());
+            int receiver = receiverId(restriction.getTo());
+
+            if (giver != NOT_FOUND && receiver != NOT_FOUND) {
+                pairs.add(new int[] {giver, receiver});
+                offsets[giver + 1]++;
+            }
+        }
+        this.excluded = new int[pairs.size()];
+        fillExclusions(pairs);
+        this.ruleGroups = ruleGroups(this.givers, rules);
+        this.ruleGroupCount = Arrays.stream(ruleGroups).max().orElse(-1) + 1;
+    }
+
+    public static SparseIndex forRequirements(final List<Person> givers, final List<Person> receivers, final DrawRequirements requirements) {
+        List<GiverAssignment> restrictions = requirements.getRestrictions().stream()
+            .map(r -> new GiverAssignment(r.getFromPerson(), r.getToPerson()))
+            .collect(toList());
+
+        return new SparseIndex(givers, receivers, restrictions, requirements.getRules());
+    }
+
+    public static SparseIndex forAssignments(final List<Person> givers, final Collection<Person> receivers, final Collection<GiverAssignment> restrictions) {
+        return new SparseIndex(givers, new ArrayList<>(receivers), restrictions, List.of());
+    }
+
+    private static Map<Person, Integer> ids(final List<Person> people) {
+        Map<Person, Integer> ids = new HashMap<>(people.size() * 2);
+
+        for (int i = 0; i < people.size(); i++) {
+            ids.put(people.get(i), i);
+        }
+
+        return ids;
+    }
+
+    /*
+     * Rules hand out the same collection to everyone they treat alike, such
+     * as the members of a household, so the collections are told apart by
+     * identity.
+     */
+    private static int[] ruleGroups(final List<Person> givers, final List<RestrictionRule> rules) {
+        List<Map<Collection<Person>, Integer>> collectionIds = new ArrayList<>();
+        Map<List<Integer>, Integer> groupIds = new HashMap<>();
+        int[] groups = new int[givers.size()];
+
+        rules.forEach(r -> collectionIds.add(new IdentityHashMap<>()));
+        for (int giver = 0; giver < groups.length; giver++) {
+            List<Integer> key = new ArrayList<>(rules.size());
+
+            for (int i = 0; i < rules.size(); i++) {
+                Map<Collection<Person>, Integer> ids = collectionIds.get(i);
+
+                key.add(ids.computeIfAbsent(rules.get(i).excludedReceivers(givers.get(giver)), c -> ids.size()));
+            }
+            groups[giver] = groupIds.computeIfAbsent(key, k -> groupIds.size());
+        }
+
+        return groups;
+    }
+
+    private void fillExclusions(final List<int[]> pairs) {
+        for (int giver = 0; giver < givers.size(); giver++) {
+            offsets[giver + 1] += offsets[giver];
+        }
+
+        int[] next = Arrays.copyOf(offsets, givers.size());
+
+        for (int[] pair : pairs) {
+            excluded[next[pair[0]]++] = pair[1];
+        }
+        for (int giver = 0; giver < givers.size(); giver++) {
+            Arrays.sort(excluded, offsets[giver], offsets[giver + 1]);
+        }
+    }
+
+    public int giverCount() {
+        return givers.size();
+    }
+
+    public int receiverCount() {
+        return receivers.size();
+    }
+
+    public int giverId(final Person person) {
+        return giverIds.getOrDefault(person, NOT_FOUND);
+    }
+
+    public int receiverId(final Person person) {
+        return receiverIds.getOrDefault(person, NOT_FOUND);
+    }
+
+    public int ruleGroup(final int giver) {
+        return ruleGroups[giver];
+    }
+
+    public int ruleGroupCount() {
+        return ruleGroupCount;
+    }
+
+    public boolean isAllowed(final int giver, final int receiver) {
+        return !isExcludedByPair(giver, receiver) && !isExcludedByRule(giver, receiver);
+    }
+
+    public boolean isExcludedByPair(final int giver, final int receiver) {
+        return receiver == selfReceivers[giver] || Arrays.binarySearch(excluded, offsets[giver], offsets[giver + 1], receiver) >= 0;
+    }
+
+    /**
+     * The same for every giver in a rule group.
+     */
+    public boolean isExcludedByRule(final int giver, final int receiver) {
+        for (RestrictionRule rule : rules) {
+            if (rule.isExcluded(givers.get(giver), receivers.get(receiver))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public GiverAssignment assignment(final int giver, final int receiver) {
+        return new GiverAssignment(givers.get(giver), receivers.get(receiver));
+    }
+}
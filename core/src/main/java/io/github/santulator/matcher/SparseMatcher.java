@@ -0,0 +1,265 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import java.util.Arrays;
+
+import static io.github.santulator.matcher.BitSetTool.NOT_FOUND;
+import static io.github.santulator.matcher.HopcroftKarpMatcher.UNMATCHED;
+
+/**
+ * Exact complete match on a {@link SparseIndex}, found greedily and finished
+ * by augmenting paths.  Each scan passes over the receivers not yet reached,
+ * so a giver pays only for those it may not have, and givers in the same
+ * rule group continue one shared scan.  A giver with no augmenting path
+ * proves that no complete match exists.
+ */
+public final class SparseMatcher {
+    private final SparseIndex index;
+
+    private final NodeCounter counter;
+
+    private final int giverCount;
+
+    private final int receiverCount;
+
+    private final int[] giverMatch;
+
+    private final int[] receiverMatch;
+
+    private final int[] remaining;
+
+    private final int[] queue;
+
+    private final int[] receiverParents;
+
+    private final int[] groupScans;
+
+    private final int[] groupCursors;
+
+    private final int[][] groupSkipped;
+
+    private final int[] groupSkippedCounts;
+
+    private int scan;
+
+    public SparseMatcher(final SparseIndex index) {
+        this(index, new SearchMonitor());
+    }
+
+    public SparseMatcher(final SparseIndex index, final SearchMonitor monitor) {
+        this.index = index;
+        this.giverCount = index.giverCount();
+        this.receiverCount = index.receiverCount();
+        this.counter = new NodeCounter(monitor, giverCount);
+        this.giverMatch = new int[giverCount];
+        this.receiverMatch = new int[receiverCount];
+        this.remaining = new int[receiverCount + 1];
+        this.queue = new int[giverCount];
+        this.receiverParents = new int[receiverCount];
+        this.groupScans = new int[index.ruleGroupCount()];
+        this.groupCursors = new int[index.ruleGroupCount()];
+        this.groupSkipped = new int[index.ruleGroupCount()][];
+        this.groupSkippedCounts = new int[index.ruleGroupCount()];
+    }
+
+    /**
+     * A complete match, or only unmatched givers when none exists.
+     */
+    public int[] match() {
+        int[] unmatched = new int[giverCount];
+
+        Arrays.fill(unmatched, UNMATCHED);
+
+        return complete(unmatched);
+    }
+
+    /**
+     * Keeps the pairs of a partial match, which must be allowed, and finds
+     * receivers for the givers it leaves unmatched.
+     */
+    public int[] complete(final int... partial) {
+        if (giverCount != receiverCount) {
+            return unmatched();
+        }
+        System.arraycopy(partial, 0, giverMatch, 0, giverCount);
+        Arrays.fill(receiverMatch, UNMATCHED);
+        for (int giver = 0; giver < giverCount; giver++) {
+            if (giverMatch[giver] != UNMATCHED) {
+                receiverMatch[giverMatch[giver]] = giver;
+            }
+        }
+        matchGreedily();
+        for (int giver = 0; giver < giverCount; giver++) {
+            counter.count(giver);
+            if (giverMatch[giver] == UNMATCHED && !isAugmented(giver)) {
+                counter.flush(giver);
+
+                return unmatched();
+            }
+        }
+        counter.flush(giverCount);
+
+        return giverMatch.clone();
+    }
+
+    private int[] unmatched() {
+        int[] match = new int[giverCount];
+
+        Arrays.fill(match, UNMATCHED);
+
+        return match;
+    }
+
+    private void matchGreedily() {
+        startScan();
+        for (int receiver = 0; receiver < receiverCount; receiver++) {
+            if (receiverMatch[receiver] != UNMATCHED) {
+                remove(receiver);
+            }
+        }
+        for (int giver = 0; giver < giverCount; giver++) {
+            if (giverMatch[giver] == UNMATCHED) {
+                int receiver = nextCandidate(giver);
+
+                if (receiver != NOT_FOUND) {
+                    remove(receiver);
+                    giverMatch[giver] = receiver;
+                    receiverMatch[receiver] = giver;
+                }
+            }
+        }
+    }
+
+    private boolean isAugmented(final int root) {
+        int tail = 0;
+
+        startScan();
+        queue[tail++] = root;
+        for (int head = 0; head < tail; head++) {
+            int giver = queue[head];
+
+            for (int receiver = nextCandidate(giver); receiver != NOT_FOUND; receiver = nextCandidate(giver)) {
+                remove(receiver);
+                receiverParents[receiver] = giver;
+                if (receiverMatch[receiver] == UNMATCHED) {
+                    flip(receiver);
+
+                    return true;
+                }
+                queue[tail++] = receiverMatch[receiver];
+            }
+        }
+
+        return false;
+    }
+
+    private void flip(final int end) {
+        int receiver = end;
+
+        while (receiver != UNMATCHED) {
+            int giver = receiverParents[receiver];
+            int previous = giverMatch[giver];
+
+            giverMatch[giver] = receiver;
+            receiverMatch[receiver] = giver;
+            receiver = previous;
+        }
+    }
+
+    private void startScan() {
+        scan++;
+        for (int receiver = 0; receiver <= receiverCount; receiver++) {
+            remaining[receiver] = receiver;
+        }
+    }
+
+    /*
+     * Whatever the giver's rule group has passed over in this scan was
+     * excluded by a rule, and so for the giver too, unless it was skipped
+     * only because of the earlier giver's own pairs.
+     */
+    private int nextCandidate(final int giver) {
+        int group = index.ruleGroup(giver);
+
+        if (groupScans[group] != scan) {
+            groupScans[group] = scan;
+            groupCursors[group] = 0;
+            groupSkippedCounts[group] = 0;
+        }
+
+        int skipped = takeSkipped(group, giver);
+
+        if (skipped != NOT_FOUND) {
+            return skipped;
+        }
+        for (int receiver = nextRemaining(groupCursors[group]); receiver < receiverCount; receiver = nextRemaining(receiver + 1)) {
+            groupCursors[group] = receiver + 1;
+            if (!index.isExcludedByRule(giver, receiver)) {
+                if (!index.isExcludedByPair(giver, receiver)) {
+                    return receiver;
+                }
+                addSkipped(group, receiver);
+            }
+        }
+        groupCursors[group] = receiverCount;
+
+        return NOT_FOUND;
+    }
+
+    private int takeSkipped(final int group, final int giver) {
+        int[] skipped = groupSkipped[group];
+        int count = groupSkippedCounts[group];
+        int kept = 0;
+        int found = NOT_FOUND;
+
+        for (int i = 0; i < count; i++) {
+            int receiver = skipped[i];
+
+            if (nextRemaining(receiver) == receiver) {
+                if (found == NOT_FOUND && !index.isExcludedByPair(giver, receiver)) {
+                    found = receiver;
+                } else {
+                    skipped[kept] = receiver;
+                    kept++;
+                }
+            }
+        }
+        groupSkippedCounts[group] = kept;
+
+        return found;
+    }
+
+    private void addSkipped(final int group, final int receiver) {
+        int count = groupSkippedCounts[group];
+
+        if (groupSkipped[group] == null) {
+            groupSkipped[group] = new int[Math.max(count * 2, 2)];
+        } else if (count == groupSkipped[group].length) {
+            groupSkipped[group] = Arrays.copyOf(groupSkipped[group], count * 2);
+        }
+        groupSkipped[group][count] = receiver;
+        groupSkippedCounts[group] = count + 1;
+    }
+
+    private void remove(final int receiver) {
+        remaining[receiver] = receiver + 1;
+    }
+
+    /*
+     * The first receiver at or after the given one still remaining in the
+     * scan, halving the paths followed on the way.
+     */
+    private int nextRemaining(final int from) {
+        int receiver = from;
+
+        while (remaining[receiver] != receiver) {
+            remaining[receiver] = remaining[remaining[receiver]];
+            receiver = remaining[receiver];
+        }
+
+        return receiver;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import io.github.santulator.core.CoreConstants;
+import io.github.santulator.core.SantaException;
+
+import java.util.SplittableRandom;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Picks the matching strategy for each draw from its size and restrictions.
+ * Small draws, and larger ones a random deal is likely enough to satisfy,
+ * are sampled uniformly.  The rest are matched over classes of
+ * interchangeable participants, unless there are too many classes for that
+ * to be random and the draw is small enough to search most constrained first.
+ * A draw that turns out too slow to sample is matched as if it had never
+ * been picked for sampling.
+ */
+@Singleton
+public class StrategySelector implements MatchingStrategy {
+    public static final String AUTOMATIC = "automatic";
+
+    static final int LARGE_DRAW = 10_000;
+
+    static final int SEARCH_LIMIT = 2_000;
+
+    private static final double MAX_EXPECTED_DEALS = 1_000;
+
+    @Inject
+    public StrategySelector() {
+        // No dependencies
+    }
+
+    public static MatchingStrategy forName(final String name) {
+        if (AUTOMATIC.equalsIgnoreCase(name)) {
+            return new StrategySelector();
+        }
+        try {
+            return MatchingMode.valueOf(name.toUpperCase(CoreConstants.LOCALE).replace('-', '_'));
+        } catch (final IllegalArgumentException e) {
+            throw new SantaException(String.format("Unknown matching strategy '%s'", name), e);
+        }
+    }
+
+    @Override
+    public int[] match(final ParticipantIndex index, final SplittableRandom random, final SearchMonitor monitor) {
+        try {
+            return select(index).match(index, random, monitor);
+        } catch (final SampleLimitException e) {
+            return selectSearch(index).match(index, random, monitor);
+        }
+    }
+
+    public MatchingMode select(final ParticipantIndex index) {
+        int size = index.receiverCount();
+
+        if (size <= UniformSampler.EXACT_LIMIT || size <= LARGE_DRAW && UniformSampler.logExpectedDeals(index) <= Math.log(MAX_EXPECTED_DEALS)) {
+            return MatchingMode.UNIFORM_SAMPLE;
+        } else {
+            return selectSearch(index);
+        }
+    }
+
+    private MatchingMode selectSearch(final ParticipantIndex index) {
+        if (index.receiverCount() <= SEARCH_LIMIT && isUnclassed(index)) {
+            return MatchingMode.MOST_CONSTRAINED_FIRST;
+        } else {
+            return MatchingMode.EQUIVALENCE_CLASSES;
+        }
+    }
+
+    /*
+     * Beyond the class limit the class matcher falls back to a maximum
+     * matching, which is fixed by the order of the participants.  The search
+     * breaks its ties at random, and its forward check on a matching of the
+     * remaining givers keeps it from ever backtracking in a plain draw.
+     */
+    private boolean isUnclassed(final ParticipantIndex index) {
+        ParticipantClasses classes = new ParticipantClasses(index);
+
+        return classes.giverClassCount() > ClassCountMatcher.CLASS_LIMIT || classes.receiverClassCount() > ClassCountMatcher.CLASS_LIMIT;
+    }
+}
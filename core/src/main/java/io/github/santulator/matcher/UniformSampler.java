@@ -0,0 +1,259 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static io.github.santulator.matcher.BitSetTool.NOT_FOUND;
+import static io.github.santulator.matcher.HopcroftKarpMatcher.UNMATCHED;
+
+/**
+ * Picks a valid assignment at random with every valid assignment equally
+ * likely.  Draws with up to {@link #EXACT_LIMIT} receivers are sampled
+ * exactly from counts of the completions of every subset of receivers.
+ * Larger draws deal out receivers at random until a deal respects every
+ * restriction, which is exact but takes about as many deals as there are
+ * ways to deal per valid assignment, so suits draws with few restrictions.
+ * A large draw is given a budget of deals well above the number expected.
+ * If the budget would pass {@link #MAX_DEALS}, or the deals run out, the
+ * draw fails with a {@link SampleLimitException}.
+ */
+public final class UniformSampler {
+    public static final int EXACT_LIMIT = 20;
+
+    public static final long MAX_DEALS = 1_000_000_000L;
+
+    private static final long MIN_DEALS = 1_000;
+
+    private static final double DEAL_MARGIN = 100;
+
+    private final SplittableRandom random;
+
+    private final SearchMonitor monitor;
+
+    public UniformSampler(final SplittableRandom random) {
+        this(random, new SearchMonitor());
+    }
+
+    public UniformSampler(final SplittableRandom random, final SearchMonitor monitor) {
+        this.random = random;
+        this.monitor = monitor;
+    }
+
+    public int[] sample(final ParticipantIndex index) {
+        if (index.giverCount() > index.receiverCount()) {
+            return unmatched(index);
+        } else if (index.receiverCount() <= EXACT_LIMIT) {
+            return sampleExactly(index);
+        } else {
+            return sampleByRejection(index);
+        }
+    }
+
+    private int[] sampleExactly(final ParticipantIndex index) {
+        int giverCount = index.giverCount();
+        long[] completions = completions(index);
+        int mask = chooseFinalMask(completions, giverCount);
+
+        if (mask == NOT_FOUND) {
+            return unmatched(index);
+        }
+
+        int[] match = new int[giverCount];
+
+        for (int giver = giverCount - 1; giver >= 0; giver--) {
+            int receiver = chooseReceiver(index, completions, giver, mask);
+
+            match[giver] = receiver;
+            mask &= ~(1 << receiver);
+        }
+
+        return match;
+    }
+
+    /*
+     * Entry [mask] holds the number of ways to assign the first bitCount(mask)
+     * givers to exactly the receivers in the mask.
+     */
+    private long[] completions(final ParticipantIndex index) {
+        int giverCount = index.giverCount();
+        long[] completions = new long[1 << index.receiverCount()];
+        NodeCounter counter = new NodeCounter(monitor, giverCount);
+
+        completions[0] = 1;
+        for (int mask = 1; mask < completions.length; mask++) {
+            int giver = Integer.bitCount(mask) - 1;
+
+            counter.count(giver);
+            if (giver < giverCount) {
+                long total = 0;
+
+                for (int rest = mask; rest != 0; rest &= rest - 1) {
+                    int receiver = Integer.numberOfTrailingZeros(rest);
+
+                    if (index.isAllowed(giver, receiver)) {
+                        total += completions[mask & ~(1 << receiver)];
+                    }
+                }
+                completions[mask] = total;
+            }
+        }
+        counter.flush(giverCount);
+
+        return completions;
+    }
+
+    private int chooseFinalMask(final long[] completions, final int giverCount) {
+        long total = 0;
+
+        for (int mask = 0; mask < completions.length; mask++) {
+            if (Integer.bitCount(mask) == giverCount) {
+                total += completions[mask];
+            }
+        }
+        if (total == 0) {
+            return NOT_FOUND;
+        }
+
+        long choice = random.nextLong(total);
+
+        for (int mask = 0; mask < completions.length; mask++) {
+            if (Integer.bitCount(mask) == giverCount) {
+                choice -= completions[mask];
+                if (choice < 0) {
+                    return mask;
+                }
+            }
+        }
+
+        return NOT_FOUND;
+    }
+
+    private int chooseReceiver(final ParticipantIndex index, final long[] completions, final int giver, final int mask) {
+        long choice = random.nextLong(completions[mask]);
+        int receiver = NOT_FOUND;
+
+        for (int rest = mask; choice >= 0; rest &= rest - 1) {
+            receiver = Integer.numberOfTrailingZeros(rest);
+            if (index.isAllowed(giver, receiver)) {
+                choice -= completions[mask & ~(1 << receiver)];
+            }
+        }
+
+        return receiver;
+    }
+
+    /*
+     * Rejection sampling: receivers are dealt out in a random order and the
+     * deal is abandoned at the first giver given a receiver they may not
+     * have.  Every deal is equally likely, so every accepted one is too.
+     */
+    private int[] sampleByRejection(final ParticipantIndex index) {
+        int[] maximum = new HopcroftKarpMatcher(index, monitor).match();
+
+        if (!isComplete(maximum)) {
+            return unmatched(index);
+        }
+
+        long maxDeals = maxDeals(index);
+        int[] givers = giversByChoice(index);
+        int[] receivers = IntStream.range(0, index.receiverCount()).toArray();
+        int[] match = new int[givers.length];
+        NodeCounter counter = new NodeCounter(monitor, givers.length);
+        boolean isValid = false;
+
+        for (long deals = 0; !isValid; deals++) {
+            if (deals == maxDeals) {
+                throw new SampleLimitException(String.format("Unable to sample the draw uniformly within %d deals", maxDeals));
+            }
+            isValid = isDealt(index, givers, receivers, match, counter);
+        }
+        counter.flush(givers.length);
+
+        return match;
+    }
+
+    /*
+     * The estimate can be far out when restrictions are correlated, so a
+     * draw gets a wide margin over it before it is given up.
+     */
+    private long maxDeals(final ParticipantIndex index) {
+        double expectedDeals = Math.exp(logExpectedDeals(index));
+
+        if (expectedDeals * DEAL_MARGIN > MAX_DEALS) {
+            throw new SampleLimitException(String.format("The draw is too restricted to sample uniformly, needing about %.1e deals", expectedDeals));
+        }
+
+        return Math.max(MIN_DEALS, (long) (expectedDeals * DEAL_MARGIN));
+    }
+
+    /*
+     * Estimated as if each giver's chance of being dealt an allowed receiver
+     * were independent of the others.
+     */
+    static double logExpectedDeals(final ParticipantIndex index) {
+        double total = 0;
+
+        for (int giver = 0; giver < index.giverCount(); giver++) {
+            total += Math.log((double) index.receiverCount() / index.allowedCount(giver));
+        }
+
+        return total;
+    }
+
+    /*
+     * The givers with the fewest receivers go first, so that a failing deal
+     * is usually abandoned after a few steps.
+     */
+    private int[] giversByChoice(final ParticipantIndex index) {
+        long[] keys = new long[index.giverCount()];
+
+        for (int giver = 0; giver < keys.length; giver++) {
+            keys[giver] = ((long) index.allowedCount(giver) << Integer.SIZE) | giver;
+        }
+        Arrays.sort(keys);
+
+        return Arrays.stream(keys)
+            .mapToInt(k -> (int) k)
+            .toArray();
+    }
+
+    private boolean isDealt(final ParticipantIndex index, final int[] givers, final int[] receivers, final int[] match, final NodeCounter counter) {
+        for (int i = 0; i < givers.length; i++) {
+            int j = i + random.nextInt(receivers.length - i);
+            int receiver = receivers[j];
+
+            receivers[j] = receivers[i];
+            receivers[i] = receiver;
+            counter.count(i);
+            if (!index.isAllowed(givers[i], receiver)) {
+                return false;
+            }
+            match[givers[i]] = receiver;
+        }
+
+        return true;
+    }
+
+    private boolean isComplete(final int... giverMatch) {
+        for (int receiver : giverMatch) {
+            if (receiver == UNMATCHED) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private int[] unmatched(final ParticipantIndex index) {
+        int[] match = new int[index.giverCount()];
+
+        Arrays.fill(match, UNMATCHED);
+
+        return match;
+    }
+}
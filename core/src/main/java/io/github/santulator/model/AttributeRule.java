@@ -0,0 +1,94 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.model;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.util.*;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Nobody gives to someone with the same value of an attribute, such as the
+ * same household or location.  People without a value are unrestricted.
+ */
+public final class AttributeRule implements RestrictionRule {
+    private final String attribute;
+
+    private final Map<Person, String> values;
+
+    private final Map<String, List<Person>> members;
+
+    public AttributeRule(final String attribute, final Map<Person, String> values) {
+        this.attribute = attribute;
+        this.values = Map.copyOf(values);
+        this.members = this.values.keySet().stream()
+            .collect(groupingBy(this.values::get, toList()));
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public Map<Person, String> getValues() {
+        return values;
+    }
+
+    @Override
+    public Collection<Person> excludedReceivers(final Person giver) {
+        String value = values.get(giver);
+
+        if (value == null) {
+            return List.of();
+        } else {
+            return members.get(value);
+        }
+    }
+
+    @Override
+    public boolean isExcluded(final Person giver, final Person receiver) {
+        String value = values.get(giver);
+
+        return value != null && value.equals(values.get(receiver));
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        AttributeRule that = (AttributeRule) o;
+
+        return new EqualsBuilder()
+            .append(attribute, that.attribute)
+            .append(values, that.values)
+            .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder()
+            .append(attribute)
+            .append(values)
+            .toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
+            .append(attribute)
+            .append(values)
+            .toString();
+    }
+}
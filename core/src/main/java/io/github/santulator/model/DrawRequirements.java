@@ -10,6 +10,7 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 
 public final class DrawRequirements {
@@ -17,9 +18,16 @@ public final class DrawRequirements {
 
     private final Set<Restriction> restrictions;
 
+    private final List<RestrictionRule> rules;
+
     public DrawRequirements(final Collection<Person> participants, final Collection<Restriction> restrictions) {
+        this(participants, restrictions, List.of());
+    }
+
+    public DrawRequirements(final Collection<Person> participants, final Collection<Restriction> restrictions, final Collection<RestrictionRule> rules) {
         this.participants = Set.copyOf(participants);
         this.restrictions = Set.copyOf(restrictions);
+        this.rules = List.copyOf(rules);
     }
 
     public Set<Person> getParticipants() {
@@ -30,6 +38,10 @@ public final class DrawRequirements {
         return restrictions;
     }
 
+    public List<RestrictionRule> getRules() {
+        return rules;
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) {
@@ -45,6 +57,7 @@ public final class DrawRequirements {
         return new EqualsBuilder()
                 .append(participants, that.participants)
                 .append(restrictions, that.restrictions)
+                .append(rules, that.rules)
                 .isEquals();
     }
 
@@ -53,6 +66,7 @@ public final class DrawRequirements {
         return new HashCodeBuilder()
                 .append(participants)
                 .append(restrictions)
+                .append(rules)
                 .toHashCode();
     }
 
@@ -61,6 +75,7 @@ public final class DrawRequirements {
         return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
             .append(participants)
             .append(restrictions)
+            .append(rules)
             .toString();
     }
 }
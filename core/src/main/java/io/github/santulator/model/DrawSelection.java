@@ -8,8 +8,12 @@ import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import static java.util.stream.Collectors.*;
+
 public final class DrawSelection {
     private static final int INITIAL_BUFFER_SIZE = 100;
 
@@ -23,6 +27,11 @@ public final class DrawSelection {
         return givers;
     }
 
+    public Map<Person, List<Person>> getReceiversByGiver() {
+        return givers.stream()
+            .collect(groupingBy(GiverAssignment::getFrom, mapping(GiverAssignment::getTo, toList())));
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) {
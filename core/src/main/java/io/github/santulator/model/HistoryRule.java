@@ -0,0 +1,64 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.model;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.stream.Collectors.*;
+
+/**
+ * Nobody gives to someone they have given to in an earlier draw.
+ */
+public final class HistoryRule implements RestrictionRule {
+    private final Map<Person, Set<Person>> previousReceivers;
+
+    public HistoryRule(final Collection<GiverAssignment> history) {
+        this.previousReceivers = history.stream()
+            .collect(groupingBy(GiverAssignment::getFrom, mapping(GiverAssignment::getTo, toUnmodifiableSet())));
+    }
+
+    @Override
+    public Collection<Person> excludedReceivers(final Person giver) {
+        return previousReceivers.getOrDefault(giver, Set.of());
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        HistoryRule that = (HistoryRule) o;
+
+        return new EqualsBuilder()
+            .append(previousReceivers, that.previousReceivers)
+            .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder()
+            .append(previousReceivers)
+            .toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
+            .append(previousReceivers)
+            .toString();
+    }
+}
@@ -0,0 +1,20 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.model;
+
+import java.util.Collection;
+
+/**
+ * A restriction covering many pairs at once, such as everyone in the same
+ * household.  Rules are evaluated one giver at a time when the draw is
+ * indexed, rather than expanded into a {@link Restriction} for every pair.
+ */
+public interface RestrictionRule {
+    Collection<Person> excludedReceivers(Person giver);
+
+    default boolean isExcluded(final Person giver, final Person receiver) {
+        return excludedReceivers(giver).contains(receiver);
+    }
+}
@@ -21,6 +21,8 @@ public class SessionState {
 
     private List<ParticipantState> participants = List.of();
 
+    private Long drawSeed;
+
     public String getFormatName() {
         return formatName;
     }
@@ -61,6 +63,14 @@ public class SessionState {
         this.participants = List.copyOf(participants);
     }
 
+    public Long getDrawSeed() {
+        return drawSeed;
+    }
+
+    public void setDrawSeed(final Long drawSeed) {
+        this.drawSeed = drawSeed;
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) {
@@ -79,6 +89,7 @@ public class SessionState {
             .append(drawName, that.drawName)
             .append(password, that.password)
             .append(participants, that.participants)
+            .append(drawSeed, that.drawSeed)
             .isEquals();
     }
 
@@ -90,6 +101,7 @@ public class SessionState {
             .append(drawName)
             .append(password)
             .append(participants)
+            .append(drawSeed)
             .toHashCode();
     }
 
@@ -101,6 +113,7 @@ public class SessionState {
             .append("drawName", drawName)
             .append("password", password)
             .append("participants", participants)
+            .append("drawSeed", drawSeed)
             .toString();
     }
 }
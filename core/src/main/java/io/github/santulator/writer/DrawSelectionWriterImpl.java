@@ -6,15 +6,19 @@ package io.github.santulator.writer;
 
 import io.github.santulator.core.SantaException;
 import io.github.santulator.model.DrawSelection;
-import io.github.santulator.model.GiverAssignment;
+import io.github.santulator.model.Person;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import static java.util.stream.Collectors.toList;
+
 @Singleton
 public class DrawSelectionWriterImpl implements DrawSelectionWriter {
     private static final String ERROR_DIR = "Unable to create directory '%s'";
@@ -31,16 +35,22 @@ public class DrawSelectionWriterImpl implements DrawSelectionWriter {
     @Override
     public void writeDrawSelection(final DrawSelection selection, final Path dir, final String password, final Runnable onWriteComplete) {
         mkdir(dir);
-        selection.getGivers()
-            .forEach(assignment -> writeGiverAssignment(dir, assignment, password, onWriteComplete));
+        selection.getReceiversByGiver()
+            .forEach((giver, receivers) -> writeGiverAssignments(dir, giver, sorted(receivers), password, onWriteComplete));
+    }
+
+    private List<Person> sorted(final List<Person> receivers) {
+        return receivers.stream()
+            .sorted(Comparator.comparing(Person::getName))
+            .collect(toList());
     }
 
-    private void writeGiverAssignment(final Path dir, final GiverAssignment assignment, final String password, final Runnable onWriteComplete) {
-        String name = assignment.getFrom().getName() + writer.getFormatSuffix();
+    private void writeGiverAssignments(final Path dir, final Person giver, final List<Person> receivers, final String password, final Runnable onWriteComplete) {
+        String name = giver.getName() + writer.getFormatSuffix();
         Path file = dir.resolve(name);
 
         try (OutputStream out = Files.newOutputStream(file)) {
-            writer.writeGiverAssignment(name, assignment, out, password);
+            writer.writeGiverAssignments(name, giver, receivers, out, password);
             onWriteComplete.run();
         } catch (IOException | NoClassDefFoundError e) {
             throw new SantaException(String.format(ERROR_ASSIGNMENT, file), e);
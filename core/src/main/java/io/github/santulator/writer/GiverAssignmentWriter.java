@@ -5,11 +5,17 @@
 package io.github.santulator.writer;
 
 import io.github.santulator.model.GiverAssignment;
+import io.github.santulator.model.Person;
 
 import java.io.OutputStream;
+import java.util.List;
 
 public interface GiverAssignmentWriter {
-    void writeGiverAssignment(String name, GiverAssignment assignment, OutputStream out, String password);
+    default void writeGiverAssignment(final String name, final GiverAssignment assignment, final OutputStream out, final String password) {
+        writeGiverAssignments(name, assignment.getFrom(), List.of(assignment.getTo()), out, password);
+    }
+
+    void writeGiverAssignments(String name, Person giver, List<Person> receivers, OutputStream out, String password);
 
     String getFormatSuffix();
 }
@@ -9,12 +9,13 @@ import com.lowagie.text.pdf.PdfWriter;
 import io.github.santulator.core.CoreConstants;
 import io.github.santulator.core.I18nBundleProvider;
 import io.github.santulator.core.SantaException;
-import io.github.santulator.model.GiverAssignment;
+import io.github.santulator.model.Person;
 import org.apache.commons.lang3.StringUtils;
 
 import java.awt.Color;
 import java.io.OutputStream;
 import java.net.URL;
+import java.util.List;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -46,7 +47,7 @@ public class PdfGiverAssignmentWriter implements GiverAssignmentWriter {
     }
 
     @Override
-    public void writeGiverAssignment(final String name, final GiverAssignment assignment, final OutputStream out, final String password) {
+    public void writeGiverAssignments(final String name, final Person giver, final List<Person> receivers, final OutputStream out, final String password) {
         try {
             Document document = new Document(PageSize.A5);
             PdfWriter writer = PdfWriter.getInstance(document, out);
@@ -65,9 +66,11 @@ public class PdfGiverAssignmentWriter implements GiverAssignmentWriter {
 
             document.open();
             document.add(header);
-            addParagraph(document, assignment.getFrom().getName(), FONT_SIZE_MAIN, Font.BOLDITALIC, Color.BLACK);
+            addParagraph(document, giver.getName(), FONT_SIZE_MAIN, Font.BOLDITALIC, Color.BLACK);
             addParagraph(document, phrase, FONT_SIZE_MAIN, Font.ITALIC, Color.BLACK);
-            addParagraph(document, assignment.getTo().getName(), FONT_SIZE_GIFT_RECEIVER, Font.BOLDITALIC, Color.RED);
+            for (Person receiver : receivers) {
+                addParagraph(document, receiver.getName(), FONT_SIZE_GIFT_RECEIVER, Font.BOLDITALIC, Color.RED);
+            }
             document.close();
         } catch (Exception e) {
             throw new SantaException(String.format("Unable to create PDF '%s'", name), e);
@@ -0,0 +1,59 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.engine;
+
+import io.github.santulator.model.DrawSelection;
+import io.github.santulator.model.GiverAssignment;
+import io.github.santulator.model.Person;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DrawScorerTest {
+    private static final Person PERSON_1 = new Person("PERSON_1");
+
+    private static final Person PERSON_2 = new Person("PERSON_2");
+
+    private static final Person PERSON_3 = new Person("PERSON_3");
+
+    private static final Person PERSON_4 = new Person("PERSON_4");
+
+    private static final DrawSelection PAIRS = new DrawSelection(List.of(
+        new GiverAssignment(PERSON_1, PERSON_2), new GiverAssignment(PERSON_2, PERSON_1),
+        new GiverAssignment(PERSON_3, PERSON_4), new GiverAssignment(PERSON_4, PERSON_3)));
+
+    private static final DrawSelection CYCLE = new DrawSelection(List.of(
+        new GiverAssignment(PERSON_1, PERSON_2), new GiverAssignment(PERSON_2, PERSON_3),
+        new GiverAssignment(PERSON_3, PERSON_4), new GiverAssignment(PERSON_4, PERSON_1)));
+
+    @Test
+    public void testFewestReciprocalPairs() {
+        DrawScorer scorer = DrawScorer.fewestReciprocalPairs();
+
+        assertAll(
+            () -> assertEquals(-4, scorer.score(PAIRS), "Pairs"),
+            () -> assertEquals(0, scorer.score(CYCLE), "Cycle")
+        );
+    }
+
+    @Test
+    public void testLongestCycles() {
+        DrawScorer scorer = DrawScorer.longestCycles();
+
+        assertAll(
+            () -> assertEquals(2, scorer.score(PAIRS), "Pairs"),
+            () -> assertEquals(4, scorer.score(CYCLE), "Cycle")
+        );
+    }
+
+    @Test
+    public void testLowestCost() {
+        DrawScorer scorer = DrawScorer.lowestCost((g, r) -> g.equals(PERSON_1) ? 5 : 1);
+
+        assertEquals(-8, scorer.score(CYCLE));
+    }
+}
@@ -5,23 +5,44 @@
 package io.github.santulator.engine;
 
 import io.github.santulator.core.SantaException;
+import io.github.santulator.matcher.AuctionMatcher;
+import io.github.santulator.matcher.MatchingMode;
+import io.github.santulator.matcher.SearchCancelledException;
+import io.github.santulator.matcher.SearchMonitor;
+import io.github.santulator.matcher.SearchProgress;
 import io.github.santulator.model.*;
 import io.github.santulator.test.model.RequirementsBuilder;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
+import static io.github.santulator.matcher.HopcroftKarpMatcher.UNMATCHED;
 import static io.github.santulator.test.model.TestRequirementsTool.REQUIREMENTS;
 import static io.github.santulator.test.model.TestRequirementsTool.person;
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class DrawServiceTest {
+    private static final int GROUP_SIZE = 10;
+
+    private static final int TWO_BLOCK_RUNS = 50;
+
+    private static final long SEED = 20_181_224L;
+
     private final DrawService target = new DrawServiceImpl();
 
     @Test
@@ -112,6 +133,506 @@ public class DrawServiceTest {
         assertThrows(SantaException.class, () -> target.draw(requirements));
     }
 
+    @Test
+    public void testSeparateSites() {
+        DrawRequirements requirements = new RequirementsBuilder()
+            .person("North 1", ParticipantRole.BOTH)
+            .person("North 2", ParticipantRole.BOTH)
+            .person("North 3", ParticipantRole.BOTH)
+            .person("South 1", ParticipantRole.BOTH)
+            .person("South 2", ParticipantRole.BOTH)
+            .restrictions("North 1", "South 1", "South 2")
+            .restrictions("North 2", "South 1", "South 2")
+            .restrictions("North 3", "South 1", "South 2")
+            .restrictions("South 1", "North 1", "North 2", "North 3")
+            .restrictions("South 2", "North 1", "North 2", "North 3")
+            .build();
+        DrawSelection selection = target.draw(requirements);
+
+        assertAll(
+            () -> assertTrue(selection.getGivers().contains(giver(requirements, "South 1", "South 2")), "South 1"),
+            () -> assertTrue(selection.getGivers().contains(giver(requirements, "South 2", "South 1")), "South 2"),
+            () -> assertTrue(selection.getGivers().stream().allMatch(a -> isSameSite(a.getFrom(), a.getTo())), "Within sites")
+        );
+    }
+
+    @Test
+    public void testImpossibleSite() {
+        DrawRequirements requirements = new RequirementsBuilder()
+            .person("North 1", ParticipantRole.BOTH)
+            .person("North 2", ParticipantRole.BOTH)
+            .person("South 1", ParticipantRole.BOTH)
+            .restrictions("North 1", "South 1")
+            .restrictions("North 2", "South 1")
+            .restrictions("South 1", "North 1", "North 2")
+            .build();
+
+        assertThrows(SantaException.class, () -> target.draw(requirements));
+    }
+
+    @Test
+    public void testCancelled() {
+        SearchMonitor monitor = new SearchMonitor();
+
+        monitor.cancel();
+
+        assertThrows(SearchCancelledException.class, () -> target.draw(REQUIREMENTS, monitor));
+    }
+
+    @Test
+    public void testFailedComponentCancelsSearch() {
+        DrawService failing = new DrawServiceImpl((index, random, m) -> IntStream.range(0, index.giverCount()).map(g -> UNMATCHED).toArray());
+        DrawRequirements requirements = new RequirementsBuilder()
+            .person("North 1", ParticipantRole.BOTH)
+            .person("North 2", ParticipantRole.BOTH)
+            .person("South 1", ParticipantRole.BOTH)
+            .person("South 2", ParticipantRole.BOTH)
+            .restrictions("North 1", "South 1", "South 2")
+            .restrictions("North 2", "South 1", "South 2")
+            .restrictions("South 1", "North 1", "North 2")
+            .restrictions("South 2", "North 1", "North 2")
+            .build();
+        SearchMonitor monitor = new SearchMonitor();
+
+        assertAll(
+            () -> assertThrows(SantaException.class, () -> failing.draw(requirements, monitor), "Failed"),
+            () -> assertTrue(monitor.isCancelled(), "Cancelled")
+        );
+    }
+
+    @Test
+    public void testProgressReported() {
+        List<SearchProgress> reports = new ArrayList<>();
+        SearchMonitor monitor = new SearchMonitor(reports::add);
+        DrawSelection selection = target.draw(REQUIREMENTS, monitor);
+        SearchProgress last = reports.get(reports.size() - 1);
+
+        assertAll(
+            () -> assertTrue(monitor.getNodes() > 0, "Nodes"),
+            () -> assertEquals(selection.getGivers().size(), last.getDepth(), "Depth"),
+            () -> assertEquals(last.getDepth(), last.getSize(), "Size")
+        );
+    }
+
+    @Test
+    public void testProgressReportedForWholeDraw() {
+        List<SearchProgress> reports = new CopyOnWriteArrayList<>();
+        SearchMonitor monitor = new SearchMonitor(reports::add);
+        DrawRequirements requirements = new RequirementsBuilder()
+            .person("North 1", ParticipantRole.BOTH)
+            .person("North 2", ParticipantRole.BOTH)
+            .person("South 1", ParticipantRole.BOTH)
+            .person("South 2", ParticipantRole.BOTH)
+            .person("South 3", ParticipantRole.BOTH)
+            .restrictions("North 1", "South 1", "South 2", "South 3")
+            .restrictions("North 2", "South 1", "South 2", "South 3")
+            .restrictions("South 1", "North 1", "North 2")
+            .restrictions("South 2", "North 1", "North 2")
+            .restrictions("South 3", "North 1", "North 2")
+            .build();
+
+        target.draw(requirements, monitor);
+
+        assertAll(
+            () -> assertTrue(reports.stream().allMatch(p -> p.getSize() == 5), "Size"),
+            () -> assertEquals(5, reports.stream().mapToInt(SearchProgress::getDepth).max().orElse(0), "Depth")
+        );
+    }
+
+    @Test
+    public void testRepairUnchanged() {
+        DrawRequirements requirements = groupBuilder(GROUP_SIZE).build();
+        DrawSelection previous = target.draw(requirements);
+
+        assertEquals(new DrawRepair(previous, List.of()), target.repair(requirements, previous));
+    }
+
+    @Test
+    public void testRepairRemovedPerson() {
+        DrawSelection previous = target.draw(groupBuilder(GROUP_SIZE).build());
+        DrawRepair repair = target.repair(groupBuilder(GROUP_SIZE - 1).build(), previous);
+
+        assertTrue(repair.getChanges().size() <= 2, "Changes " + repair.getChanges());
+    }
+
+    @Test
+    public void testRepairAddedPerson() {
+        DrawSelection previous = target.draw(groupBuilder(GROUP_SIZE).build());
+        DrawRepair repair = target.repair(groupBuilder(GROUP_SIZE + 1).build(), previous);
+
+        assertAll(
+            () -> assertEquals(2, repair.getChanges().size(), "Changes " + repair.getChanges()),
+            () -> assertTrue(repair.getSelection().getGivers().containsAll(unchanged(previous, repair)), "Kept")
+        );
+    }
+
+    @Test
+    public void testRepairAddedRestriction() {
+        DrawSelection previous = target.draw(groupBuilder(GROUP_SIZE).build());
+        GiverAssignment excluded = previous.getGivers().iterator().next();
+        DrawRequirements requirements = groupBuilder(GROUP_SIZE)
+            .restrictions(excluded.getFrom().getName(), excluded.getTo().getName())
+            .build();
+        DrawRepair repair = target.repair(requirements, previous);
+
+        assertAll(
+            () -> assertEquals(2, repair.getChanges().size(), "Changes " + repair.getChanges()),
+            () -> assertFalse(repair.getSelection().getGivers().contains(excluded), "Excluded")
+        );
+    }
+
+    @Test
+    public void testRepairImpossible() {
+        DrawSelection previous = target.draw(groupBuilder(2).build());
+
+        assertThrows(SantaException.class, () -> target.repair(groupBuilder(1).build(), previous));
+    }
+
+    @Test
+    public void testRules() {
+        DrawRequirements group = groupBuilder(GROUP_SIZE).build();
+        Set<GiverAssignment> lastYear = target.draw(group).getGivers();
+        Map<Person, String> households = new HashMap<>();
+
+        for (int i = 0; i < GROUP_SIZE; i++) {
+            households.put(new Person("Person " + i, ParticipantRole.BOTH), "Household " + i / 2);
+        }
+
+        DrawRequirements requirements = groupBuilder(GROUP_SIZE)
+            .rule(new AttributeRule("Household", households))
+            .rule(new HistoryRule(lastYear))
+            .build();
+        DrawSelection selection = target.draw(requirements);
+
+        assertAll(
+            () -> assertTrue(selection.getGivers().stream().noneMatch(lastYear::contains), "Last year"),
+            () -> assertTrue(selection.getGivers().stream().noneMatch(a -> households.get(a.getFrom()).equals(households.get(a.getTo()))), "Household")
+        );
+    }
+
+    @Test
+    public void testSingleCycle() {
+        DrawRequirements requirements = groupBuilder(GROUP_SIZE)
+            .restrictions("Person 0", "Person 1", "Person 2")
+            .mutualRestriction("Person 3", "Person 4")
+            .build();
+        DrawSelection selection = target.drawSingleCycle(requirements);
+
+        assertAll(
+            () -> assertEquals(GROUP_SIZE, selection.getGivers().size(), "Size"),
+            () -> assertDoesNotThrow(() -> DrawValidationTool.validate(requirements, selection), "Valid"),
+            () -> assertDoesNotThrow(() -> DrawValidationTool.validateSingleCycle(selection), "Single cycle")
+        );
+    }
+
+    @Test
+    public void testSingleCycleNeedsEveryoneToGiveAndReceive() {
+        DrawRequirements requirements = groupBuilder(GROUP_SIZE)
+            .person("Giver", ParticipantRole.GIVER)
+            .build();
+
+        assertThrows(SantaException.class, () -> target.drawSingleCycle(requirements));
+    }
+
+    @Test
+    public void testNoReciprocalPairs() {
+        DrawRequirements requirements = groupBuilder(GROUP_SIZE)
+            .restrictions("Person 0", "Person 1", "Person 2")
+            .build();
+        DrawSelection selection = target.drawWithMinimumCycle(requirements, 3);
+
+        assertTrue(selection.getGivers().stream().noneMatch(a -> selection.getGivers().contains(new GiverAssignment(a.getTo(), a.getFrom()))));
+    }
+
+    @Test
+    public void testMinimumCycleAcrossBlocks() {
+        DrawRequirements requirements = new RequirementsBuilder()
+            .person("A", ParticipantRole.BOTH)
+            .person("B", ParticipantRole.BOTH)
+            .person("C", ParticipantRole.BOTH)
+            .person("D", ParticipantRole.BOTH)
+            .restrictions("A", "B")
+            .restrictions("B", "A")
+            .restrictions("C", "D")
+            .restrictions("D", "C")
+            .build();
+
+        for (int i = 0; i < TWO_BLOCK_RUNS; i++) {
+            DrawSelection selection = target.drawWithMinimumCycle(requirements, 3);
+
+            assertDoesNotThrow(() -> DrawValidationTool.validateMinimumCycle(selection, 3));
+        }
+    }
+
+    @Test
+    public void testMinimumCycleImpossible() {
+        assertThrows(SantaException.class, () -> target.drawWithMinimumCycle(groupBuilder(GROUP_SIZE).build(), GROUP_SIZE + 1));
+    }
+
+    @Test
+    public void testMultipleGifts() {
+        DrawRequirements requirements = groupBuilder(GROUP_SIZE)
+            .mutualRestriction("Person 0", "Person 1")
+            .build();
+        DrawSelection selection = target.drawMultipleGifts(requirements, 3);
+
+        assertAll(
+            () -> assertEquals(3 * GROUP_SIZE, selection.getGivers().size(), "Assignments"),
+            () -> assertTrue(selection.getReceiversByGiver().values().stream().allMatch(r -> r.size() == 3), "Presents per giver")
+        );
+    }
+
+    @Test
+    public void testInvalidGiftCount() {
+        assertThrows(SantaException.class, () -> target.drawMultipleGifts(groupBuilder(GROUP_SIZE).build(), 0));
+    }
+
+    @Test
+    public void testTooManyGifts() {
+        assertThrows(SantaException.class, () -> target.drawMultipleGifts(groupBuilder(GROUP_SIZE).build(), GROUP_SIZE));
+    }
+
+    @Test
+    public void testWeightedDrawAvoidsLastYear() {
+        DrawRequirements requirements = groupBuilder(GROUP_SIZE).build();
+        Set<GiverAssignment> lastYear = target.draw(requirements).getGivers();
+        DrawSelection selection = target.drawWeighted(requirements, (g, r) -> lastYear.contains(new GiverAssignment(g, r)) ? 1 : 0);
+
+        assertTrue(selection.getGivers().stream().noneMatch(lastYear::contains));
+    }
+
+    @Test
+    public void testWeightedDrawImpossible() {
+        DrawRequirements requirements = new RequirementsBuilder()
+            .person("Person 1", ParticipantRole.BOTH)
+            .person("Person 2", ParticipantRole.BOTH)
+            .restrictions("Person 1", "Person 2")
+            .build();
+
+        assertThrows(SantaException.class, () -> target.drawWeighted(requirements, (g, r) -> 0));
+    }
+
+    @Test
+    public void testLargeDraw() {
+        int size = DrawServiceImpl.LARGE_DRAW_SIZE + 1;
+        RequirementsBuilder builder = groupBuilder(size);
+
+        for (int i = 0; i < size; i++) {
+            builder.restrictions("Person " + i, "Person " + (i + 1) % size);
+        }
+
+        DrawRequirements requirements = builder.build();
+        DrawSelection selection = target.draw(requirements);
+
+        assertAll(
+            () -> assertEquals(size, selection.getGivers().size(), "Size"),
+            () -> assertDoesNotThrow(() -> DrawValidationTool.validate(requirements, selection), "Valid")
+        );
+    }
+
+    @Test
+    public void testLargeDrawWithChosenStrategy() {
+        DrawService chosen = new DrawServiceImpl(MatchingMode.MAXIMUM_MATCHING);
+        DrawRequirements requirements = groupBuilder(DrawServiceImpl.LARGE_DRAW_SIZE + 1).build();
+
+        assertThrows(SantaException.class, () -> chosen.draw(requirements));
+    }
+
+    @Test
+    public void testLargeRepair() {
+        int size = DrawServiceImpl.LARGE_DRAW_SIZE + 1;
+        DrawSelection previous = target.draw(groupBuilder(size).build());
+        DrawRequirements requirements = groupBuilder(size - 1).build();
+        DrawRepair repair = target.repair(requirements, previous);
+
+        assertAll(
+            () -> assertTrue(repair.getChanges().size() <= 2, "Changes " + repair.getChanges()),
+            () -> assertDoesNotThrow(() -> DrawValidationTool.validate(requirements, repair.getSelection()), "Valid")
+        );
+    }
+
+    @Test
+    public void testLargeWeightedDraw() {
+        DrawRequirements requirements = groupBuilder(AuctionMatcher.MAX_SIZE + 1).build();
+
+        assertThrows(SantaException.class, () -> target.drawWeighted(requirements, (g, r) -> 0));
+    }
+
+    @Test
+    public void testSeededDraw() {
+        DrawSelection selection = target.draw(REQUIREMENTS, SEED);
+
+        assertAll(
+            () -> assertEquals(selection, target.draw(REQUIREMENTS, SEED), "Same service"),
+            () -> assertEquals(selection, new DrawServiceImpl().draw(REQUIREMENTS, SEED), "New service"),
+            () -> assertDoesNotThrow(() -> DrawValidationTool.validate(REQUIREMENTS, selection), "Valid")
+        );
+    }
+
+    @Test
+    public void testSeededDrawModes() {
+        DrawService other = new DrawServiceImpl();
+        DrawRequirements requirements = groupBuilder(GROUP_SIZE).build();
+        Map<String, DrawRequirements> draws = new LinkedHashMap<>();
+
+        draws.put("First", requirements);
+        draws.put("Second", REQUIREMENTS);
+
+        assertAll(
+            () -> assertEquals(target.drawWeighted(requirements, (g, r) -> 0, SEED), other.drawWeighted(requirements, (g, r) -> 0, SEED), "Weighted"),
+            () -> assertEquals(target.drawSingleCycle(requirements, SEED), other.drawSingleCycle(requirements, SEED), "Single cycle"),
+            () -> assertEquals(target.drawWithMinimumCycle(requirements, 3, SEED), other.drawWithMinimumCycle(requirements, 3, SEED), "Minimum cycle"),
+            () -> assertEquals(target.drawMultipleGifts(requirements, 2, SEED), other.drawMultipleGifts(requirements, 2, SEED), "Multiple gifts"),
+            () -> assertEquals(target.drawBest(requirements, 8, DrawScorer.longestCycles(), SEED),
+                other.drawBest(requirements, 8, DrawScorer.longestCycles(), SEED), "Best"),
+            () -> assertEquals(target.drawBatch(draws, SEED), other.drawBatch(draws, SEED), "Batch")
+        );
+    }
+
+    @Test
+    public void testSeededDrawIgnoresParticipantOrder() {
+        List<Person> participants = new ArrayList<>(REQUIREMENTS.getParticipants());
+        List<Restriction> restrictions = new ArrayList<>(REQUIREMENTS.getRestrictions());
+        DrawSelection selection = target.draw(REQUIREMENTS, SEED);
+
+        Collections.reverse(participants);
+        Collections.reverse(restrictions);
+
+        assertEquals(selection, target.draw(new DrawRequirements(participants, restrictions), SEED));
+    }
+
+    @Test
+    public void testSeedsDiffer() {
+        DrawRequirements requirements = groupBuilder(GROUP_SIZE).build();
+        Set<DrawSelection> selections = LongStream.range(0, 8)
+            .mapToObj(seed -> target.draw(requirements, seed))
+            .collect(toSet());
+
+        assertTrue(selections.size() > 1);
+    }
+
+    @Test
+    public void testBestDraw() {
+        DrawRequirements requirements = groupBuilder(GROUP_SIZE).build();
+        DrawSelection selection = target.drawBest(requirements, 32, DrawScorer.longestCycles());
+
+        assertAll(
+            () -> assertDoesNotThrow(() -> DrawValidationTool.validate(requirements, selection), "Valid"),
+            () -> assertTrue(DrawValidationTool.shortestCycle(selection) > 2, "Longer cycles")
+        );
+    }
+
+    @Test
+    public void testBestDrawChoosesHighestScore() {
+        DrawRequirements requirements = groupBuilder(GROUP_SIZE).build();
+        List<Double> scores = Collections.synchronizedList(new ArrayList<>());
+        DrawScorer scorer = DrawScorer.fewestReciprocalPairs();
+        DrawSelection selection = target.drawBest(requirements, 16, s -> {
+            double score = scorer.score(s);
+
+            scores.add(score);
+
+            return score;
+        });
+
+        assertAll(
+            () -> assertEquals(16, scores.size(), "Candidates"),
+            () -> assertEquals(Collections.max(scores), scorer.score(selection), "Best")
+        );
+    }
+
+    @Test
+    public void testBestDrawImpossible() {
+        DrawRequirements requirements = new RequirementsBuilder()
+            .person("Person 1", ParticipantRole.BOTH)
+            .person("Person 2", ParticipantRole.BOTH)
+            .restrictions("Person 1", "Person 2")
+            .build();
+
+        assertThrows(SantaException.class, () -> target.drawBest(requirements, 4, DrawScorer.fewestReciprocalPairs()));
+    }
+
+    @Test
+    public void testInvalidCandidateCount() {
+        assertThrows(SantaException.class, () -> target.drawBest(groupBuilder(GROUP_SIZE).build(), 0, DrawScorer.longestCycles()));
+    }
+
+    @Test
+    public void testBatch() {
+        DrawRequirements impossible = new RequirementsBuilder()
+            .person("Person 1", ParticipantRole.BOTH)
+            .person("Person 2", ParticipantRole.BOTH)
+            .restrictions("Person 1", "Person 2")
+            .build();
+        Map<String, DrawRequirements> draws = new LinkedHashMap<>();
+
+        draws.put("Group", groupBuilder(GROUP_SIZE).build());
+        draws.put("Impossible", impossible);
+        draws.put("Realistic", REQUIREMENTS);
+
+        List<DrawResult> completed = new ArrayList<>();
+        List<DrawResult> results = target.drawBatch(draws, completed::add);
+
+        assertAll(
+            () -> assertEquals(List.of("Group", "Impossible", "Realistic"), results.stream().map(DrawResult::getName).collect(toList()), "Order"),
+            () -> assertEquals(List.of(true, false, true), results.stream().map(DrawResult::isSuccess).collect(toList()), "Success"),
+            () -> assertTrue(results.get(1).getError().isPresent(), "Error"),
+            () -> assertDoesNotThrow(() -> DrawValidationTool.validate(REQUIREMENTS, results.get(2).getSelection().orElseThrow()), "Valid"),
+            () -> assertEquals(new HashSet<>(results), new HashSet<>(completed), "Reported"),
+            () -> assertEquals(results.size(), completed.size(), "Reported once")
+        );
+    }
+
+    @Test
+    public void testBatchWithUnexpectedError() {
+        DrawService broken = new DrawServiceImpl((index, random, m) -> {
+            if (index.giverCount() == GROUP_SIZE) {
+                throw new IllegalStateException("Broken strategy");
+            }
+            return MatchingMode.MAXIMUM_MATCHING.match(index, random, m);
+        });
+        Map<String, DrawRequirements> draws = new LinkedHashMap<>();
+
+        draws.put("Broken", groupBuilder(GROUP_SIZE).build());
+        draws.put("Working", groupBuilder(GROUP_SIZE + 1).build());
+
+        List<DrawResult> results = broken.drawBatch(draws);
+
+        assertAll(
+            () -> assertEquals(List.of(false, true), results.stream().map(DrawResult::isSuccess).collect(toList()), "Success"),
+            () -> assertTrue(results.get(0).getError().orElseThrow().getCause() instanceof IllegalStateException, "Cause")
+        );
+    }
+
+    @Test
+    public void testEmptyBatch() {
+        assertEquals(List.of(), target.drawBatch(Map.of()));
+    }
+
+    private RequirementsBuilder groupBuilder(final int size) {
+        RequirementsBuilder builder = new RequirementsBuilder();
+
+        for (int i = 0; i < size; i++) {
+            builder.person("Person " + i, ParticipantRole.BOTH);
+        }
+
+        return builder;
+    }
+
+    private Set<GiverAssignment> unchanged(final DrawSelection previous, final DrawRepair repair) {
+        Set<Person> changedGivers = repair.getChanges().stream()
+            .map(GiverAssignment::getFrom)
+            .collect(toSet());
+
+        return previous.getGivers().stream()
+            .filter(a -> !changedGivers.contains(a.getFrom()))
+            .collect(toSet());
+    }
+
+    private boolean isSameSite(final Person from, final Person to) {
+        return from.getName().charAt(0) == to.getName().charAt(0);
+    }
+
     private GiverAssignment giver(final DrawRequirements requirements, final String from, final String to) {
         return new GiverAssignment(person(requirements, from), person(requirements, to));
     }
@@ -0,0 +1,123 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.engine;
+
+import io.github.santulator.model.DrawRequirements;
+import io.github.santulator.model.ParticipantRole;
+import io.github.santulator.test.model.RequirementsBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigInteger;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DrawStatisticsTest {
+    private static final BigInteger DERANGEMENTS_OF_10 = BigInteger.valueOf(1_334_961);
+
+    private static final int ESTIMATED_LIMIT = 8;
+
+    private final DrawStatistics target = new DrawStatisticsImpl();
+
+    @ParameterizedTest
+    @CsvSource({
+        "0, 1",
+        "1, 0",
+        "2, 1",
+        "3, 2",
+        "4, 9",
+        "7, 1854",
+        "10, 1334961",
+        "22, 413496759611120779881"
+    })
+    public void testFreeDraw(final int size, final String expected) {
+        DrawCount count = target.countDraws(freeDraw(size));
+
+        assertEquals(new DrawCount(new BigInteger(expected), true), count);
+    }
+
+    @Test
+    public void testOnlyOneSolution() {
+        DrawRequirements requirements = new RequirementsBuilder()
+            .person("A", ParticipantRole.BOTH)
+            .person("B", ParticipantRole.BOTH)
+            .person("C", ParticipantRole.BOTH)
+            .person("D", ParticipantRole.BOTH)
+            .restrictions("A", "C", "D")
+            .restrictions("B", "A", "D")
+            .restrictions("C", "A", "B")
+            .build();
+
+        assertEquals(new DrawCount(BigInteger.ONE, true), target.countDraws(requirements));
+    }
+
+    @Test
+    public void testGiversAndReceivers() {
+        DrawRequirements requirements = new RequirementsBuilder()
+            .person("Giver 1", ParticipantRole.GIVER)
+            .person("Giver 2", ParticipantRole.GIVER)
+            .person("Receiver 1", ParticipantRole.RECEIVER)
+            .person("Receiver 2", ParticipantRole.RECEIVER)
+            .restrictions("Giver 1", "Receiver 1")
+            .build();
+
+        assertEquals(new DrawCount(BigInteger.ONE, true), target.countDraws(requirements));
+    }
+
+    @Test
+    public void testUnbalanced() {
+        DrawRequirements requirements = new RequirementsBuilder()
+            .person("Giver", ParticipantRole.GIVER)
+            .person("Person 1", ParticipantRole.BOTH)
+            .person("Person 2", ParticipantRole.BOTH)
+            .build();
+
+        assertEquals(new DrawCount(BigInteger.ZERO, true), target.countDraws(requirements));
+    }
+
+    @Test
+    public void testEstimate() {
+        DrawStatistics estimator = new DrawStatisticsImpl(ForkJoinPool.commonPool(), ESTIMATED_LIMIT, new SplittableRandom(1));
+        DrawCount count = estimator.countDraws(freeDraw(10));
+        double ratio = count.getCount().doubleValue() / DERANGEMENTS_OF_10.doubleValue();
+
+        assertAll(
+            () -> assertFalse(count.isExact(), "Exact"),
+            () -> assertTrue(ratio > 0.8 && ratio < 1.2, "Ratio " + ratio)
+        );
+    }
+
+    @Test
+    public void testImpossibleLargeDrawIsExact() {
+        RequirementsBuilder builder = freeDrawBuilder(40);
+
+        for (int i = 1; i < 40; i++) {
+            builder.restrictions(name(0), name(i));
+        }
+
+        assertEquals(new DrawCount(BigInteger.ZERO, true), target.countDraws(builder.build()));
+    }
+
+    private DrawRequirements freeDraw(final int size) {
+        return freeDrawBuilder(size).build();
+    }
+
+    private RequirementsBuilder freeDrawBuilder(final int size) {
+        RequirementsBuilder builder = new RequirementsBuilder();
+
+        for (int i = 0; i < size; i++) {
+            builder.person(name(i), ParticipantRole.BOTH);
+        }
+
+        return builder;
+    }
+
+    private String name(final int i) {
+        return "Person " + i;
+    }
+}
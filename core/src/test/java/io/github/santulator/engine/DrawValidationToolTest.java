@@ -9,8 +9,11 @@ import io.github.santulator.model.*;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
 
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class DrawValidationToolTest {
     private static final Person PERSON_1 = new Person("PERSON_1");
@@ -19,6 +22,8 @@ public class DrawValidationToolTest {
 
     private static final Person PERSON_3 = new Person("PERSON_3");
 
+    private static final Person PERSON_4 = new Person("PERSON_4");
+
     private static final Person GIVER_ONLY_1 = new Person("GIVER_1", ParticipantRole.GIVER);
 
     private static final Person GIVER_ONLY_2 = new Person("GIVER_2", ParticipantRole.GIVER);
@@ -68,6 +73,53 @@ public class DrawValidationToolTest {
         validateBadSelection(selection);
     }
 
+    @Test
+    public void testRuleViolation() {
+        AttributeRule rule = new AttributeRule("Household", Map.of(PERSON_1, "Home", PERSON_3, "Home"));
+        DrawRequirements requirements = new DrawRequirements(List.of(PERSON_1, PERSON_2, PERSON_3), List.of(), List.of(rule));
+        DrawSelection selection = selection(giver(PERSON_1, PERSON_3), giver(PERSON_2, PERSON_1), giver(PERSON_3, PERSON_2));
+
+        validateBadSelection(requirements, selection);
+    }
+
+    @Test
+    public void testSingleCycle() {
+        DrawSelection selection = selection(giver(PERSON_1, PERSON_3), giver(PERSON_3, PERSON_2), giver(PERSON_2, PERSON_1));
+
+        assertDoesNotThrow(() -> DrawValidationTool.validateSingleCycle(selection));
+    }
+
+    @Test
+    public void testSeveralCycles() {
+        DrawSelection selection = selection(giver(PERSON_1, PERSON_2), giver(PERSON_2, PERSON_1), giver(PERSON_3, PERSON_4), giver(PERSON_4, PERSON_3));
+
+        assertThrows(SantaException.class, () -> DrawValidationTool.validateSingleCycle(selection));
+    }
+
+    @Test
+    public void testMinimumCycle() {
+        DrawSelection selection = selection(giver(PERSON_1, PERSON_2), giver(PERSON_2, PERSON_1), giver(PERSON_3, PERSON_4), giver(PERSON_4, PERSON_3));
+
+        assertAll(
+            () -> assertDoesNotThrow(() -> DrawValidationTool.validateMinimumCycle(selection, 2), "Pairs allowed"),
+            () -> assertThrows(SantaException.class, () -> DrawValidationTool.validateMinimumCycle(selection, 3), "No pairs")
+        );
+    }
+
+    @Test
+    public void testMultipleGifts() {
+        DrawRequirements requirements = requirements(PERSON_1, PERSON_2, PERSON_3, PERSON_4);
+        DrawSelection selection = selection(
+            giver(PERSON_1, PERSON_2), giver(PERSON_1, PERSON_3), giver(PERSON_2, PERSON_3), giver(PERSON_2, PERSON_4),
+            giver(PERSON_3, PERSON_4), giver(PERSON_3, PERSON_1), giver(PERSON_4, PERSON_1), giver(PERSON_4, PERSON_2));
+
+        assertAll(
+            () -> assertDoesNotThrow(() -> DrawValidationTool.validate(requirements, selection, 2), "Two presents"),
+            () -> assertThrows(SantaException.class, () -> DrawValidationTool.validate(requirements, selection), "One present"),
+            () -> assertThrows(SantaException.class, () -> DrawValidationTool.validate(requirements, selection, 3), "Three presents")
+        );
+    }
+
     @Test
     public void testDuplicateGiver() {
         DrawSelection selection = selection(giver(GIVER_ONLY_1, RECEIVER_ONLY_1), giver(GIVER_ONLY_1, RECEIVER_ONLY_2));
@@ -96,6 +148,62 @@ public class DrawValidationToolTest {
         validateBadSelection(requirements(PERSON_1, GIVER_ONLY_1), selection);
     }
 
+    @Test
+    public void testAllViolationsReported() {
+        DrawSelection selection = selection(giver(PERSON_1, PERSON_2), giver(PERSON_2, PERSON_2), giver(PERSON_3, PERSON_4));
+
+        assertEquals(List.of(
+            String.format("Bad present assignment %s", giver(PERSON_1, PERSON_2)),
+            "Duplicate receiver 'PERSON_2'",
+            "Invalid receiver 'PERSON_4'",
+            "Missing receiver 'PERSON_1'",
+            "Missing receiver 'PERSON_3'"
+        ), sorted(DrawValidationTool.findViolations(REQUIREMENTS, selection)));
+    }
+
+    @Test
+    public void testUnknownExcludedPerson() {
+        DrawRequirements requirements = requirements(List.of(RESTRICTION_1, new Restriction(PERSON_1, PERSON_4)), PERSON_1, PERSON_2, PERSON_3);
+        DrawSelection selection = selection(giver(PERSON_1, PERSON_4), giver(PERSON_2, PERSON_1), giver(PERSON_3, PERSON_2));
+
+        assertEquals(List.of(
+            "Invalid receiver 'PERSON_4'",
+            "Missing receiver 'PERSON_3'"
+        ), sorted(DrawValidationTool.findViolations(requirements, selection)));
+    }
+
+    @Test
+    public void testNoViolations() {
+        DrawSelection selection = selection(giver(PERSON_3, PERSON_2), giver(PERSON_2, PERSON_1), giver(PERSON_1, PERSON_3));
+
+        assertEquals(List.of(), DrawValidationTool.findViolations(REQUIREMENTS, selection));
+    }
+
+    @Test
+    public void testLargeSelection() {
+        int size = SelectionChecker.PARALLEL_SIZE;
+        List<Person> people = IntStream.range(0, size)
+            .mapToObj(i -> new Person("Person " + i))
+            .collect(toList());
+        List<GiverAssignment> assignments = IntStream.range(0, size)
+            .mapToObj(i -> giver(people.get(i), people.get((i + 1) % size)))
+            .collect(toList());
+        Restriction restriction = new Restriction(people.get(0), people.get(1));
+        DrawRequirements requirements = new DrawRequirements(people, List.of(restriction));
+        List<String> violations = DrawValidationTool.findViolations(requirements, new DrawSelection(assignments));
+
+        assertAll(
+            () -> assertEquals(List.of(String.format("Bad present assignment %s", assignments.get(0))), violations, "Violations"),
+            () -> assertThrows(SantaException.class, () -> DrawValidationTool.validate(requirements, new DrawSelection(assignments.subList(1, size))), "Missing")
+        );
+    }
+
+    private List<String> sorted(final List<String> violations) {
+        return violations.stream()
+            .sorted()
+            .collect(toList());
+    }
+
     private void validateBadSelection(final DrawSelection selection) {
         validateBadSelection(REQUIREMENTS, selection);
     }
@@ -0,0 +1,137 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import io.github.santulator.model.Person;
+import io.github.santulator.model.Restriction;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static io.github.santulator.matcher.HopcroftKarpMatcher.UNMATCHED;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuctionMatcherTest {
+    private static final int SIZE = 6;
+
+    private static final int MAX_COST = 20;
+
+    private static final int TRIALS = 20;
+
+    private static final int LARGE_SIZE = 200;
+
+    private final List<Person> people = people(SIZE);
+
+    @Test
+    public void testOptimal() {
+        SplittableRandom random = new SplittableRandom(1);
+
+        for (int trial = 0; trial < TRIALS; trial++) {
+            int[][] costs = randomCosts(random);
+            ParticipantIndex index = ParticipantIndex.forRestrictions(people, people, randomRestrictions(random));
+            int[] match = match(index, costs, random);
+            int best = bestCost(index, costs, new int[SIZE], new boolean[SIZE], 0);
+
+            if (best == Integer.MAX_VALUE) {
+                assertTrue(Arrays.stream(match).allMatch(r -> r == UNMATCHED), "Impossible");
+            } else {
+                assertAll(
+                    () -> assertTrue(IntStream.range(0, SIZE).allMatch(g -> index.isAllowed(g, match[g])), "Allowed"),
+                    () -> assertEquals(SIZE, Arrays.stream(match).distinct().count(), "Receivers"),
+                    () -> assertEquals(best, cost(match, costs), "Cost")
+                );
+            }
+        }
+    }
+
+    @Test
+    public void testRandomAmongEqualCosts() {
+        List<Person> group = people(LARGE_SIZE);
+        ParticipantIndex index = ParticipantIndex.forRestrictions(group, group, List.of());
+        PairCost free = (g, r) -> 0;
+        int[] first = new AuctionMatcher(index, free, new SplittableRandom(1), ForkJoinPool.commonPool(), new SearchMonitor()).match();
+        int[] second = new AuctionMatcher(index, free, new SplittableRandom(2), ForkJoinPool.commonPool(), new SearchMonitor()).match();
+
+        assertAll(
+            () -> assertTrue(IntStream.range(0, LARGE_SIZE).allMatch(g -> first[g] != g), "Self assignment"),
+            () -> assertFalse(Arrays.equals(first, second), "Different draws")
+        );
+    }
+
+    @Test
+    public void testImpossible() {
+        List<Restriction> restrictions = people.stream()
+            .map(p -> new Restriction(people.get(0), p))
+            .collect(toList());
+        ParticipantIndex index = ParticipantIndex.forRestrictions(people, people, restrictions);
+        int[] match = match(index, new int[SIZE][SIZE], new SplittableRandom(1));
+
+        assertTrue(Arrays.stream(match).allMatch(r -> r == UNMATCHED));
+    }
+
+    private int[] match(final ParticipantIndex index, final int[][] costs, final SplittableRandom random) {
+        PairCost pairCost = (g, r) -> costs[index.giverId(g)][index.receiverId(r)];
+
+        return new AuctionMatcher(index, pairCost, random, ForkJoinPool.commonPool(), new SearchMonitor()).match();
+    }
+
+    private int bestCost(final ParticipantIndex index, final int[][] costs, final int[] match, final boolean[] used, final int giver) {
+        if (giver == SIZE) {
+            return cost(match, costs);
+        }
+
+        int best = Integer.MAX_VALUE;
+
+        for (int receiver = 0; receiver < SIZE; receiver++) {
+            if (!used[receiver] && index.isAllowed(giver, receiver)) {
+                used[receiver] = true;
+                match[giver] = receiver;
+                best = Math.min(best, bestCost(index, costs, match, used, giver + 1));
+                used[receiver] = false;
+            }
+        }
+
+        return best;
+    }
+
+    private int cost(final int[] match, final int[]... costs) {
+        return IntStream.range(0, match.length)
+            .map(g -> costs[g][match[g]])
+            .sum();
+    }
+
+    private int[][] randomCosts(final SplittableRandom random) {
+        int[][] costs = new int[SIZE][SIZE];
+
+        for (int[] row : costs) {
+            Arrays.setAll(row, i -> random.nextInt(MAX_COST));
+        }
+
+        return costs;
+    }
+
+    private List<Restriction> randomRestrictions(final SplittableRandom random) {
+        List<Restriction> restrictions = new ArrayList<>();
+
+        for (Person from : people) {
+            for (Person to : people) {
+                if (random.nextInt(3) == 0) {
+                    restrictions.add(new Restriction(from, to));
+                }
+            }
+        }
+
+        return restrictions;
+    }
+
+    private List<Person> people(final int count) {
+        return IntStream.range(0, count)
+            .mapToObj(i -> new Person("Person " + i))
+            .collect(toList());
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import io.github.santulator.model.Person;
+import io.github.santulator.model.Restriction;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static io.github.santulator.matcher.HopcroftKarpMatcher.UNMATCHED;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClassCountMatcherTest {
+    private static final int HOUSEHOLD_SIZE = 5;
+
+    private static final int HOUSEHOLD_COUNT = 400;
+
+    private static final int SIZE = HOUSEHOLD_SIZE * HOUSEHOLD_COUNT;
+
+    private final List<Person> people = IntStream.range(0, SIZE)
+        .mapToObj(i -> new Person("Person " + i))
+        .collect(toList());
+
+    @Test
+    public void testHouseholds() {
+        List<Restriction> restrictions = new ArrayList<>();
+
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < SIZE; j++) {
+                if (i / HOUSEHOLD_SIZE == j / HOUSEHOLD_SIZE) {
+                    restrictions.add(new Restriction(people.get(i), people.get(j)));
+                }
+            }
+        }
+        validate(ParticipantIndex.forRestrictions(people, people, restrictions));
+    }
+
+    @Test
+    public void testUnrestricted() {
+        validate(ParticipantIndex.forRestrictions(people, people, List.of()));
+    }
+
+    @Test
+    public void testTooManyClasses() {
+        List<Restriction> restrictions = IntStream.range(0, SIZE)
+            .mapToObj(i -> new Restriction(people.get(i), people.get((i + 1) % SIZE)))
+            .collect(toList());
+
+        validate(ParticipantIndex.forRestrictions(people, people, restrictions));
+    }
+
+    @Test
+    public void testImpossible() {
+        Person giver = people.get(0);
+        ParticipantIndex index = ParticipantIndex.forRestrictions(List.of(giver), List.of(giver), List.of());
+
+        assertArrayEquals(new int[] {UNMATCHED}, new ClassCountMatcher(index, new SplittableRandom(1)).match());
+    }
+
+    private void validate(final ParticipantIndex index) {
+        int[] match = new ClassCountMatcher(index, new SplittableRandom(1)).match();
+
+        assertAll(
+            () -> assertEquals(SIZE, Arrays.stream(match).distinct().filter(r -> r != UNMATCHED).count(), "Receivers"),
+            () -> assertTrue(IntStream.range(0, SIZE).allMatch(g -> index.isAllowed(g, match[g])), "Restrictions respected")
+        );
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import io.github.santulator.model.Person;
+import io.github.santulator.model.Restriction;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ComponentFinderTest {
+    private static final int SITE_SIZE = 70;
+
+    private static final int SITE_COUNT = 3;
+
+    private final List<Person> people = IntStream.range(0, SITE_SIZE * SITE_COUNT)
+        .mapToObj(i -> new Person("Person " + i))
+        .collect(toList());
+
+    @Test
+    public void testConnected() {
+        ParticipantIndex index = ParticipantIndex.forRestrictions(people, people, List.of());
+
+        assertEquals(List.of(index), new ComponentFinder(index).components());
+    }
+
+    @Test
+    public void testSeparateSites() {
+        ParticipantIndex index = ParticipantIndex.forRestrictions(people, people, siteRestrictions());
+        List<ParticipantIndex> components = new ComponentFinder(index).components();
+
+        assertAll(
+            () -> assertEquals(SITE_COUNT, components.size(), "Components"),
+            () -> assertTrue(components.stream().allMatch(c -> c.giverCount() == SITE_SIZE && c.receiverCount() == SITE_SIZE), "Sizes"),
+            () -> assertTrue(components.stream().allMatch(this::isSingleSite), "Sites"),
+            () -> assertTrue(components.stream().allMatch(this::isAllowedWithinSite), "Allowed pairs")
+        );
+    }
+
+    @Test
+    public void testUnreachableReceiver() {
+        Person giver = people.get(0);
+        Person receiver = people.get(1);
+        ParticipantIndex index = ParticipantIndex.forRestrictions(List.of(giver), List.of(receiver), List.of(new Restriction(giver, receiver)));
+        List<ParticipantIndex> components = new ComponentFinder(index).components();
+
+        assertAll(
+            () -> assertEquals(2, components.size(), "Components"),
+            () -> assertEquals(List.of(1, 0), components.stream().map(ParticipantIndex::giverCount).collect(toList()), "Givers"),
+            () -> assertEquals(List.of(0, 1), components.stream().map(ParticipantIndex::receiverCount).collect(toList()), "Receivers")
+        );
+    }
+
+    private List<Restriction> siteRestrictions() {
+        List<Restriction> restrictions = new ArrayList<>();
+
+        for (Person from : people) {
+            for (Person to : people) {
+                if (site(from) != site(to)) {
+                    restrictions.add(new Restriction(from, to));
+                }
+            }
+        }
+
+        return restrictions;
+    }
+
+    private boolean isSingleSite(final ParticipantIndex component) {
+        Set<Integer> sites = IntStream.range(0, component.giverCount())
+            .mapToObj(i -> site(component.giver(i)))
+            .collect(toSet());
+
+        return sites.size() == 1;
+    }
+
+    private boolean isAllowedWithinSite(final ParticipantIndex component) {
+        return IntStream.range(0, component.giverCount())
+            .allMatch(g -> IntStream.range(0, component.receiverCount())
+                .allMatch(r -> component.isAllowed(g, r) == !component.giver(g).equals(component.receiver(r))));
+    }
+
+    private int site(final Person person) {
+        return people.indexOf(person) / SITE_SIZE;
+    }
+}
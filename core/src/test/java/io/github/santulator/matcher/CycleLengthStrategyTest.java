@@ -0,0 +1,157 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import io.github.santulator.model.Person;
+import io.github.santulator.model.Restriction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static io.github.santulator.matcher.HopcroftKarpMatcher.UNMATCHED;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CycleLengthStrategyTest {
+    private static final int SIZE = 6;
+
+    private static final int TRIALS = 50;
+
+    private static final int LARGE_SIZE = 500;
+
+    private static final int SPARSE_SIZE = 100;
+
+    private static final int SPARSE_CHOICES = 4;
+
+    private final List<Person> people = people(SIZE);
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 3, 4, SIZE})
+    public void testMatchesBruteForce(final int minimumLength) {
+        SplittableRandom random = new SplittableRandom(minimumLength);
+
+        for (int trial = 0; trial < TRIALS; trial++) {
+            ParticipantIndex index = ParticipantIndex.forRestrictions(people, people, randomRestrictions(random));
+            int[] match = new CycleLengthStrategy(minimumLength).match(index, random, new SearchMonitor());
+
+            if (isPossible(index, minimumLength, new int[SIZE], new boolean[SIZE], 0)) {
+                assertAll(
+                    () -> assertTrue(IntStream.range(0, SIZE).allMatch(g -> index.isAllowed(g, match[g])), "Allowed"),
+                    () -> assertEquals(SIZE, Arrays.stream(match).distinct().count(), "Receivers"),
+                    () -> assertTrue(shortestCycle(match) >= minimumLength, "Cycle length")
+                );
+            } else {
+                assertTrue(Arrays.stream(match).allMatch(r -> r == UNMATCHED), "Impossible");
+            }
+        }
+    }
+
+    @Test
+    public void testNoPairsInLargeDraw() {
+        List<Person> group = people(LARGE_SIZE);
+        ParticipantIndex index = ParticipantIndex.forRestrictions(group, group, List.of());
+        int[] match = new CycleLengthStrategy(3).match(index, new SplittableRandom(1), new SearchMonitor());
+
+        assertTrue(shortestCycle(match) >= 3);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {3, 30})
+    public void testSparseDraw(final int minimumLength) {
+        SplittableRandom random = new SplittableRandom(minimumLength);
+        ParticipantIndex index = sparseIndex(random);
+        int[] match = new CycleLengthStrategy(minimumLength).match(index, random, new SearchMonitor());
+
+        assertAll(
+            () -> assertTrue(IntStream.range(0, SPARSE_SIZE).allMatch(g -> index.isAllowed(g, match[g])), "Allowed"),
+            () -> assertEquals(SPARSE_SIZE, Arrays.stream(match).distinct().count(), "Receivers"),
+            () -> assertTrue(shortestCycle(match) >= minimumLength, "Cycle length")
+        );
+    }
+
+    /*
+     * Everyone may give to the next person round a hidden cycle, so the draw
+     * is possible, and to a few others at random.
+     */
+    private ParticipantIndex sparseIndex(final SplittableRandom random) {
+        List<Person> group = new ArrayList<>(people(SPARSE_SIZE));
+        List<Restriction> restrictions = new ArrayList<>();
+
+        Collections.shuffle(group, new Random(random.nextLong()));
+        for (int giver = 0; giver < SPARSE_SIZE; giver++) {
+            Set<Integer> allowed = new HashSet<>(Set.of((giver + 1) % SPARSE_SIZE));
+
+            while (allowed.size() < SPARSE_CHOICES) {
+                allowed.add(random.nextInt(SPARSE_SIZE));
+            }
+            for (int receiver = 0; receiver < SPARSE_SIZE; receiver++) {
+                if (!allowed.contains(receiver)) {
+                    restrictions.add(new Restriction(group.get(giver), group.get(receiver)));
+                }
+            }
+        }
+
+        return ParticipantIndex.forRestrictions(people(SPARSE_SIZE), people(SPARSE_SIZE), restrictions);
+    }
+
+    private boolean isPossible(final ParticipantIndex index, final int minimumLength, final int[] match, final boolean[] used, final int giver) {
+        if (giver == SIZE) {
+            return shortestCycle(match) >= minimumLength;
+        }
+        for (int receiver = 0; receiver < SIZE; receiver++) {
+            if (!used[receiver] && index.isAllowed(giver, receiver)) {
+                used[receiver] = true;
+                match[giver] = receiver;
+
+                boolean isFound = isPossible(index, minimumLength, match, used, giver + 1);
+
+                used[receiver] = false;
+                if (isFound) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private int shortestCycle(final int... match) {
+        int shortest = Integer.MAX_VALUE;
+
+        for (int first = 0; first < match.length; first++) {
+            int length = 1;
+
+            for (int person = match[first]; person != first; person = match[person]) {
+                length++;
+            }
+            shortest = Math.min(shortest, length);
+        }
+
+        return shortest;
+    }
+
+    private List<Restriction> randomRestrictions(final SplittableRandom random) {
+        List<Restriction> restrictions = new ArrayList<>();
+
+        for (Person from : people) {
+            for (Person to : people) {
+                if (random.nextInt(3) == 0) {
+                    restrictions.add(new Restriction(from, to));
+                }
+            }
+        }
+
+        return restrictions;
+    }
+
+    private List<Person> people(final int count) {
+        return IntStream.range(0, count)
+            .mapToObj(i -> new Person("Person " + i))
+            .collect(toList());
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import io.github.santulator.model.Person;
+import io.github.santulator.model.Restriction;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static io.github.santulator.matcher.HopcroftKarpMatcher.UNMATCHED;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CycleSearchTest {
+    private static final int SMALL_SIZE = 6;
+
+    private static final int TRIALS = 50;
+
+    private static final int LARGE_SIZE = 300;
+
+    private static final double LARGE_DENSITY = 0.03;
+
+    @Test
+    public void testMatchesBruteForce() {
+        SplittableRandom random = new SplittableRandom(1);
+        List<Person> people = people(SMALL_SIZE);
+
+        for (int trial = 0; trial < TRIALS; trial++) {
+            ParticipantIndex index = ParticipantIndex.forRestrictions(people, people, randomRestrictions(people, random, 0.5));
+            int[] match = new CycleSearch(index, random).search();
+
+            if (hasCycle(index)) {
+                assertSingleCycle(index, match);
+            } else {
+                assertTrue(Arrays.stream(match).allMatch(r -> r == UNMATCHED), "Impossible");
+            }
+        }
+    }
+
+    @Test
+    public void testSparseDraw() {
+        SplittableRandom random = new SplittableRandom(2);
+        List<Person> people = people(LARGE_SIZE);
+        ParticipantIndex index = ParticipantIndex.forRestrictions(people, people, randomRestrictions(people, random, LARGE_DENSITY));
+
+        assertSingleCycle(index, new CycleSearch(index, random).search());
+    }
+
+    @Test
+    public void testSeparateGroups() {
+        List<Person> people = people(SMALL_SIZE);
+        List<Restriction> restrictions = new ArrayList<>();
+
+        for (int i = 0; i < SMALL_SIZE / 2; i++) {
+            for (int j = SMALL_SIZE / 2; j < SMALL_SIZE; j++) {
+                restrictions.add(new Restriction(people.get(i), people.get(j)));
+            }
+        }
+
+        ParticipantIndex index = ParticipantIndex.forRestrictions(people, people, restrictions);
+        int[] match = new CycleSearch(index, new SplittableRandom(1)).search();
+
+        assertTrue(Arrays.stream(match).allMatch(r -> r == UNMATCHED));
+    }
+
+    @Test
+    public void testSinglePerson() {
+        List<Person> people = people(1);
+        ParticipantIndex index = ParticipantIndex.forRestrictions(people, people, List.of());
+
+        assertArrayEquals(new int[] {UNMATCHED}, new CycleSearch(index, new SplittableRandom(1)).search());
+    }
+
+    private void assertSingleCycle(final ParticipantIndex index, final int... match) {
+        int length = 1;
+
+        for (int person = match[0]; person != 0 && length <= match.length; person = match[person]) {
+            length++;
+        }
+
+        int cycleLength = length;
+
+        assertAll(
+            () -> assertTrue(IntStream.range(0, match.length).allMatch(g -> index.isAllowed(g, match[g])), "Allowed"),
+            () -> assertEquals(match.length, cycleLength, "Cycle length")
+        );
+    }
+
+    private boolean hasCycle(final ParticipantIndex index) {
+        int[] order = IntStream.range(1, index.giverCount()).toArray();
+
+        return hasCycle(index, order, 0);
+    }
+
+    private boolean hasCycle(final ParticipantIndex index, final int[] order, final int position) {
+        if (position == order.length) {
+            return index.isAllowed(0, order[0]) && IntStream.range(1, order.length).allMatch(i -> index.isAllowed(order[i - 1], order[i]))
+                && index.isAllowed(order[order.length - 1], 0);
+        }
+        for (int i = position; i < order.length; i++) {
+            swap(order, position, i);
+
+            boolean isFound = hasCycle(index, order, position + 1);
+
+            swap(order, position, i);
+            if (isFound) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void swap(final int[] order, final int first, final int second) {
+        int value = order[first];
+
+        order[first] = order[second];
+        order[second] = value;
+    }
+
+    private List<Restriction> randomRestrictions(final List<Person> people, final SplittableRandom random, final double allowed) {
+        List<Restriction> restrictions = new ArrayList<>();
+
+        for (Person from : people) {
+            for (Person to : people) {
+                if (random.nextDouble() >= allowed) {
+                    restrictions.add(new Restriction(from, to));
+                }
+            }
+        }
+
+        return restrictions;
+    }
+
+    private List<Person> people(final int count) {
+        return IntStream.range(0, count)
+            .mapToObj(i -> new Person("Person " + i))
+            .collect(toList());
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import io.github.santulator.model.Person;
+import io.github.santulator.model.Restriction;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FeasibilityCheckerTest {
+    private static final Person ALBERT = new Person("Albert");
+
+    private static final Person BERYL = new Person("Beryl");
+
+    private static final Person CARLA = new Person("Carla");
+
+    private static final Person DEREK = new Person("Derek");
+
+    private static final List<Person> PEOPLE = List.of(ALBERT, BERYL, CARLA, DEREK);
+
+    @Test
+    public void testFeasible() {
+        assertEquals(Optional.empty(), findViolation(List.of(new Restriction(ALBERT, BERYL))));
+    }
+
+    @Test
+    public void testSingleGiver() {
+        List<Restriction> restrictions = List.of(
+            new Restriction(ALBERT, BERYL), new Restriction(ALBERT, CARLA), new Restriction(ALBERT, DEREK));
+
+        assertEquals(Optional.of(new HallViolation(List.of(ALBERT), List.of())), findViolation(restrictions));
+    }
+
+    @Test
+    public void testGroup() {
+        List<Restriction> restrictions = List.of(
+            new Restriction(ALBERT, BERYL), new Restriction(ALBERT, DEREK),
+            new Restriction(BERYL, ALBERT), new Restriction(BERYL, DEREK));
+
+        assertEquals(Optional.of(new HallViolation(List.of(ALBERT, BERYL), List.of(CARLA))), findViolation(restrictions));
+    }
+
+    @Test
+    public void testSmallestGroup() {
+        List<Restriction> restrictions = List.of(
+            new Restriction(ALBERT, BERYL), new Restriction(ALBERT, CARLA), new Restriction(ALBERT, DEREK),
+            new Restriction(BERYL, ALBERT), new Restriction(BERYL, DEREK),
+            new Restriction(CARLA, ALBERT), new Restriction(CARLA, DEREK));
+        Optional<HallViolation> violation = findViolation(restrictions);
+
+        assertEquals(Optional.of(new HallViolation(List.of(ALBERT), List.of())), violation);
+    }
+
+    private Optional<HallViolation> findViolation(final List<Restriction> restrictions) {
+        ParticipantIndex index = ParticipantIndex.forRestrictions(PEOPLE, PEOPLE, restrictions);
+
+        return new FeasibilityChecker(index).findViolation();
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import io.github.santulator.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static io.github.santulator.matcher.HopcroftKarpMatcher.UNMATCHED;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GreedyRepairMatcherTest {
+    private static final int SIZE = 1000;
+
+    private static final int LARGE_SIZE = 40_000;
+
+    private static final int RESTRICTIONS_PER_PERSON = 3;
+
+    private static final long SEED = 1234;
+
+    @Test
+    public void testFreeDraw() {
+        SparseIndex index = index(people(SIZE), List.of(), List.of());
+        int[] match = new GreedyRepairMatcher(index, new SplittableRandom(SEED)).match();
+
+        assertValid(match, index);
+    }
+
+    @Test
+    public void testRestrictions() {
+        List<Person> people = people(SIZE);
+        SparseIndex index = index(people, restrictions(people), List.of());
+        int[] match = new GreedyRepairMatcher(index, new SplittableRandom(SEED)).match();
+
+        assertValid(match, index);
+    }
+
+    @Test
+    public void testRules() {
+        List<Person> people = people(SIZE);
+        Map<Person, String> teams = new HashMap<>();
+
+        for (int i = 0; i < SIZE; i++) {
+            teams.put(people.get(i), "Team " + i % 2);
+        }
+
+        SparseIndex index = index(people, List.of(), List.of(new AttributeRule("Team", teams)));
+        int[] match = new GreedyRepairMatcher(index, new SplittableRandom(SEED)).match();
+
+        assertValid(match, index);
+    }
+
+    @Test
+    public void testParallel() {
+        List<Person> people = people(LARGE_SIZE);
+        SparseIndex index = index(people, restrictions(people), List.of());
+        int[] match = new GreedyRepairMatcher(index, new SplittableRandom(SEED), ForkJoinPool.commonPool(), new SearchMonitor()).match();
+
+        assertValid(match, index);
+    }
+
+    @Test
+    public void testImpossible() {
+        List<Person> people = people(SIZE);
+        List<Restriction> restrictions = people.stream()
+            .map(p -> new Restriction(people.get(0), p))
+            .collect(toList());
+        SparseIndex index = index(people, restrictions, List.of());
+        int[] match = new GreedyRepairMatcher(index, new SplittableRandom(SEED)).match();
+
+        assertTrue(Arrays.stream(match).allMatch(r -> r == UNMATCHED));
+    }
+
+    @Test
+    public void testUnequalSides() {
+        List<Person> people = people(SIZE);
+        DrawRequirements requirements = new DrawRequirements(people, List.of());
+        SparseIndex index = SparseIndex.forRequirements(people, people.subList(1, SIZE), requirements);
+        int[] match = new GreedyRepairMatcher(index, new SplittableRandom(SEED)).match();
+
+        assertTrue(Arrays.stream(match).allMatch(r -> r == UNMATCHED));
+    }
+
+    private List<Person> people(final int size) {
+        return IntStream.range(0, size)
+            .mapToObj(i -> new Person("Person " + i))
+            .collect(toList());
+    }
+
+    private List<Restriction> restrictions(final List<Person> people) {
+        Random random = new Random(SEED);
+        List<Restriction> restrictions = new ArrayList<>();
+
+        for (Person person : people) {
+            for (int i = 0; i < RESTRICTIONS_PER_PERSON; i++) {
+                restrictions.add(new Restriction(person, people.get(random.nextInt(people.size()))));
+            }
+        }
+
+        return restrictions;
+    }
+
+    private SparseIndex index(final List<Person> people, final List<Restriction> restrictions, final List<RestrictionRule> rules) {
+        return SparseIndex.forRequirements(people, people, new DrawRequirements(people, restrictions, rules));
+    }
+
+    private void assertValid(final int[] match, final SparseIndex index) {
+        assertAll(
+            () -> assertEquals(index.receiverCount(), Arrays.stream(match).distinct().filter(r -> r != UNMATCHED).count(), "Receivers"),
+            () -> assertTrue(IntStream.range(0, match.length).allMatch(g -> match[g] != UNMATCHED && index.isAllowed(g, match[g])), "Allowed")
+        );
+    }
+}
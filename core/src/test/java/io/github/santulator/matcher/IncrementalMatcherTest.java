@@ -0,0 +1,104 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import io.github.santulator.model.GiverAssignment;
+import io.github.santulator.model.ParticipantRole;
+import io.github.santulator.model.Person;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static io.github.santulator.matcher.HopcroftKarpMatcher.UNMATCHED;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IncrementalMatcherTest {
+    private static final int SIZE = 12;
+
+    private static final int CHANGES = 400;
+
+    private static final long SEED = 1234;
+
+    private static final Person ALBERT = new Person("Albert");
+
+    private static final Person BERYL = new Person("Beryl");
+
+    private final IncrementalMatcher target = new IncrementalMatcher();
+
+    @Test
+    public void testEmpty() {
+        assertAll(
+            () -> assertEquals(0, target.matchedCount(), "Matched"),
+            () -> assertTrue(target.isComplete(), "Complete")
+        );
+    }
+
+    @Test
+    public void testExchange() {
+        target.addGiver(ALBERT);
+        target.addReceiver(ALBERT);
+        target.addGiver(BERYL);
+        target.addReceiver(BERYL);
+
+        assertTrue(target.isComplete());
+    }
+
+    @Test
+    public void testExclusion() {
+        target.update(List.of(ALBERT, BERYL), List.of(new GiverAssignment(ALBERT, BERYL)));
+
+        assertAll(
+            () -> assertEquals(1, target.matchedCount(), "Matched"),
+            () -> assertFalse(target.isComplete(), "Complete")
+        );
+        target.include(new GiverAssignment(ALBERT, BERYL));
+        assertTrue(target.isComplete(), "Included");
+    }
+
+    @Test
+    public void testRandomChanges() {
+        Random random = new Random(SEED);
+        List<Person> pool = IntStream.range(0, SIZE)
+            .mapToObj(i -> new Person("Person " + i, ParticipantRole.values()[i % ParticipantRole.values().length]))
+            .collect(toList());
+        Set<Person> participants = new HashSet<>();
+        Set<GiverAssignment> exclusions = new HashSet<>();
+
+        for (int change = 0; change < CHANGES; change++) {
+            Person from = pool.get(random.nextInt(SIZE));
+            Person to = pool.get(random.nextInt(SIZE));
+
+            if (random.nextBoolean()) {
+                toggle(participants, from);
+            } else {
+                toggle(exclusions, new GiverAssignment(from, to));
+            }
+            target.update(participants, exclusions);
+            assertEquals(maximumMatch(participants, exclusions), target.matchedCount(), "Change " + change);
+        }
+    }
+
+    private <T> void toggle(final Set<T> set, final T item) {
+        if (!set.remove(item)) {
+            set.add(item);
+        }
+    }
+
+    private long maximumMatch(final Set<Person> participants, final Set<GiverAssignment> exclusions) {
+        List<Person> givers = participants.stream()
+            .filter(p -> p.getRole().isGiver())
+            .collect(toList());
+        List<Person> receivers = participants.stream()
+            .filter(p -> p.getRole().isReceiver())
+            .collect(toList());
+        ParticipantIndex index = ParticipantIndex.forAssignments(givers, receivers, exclusions);
+
+        return Arrays.stream(new HopcroftKarpMatcher(index).match())
+            .filter(r -> r != UNMATCHED)
+            .count();
+    }
+}
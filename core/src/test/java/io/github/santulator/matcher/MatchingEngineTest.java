@@ -4,8 +4,20 @@
 
 package io.github.santulator.matcher;
 
+import io.github.santulator.model.GiverAssignment;
 import io.github.santulator.model.Person;
-import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class MatchingEngineTest {
     private static final Person A = new Person("A");
@@ -14,34 +26,50 @@ public class MatchingEngineTest {
 
     private static final Person C = new Person("C");
 
-    private final MatchingEngineTestTool tool = new MatchingEngineTestTool();
+    private static final int LARGE_DRAW_SIZE = 2_000;
+
+    private static final int HOUSEHOLD_SIZE = 4;
+
+    private static final int HOUSEHOLD_COUNT = 25;
+
+    @ParameterizedTest
+    @EnumSource(MatchingMode.class)
+    public void testEmpty(final MatchingMode mode) {
+        MatchingEngineTestTool tool = new MatchingEngineTestTool(mode);
 
-    @Test
-    public void testEmpty() {
         tool.setParticipants();
         tool.setRestrictions(new PairSetTool());
         tool.addExpectation(new PairSetTool());
         tool.performValidation();
     }
 
-    @Test
-    public void testMinimal() {
+    @ParameterizedTest
+    @EnumSource(MatchingMode.class)
+    public void testMinimal(final MatchingMode mode) {
+        MatchingEngineTestTool tool = new MatchingEngineTestTool(mode);
+
         tool.setParticipants(A, B);
         tool.setRestrictions(new PairSetTool());
         tool.addExpectation(new PairSetTool().add(A, B).add(B, A));
         tool.performValidation();
     }
 
-    @Test
-    public void testMinimalWithRestriction() {
+    @ParameterizedTest
+    @EnumSource(MatchingMode.class)
+    public void testMinimalWithRestriction(final MatchingMode mode) {
+        MatchingEngineTestTool tool = new MatchingEngineTestTool(mode);
+
         tool.setParticipants(A, B);
         tool.setRestrictions(new PairSetTool().add(A, B));
         tool.setEmptyExpectations();
         tool.performValidation();
     }
 
-    @Test
-    public void testThreeFreePeople() {
+    @ParameterizedTest
+    @EnumSource(MatchingMode.class)
+    public void testThreeFreePeople(final MatchingMode mode) {
+        MatchingEngineTestTool tool = new MatchingEngineTestTool(mode);
+
         tool.setParticipants(A, B, C);
         tool.setRestrictions(new PairSetTool());
         tool.addExpectation(new PairSetTool().add(A, B).add(B, C).add(C, A));
@@ -49,11 +77,95 @@ public class MatchingEngineTest {
         tool.performValidation();
     }
 
-    @Test
-    public void testThreeRestrictedPeople() {
+    @ParameterizedTest
+    @EnumSource(MatchingMode.class)
+    public void testThreeRestrictedPeople(final MatchingMode mode) {
+        MatchingEngineTestTool tool = new MatchingEngineTestTool(mode);
+
         tool.setParticipants(A, B, C);
         tool.setRestrictions(new PairSetTool().add(A, C));
         tool.addExpectation(new PairSetTool().add(A, B).add(B, C).add(C, A));
         tool.performValidation();
     }
+
+    @ParameterizedTest
+    @EnumSource(MatchingMode.class)
+    public void testLargeDraw(final MatchingMode mode) {
+        List<Person> people = people(LARGE_DRAW_SIZE);
+        Set<GiverAssignment> restrictions = neighbourRestrictions(people);
+        Optional<MatchExtender> match = new MatchingEngine(mode).findMatch(people, people, restrictions);
+
+        assertTrue(match.isPresent(), "Match found");
+
+        Set<GiverAssignment> assignments = match.get().assignmentStream()
+            .collect(toSet());
+
+        assertAll(
+            () -> assertEquals(LARGE_DRAW_SIZE, assignments.size(), "Assignments"),
+            () -> assertEquals(Set.copyOf(people), receivers(assignments), "Receivers"),
+            () -> assertTrue(assignments.stream().noneMatch(restrictions::contains), "Restrictions respected")
+        );
+    }
+
+    @ParameterizedTest
+    @EnumSource(MatchingMode.class)
+    public void testLargeImpossibleDraw(final MatchingMode mode) {
+        List<Person> people = people(LARGE_DRAW_SIZE);
+        Set<GiverAssignment> restrictions = new HashSet<>(neighbourRestrictions(people));
+
+        people.subList(1, LARGE_DRAW_SIZE).forEach(p -> restrictions.add(new GiverAssignment(people.get(0), p)));
+
+        assertFalse(new MatchingEngine(mode).findMatch(people, people, restrictions).isPresent());
+    }
+
+    @ParameterizedTest
+    @EnumSource(MatchingMode.class)
+    public void testHouseholdDraw(final MatchingMode mode) {
+        List<Person> people = people(HOUSEHOLD_SIZE * HOUSEHOLD_COUNT);
+        Set<GiverAssignment> restrictions = householdRestrictions(people);
+        Optional<MatchExtender> match = new MatchingEngine(mode).findMatch(people, people, restrictions);
+
+        assertTrue(match.isPresent(), "Match found");
+
+        Set<GiverAssignment> assignments = match.get().assignmentStream()
+            .collect(toSet());
+
+        assertAll(
+            () -> assertEquals(people.size(), assignments.size(), "Assignments"),
+            () -> assertEquals(Set.copyOf(people), receivers(assignments), "Receivers"),
+            () -> assertTrue(assignments.stream().noneMatch(restrictions::contains), "Restrictions respected")
+        );
+    }
+
+    private List<Person> people(final int count) {
+        return IntStream.range(0, count)
+            .mapToObj(i -> new Person("Person " + i))
+            .collect(toList());
+    }
+
+    private Set<GiverAssignment> neighbourRestrictions(final List<Person> people) {
+        return IntStream.range(0, people.size())
+            .mapToObj(i -> new GiverAssignment(people.get(i), people.get((i + 1) % people.size())))
+            .collect(toSet());
+    }
+
+    private Set<GiverAssignment> householdRestrictions(final List<Person> people) {
+        Set<GiverAssignment> restrictions = new HashSet<>();
+
+        for (int from = 0; from < people.size(); from++) {
+            for (int to = 0; to < people.size(); to++) {
+                if (from / HOUSEHOLD_SIZE == to / HOUSEHOLD_SIZE) {
+                    restrictions.add(new GiverAssignment(people.get(from), people.get(to)));
+                }
+            }
+        }
+
+        return restrictions;
+    }
+
+    private Set<Person> receivers(final Set<GiverAssignment> assignments) {
+        return assignments.stream()
+            .map(GiverAssignment::getTo)
+            .collect(toSet());
+    }
 }
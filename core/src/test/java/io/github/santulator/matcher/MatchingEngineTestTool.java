@@ -13,12 +13,22 @@ import static java.util.stream.Collectors.toSet;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class MatchingEngineTestTool {
+    private static final long SEED = 20_181_224L;
+
+    private static final int RANDOM_REPEATS = 10;
+
+    private final MatchingMode mode;
+
     private List<Person> participants;
 
     private Set<GiverAssignment> restrictions;
 
     private final Set<Set<GiverAssignment>> expectations = new HashSet<>();
 
+    public MatchingEngineTestTool(final MatchingMode mode) {
+        this.mode = mode;
+    }
+
     public void setParticipants(final Person... participants) {
         this.participants = List.of(participants);
     }
@@ -36,9 +46,11 @@ public class MatchingEngineTestTool {
     }
 
     public void performValidation() {
-        MatchingEngine engine = new MatchingEngine();
+        MatchingEngine engine = new MatchingEngine(mode, new SplittableRandom(SEED));
+        int repeats = mode == MatchingMode.MAXIMUM_MATCHING ? 1 : RANDOM_REPEATS;
         List<List<Person>> permutations = generatePermutations();
         Set<Set<GiverAssignment>> matches = permutations.stream()
+            .flatMap(list -> Collections.nCopies(repeats, list).stream())
             .map(list -> engine.findMatch(participants, list, restrictions))
             .map(this::matchSet)
             .collect(toSet());
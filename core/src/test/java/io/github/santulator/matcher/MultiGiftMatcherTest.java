@@ -0,0 +1,85 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import io.github.santulator.model.Person;
+import io.github.santulator.model.Restriction;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static io.github.santulator.matcher.HopcroftKarpMatcher.UNMATCHED;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MultiGiftMatcherTest {
+    private static final int SIZE = 40;
+
+    private static final int GIFTS = 3;
+
+    private final List<Person> people = IntStream.range(0, SIZE)
+        .mapToObj(i -> new Person("Person " + i))
+        .collect(toList());
+
+    @Test
+    public void testFreeDraw() {
+        ParticipantIndex index = ParticipantIndex.forRestrictions(people, people, List.of());
+        int[] match = new MultiGiftMatcher(index, GIFTS).match();
+
+        assertValid(match, index);
+    }
+
+    @Test
+    public void testRestrictions() {
+        List<Restriction> restrictions = new ArrayList<>();
+
+        for (int giver = 0; giver < SIZE; giver++) {
+            for (int offset = GIFTS + 2; offset < SIZE; offset++) {
+                restrictions.add(new Restriction(people.get(giver), people.get((giver + offset) % SIZE)));
+            }
+        }
+
+        ParticipantIndex index = ParticipantIndex.forRestrictions(people, people, restrictions);
+        int[] match = new MultiGiftMatcher(index, GIFTS).match();
+
+        assertValid(match, index);
+    }
+
+    @Test
+    public void testTooFewReceivers() {
+        List<Restriction> restrictions = IntStream.range(GIFTS, SIZE)
+            .mapToObj(i -> new Restriction(people.get(0), people.get(i)))
+            .collect(toList());
+        ParticipantIndex index = ParticipantIndex.forRestrictions(people, people, restrictions);
+        int[] match = new MultiGiftMatcher(index, GIFTS).match();
+
+        assertTrue(Arrays.stream(match).allMatch(r -> r == UNMATCHED));
+    }
+
+    @Test
+    public void testMoreGiftsThanPeople() {
+        ParticipantIndex index = ParticipantIndex.forRestrictions(people, people, List.of());
+        int[] match = new MultiGiftMatcher(index, SIZE).match();
+
+        assertTrue(Arrays.stream(match).allMatch(r -> r == UNMATCHED));
+    }
+
+    private void assertValid(final int[] match, final ParticipantIndex index) {
+        int[] received = new int[SIZE];
+        Set<Integer> pairs = new HashSet<>();
+
+        Arrays.stream(match).forEach(r -> received[r]++);
+        for (int i = 0; i < match.length; i++) {
+            pairs.add(i / GIFTS * SIZE + match[i]);
+        }
+        assertAll(
+            () -> assertEquals(SIZE * GIFTS, match.length, "Gifts"),
+            () -> assertTrue(IntStream.range(0, match.length).allMatch(i -> index.isAllowed(i / GIFTS, match[i])), "Allowed"),
+            () -> assertTrue(Arrays.stream(received).allMatch(c -> c == GIFTS), "Received " + Arrays.toString(received)),
+            () -> assertEquals(match.length, pairs.size(), "Distinct pairs")
+        );
+    }
+}
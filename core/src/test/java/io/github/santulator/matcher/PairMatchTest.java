@@ -0,0 +1,51 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import io.github.santulator.model.GiverAssignment;
+import io.github.santulator.model.Person;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PairMatchTest {
+    private static final int CHAIN_LENGTH = 200_000;
+
+    private final List<Person> people = IntStream.range(0, CHAIN_LENGTH + 1)
+        .mapToObj(i -> new Person("Person " + i))
+        .collect(toList());
+
+    private final MatchExtender chain = chain();
+
+    @Test
+    public void testDeepChainExtension() {
+        GiverAssignment free = new GiverAssignment(people.get(0), people.get(CHAIN_LENGTH));
+        GiverAssignment used = new GiverAssignment(people.get(0), people.get(1));
+
+        assertAll(
+            () -> assertTrue(chain.isPossibleExtension(free), "Free receiver"),
+            () -> assertFalse(chain.isPossibleExtension(used), "Used receiver")
+        );
+    }
+
+    @Test
+    public void testDeepChainIteration() {
+        assertEquals(CHAIN_LENGTH, chain.assignmentStream().count());
+    }
+
+    private MatchExtender chain() {
+        MatchExtender result = pair -> true;
+
+        for (int i = 0; i < CHAIN_LENGTH; i++) {
+            result = new PairMatch(result, new GiverAssignment(people.get(i + 1), people.get(i)));
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import io.github.santulator.model.Person;
+import io.github.santulator.model.Restriction;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParticipantClassesTest {
+    private static final int HOUSEHOLD_SIZE = 4;
+
+    private static final int HOUSEHOLD_COUNT = 50;
+
+    private final List<Person> people = IntStream.range(0, HOUSEHOLD_SIZE * HOUSEHOLD_COUNT)
+        .mapToObj(i -> new Person("Person " + i))
+        .collect(toList());
+
+    @Test
+    public void testUnrestricted() {
+        ParticipantClasses target = new ParticipantClasses(ParticipantIndex.forRestrictions(people, people, List.of()));
+
+        assertAll(
+            () -> assertEquals(1, target.giverClassCount(), "Giver classes"),
+            () -> assertEquals(1, target.receiverClassCount(), "Receiver classes"),
+            () -> assertTrue(target.isAllowed(0, 0), "Allowed")
+        );
+    }
+
+    @Test
+    public void testHouseholds() {
+        ParticipantClasses target = new ParticipantClasses(ParticipantIndex.forRestrictions(people, people, householdRestrictions()));
+
+        assertAll(
+            () -> assertEquals(HOUSEHOLD_COUNT, target.giverClassCount(), "Giver classes"),
+            () -> assertEquals(HOUSEHOLD_COUNT, target.receiverClassCount(), "Receiver classes"),
+            () -> assertEquals(HOUSEHOLD_SIZE, target.giverClassSize(target.giverClass(0)), "Household size"),
+            () -> assertFalse(target.isAllowed(target.giverClass(0), target.receiverClass(1)), "Own household"),
+            () -> assertTrue(target.isAllowed(target.giverClass(0), target.receiverClass(HOUSEHOLD_SIZE)), "Other household")
+        );
+    }
+
+    @Test
+    public void testLoneGiver() {
+        Person giver = people.get(0);
+        Person other = people.get(1);
+        ParticipantIndex index = ParticipantIndex.forRestrictions(List.of(giver), List.of(giver, other), List.of(new Restriction(giver, other)));
+        ParticipantClasses target = new ParticipantClasses(index);
+
+        assertAll(
+            () -> assertEquals(1, target.receiverClassCount(), "Receiver classes"),
+            () -> assertFalse(target.isAllowed(0, 0), "Allowed")
+        );
+    }
+
+    private List<Restriction> householdRestrictions() {
+        List<Restriction> restrictions = new ArrayList<>();
+
+        for (Person from : people) {
+            for (Person to : people) {
+                if (household(from) == household(to) && !from.equals(to)) {
+                    restrictions.add(new Restriction(from, to));
+                }
+            }
+        }
+
+        return restrictions;
+    }
+
+    private int household(final Person person) {
+        return people.indexOf(person) / HOUSEHOLD_SIZE;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import io.github.santulator.core.SantaException;
+import io.github.santulator.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static io.github.santulator.matcher.BitSetTool.NOT_FOUND;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParticipantIndexTest {
+    private static final int SIZE = 130;
+
+    private static final int LAST = SIZE - 1;
+
+    private final List<Person> people = IntStream.range(0, SIZE)
+        .mapToObj(i -> new Person("Person " + i))
+        .collect(toList());
+
+    private final Person first = people.get(0);
+
+    private final Person last = people.get(LAST);
+
+    private final ParticipantIndex target = ParticipantIndex.forRestrictions(people, people, List.of(new Restriction(first, last)));
+
+    @Test
+    public void testIds() {
+        assertAll(
+            () -> assertEquals(SIZE, target.giverCount(), "Givers"),
+            () -> assertEquals(SIZE, target.receiverCount(), "Receivers"),
+            () -> assertEquals(LAST, target.receiverId(last), "Receiver ID"),
+            () -> assertEquals(last, target.giver(LAST), "Giver"),
+            () -> assertEquals(NOT_FOUND, target.giverId(new Person("Unknown")), "Unknown giver")
+        );
+    }
+
+    @Test
+    public void testSelfExcluded() {
+        assertFalse(target.isAllowed(LAST, LAST));
+    }
+
+    @Test
+    public void testRestriction() {
+        assertAll(
+            () -> assertFalse(target.isAllowed(0, LAST), "Restricted"),
+            () -> assertTrue(target.isAllowed(LAST, 0), "Reverse allowed"),
+            () -> assertFalse(target.isAllowed(new GiverAssignment(first, last)), "Restricted assignment"),
+            () -> assertEquals(SIZE - 2, target.allowedCount(0), "Allowed count")
+        );
+    }
+
+    @Test
+    public void testNextAllowed() {
+        long[] used = target.newReceiverSet();
+
+        BitSetTool.set(used, 0, 1);
+        assertAll(
+            () -> assertEquals(1, target.nextAllowed(0, 0), "Next allowed"),
+            () -> assertEquals(NOT_FOUND, target.nextAllowed(0, LAST), "None after restriction"),
+            () -> assertEquals(2, target.nextAllowedNotIn(0, used, 0), "Next unused"),
+            () -> assertEquals(1, target.nextAllowedIn(0, used, 0), "Next used"),
+            () -> assertEquals(NOT_FOUND, target.nextAllowedIn(0, used, 2), "No more used")
+        );
+    }
+
+    @Test
+    public void testRules() {
+        Person second = people.get(1);
+        AttributeRule household = new AttributeRule("Household", Map.of(first, "Home", second, "Home", last, "Away"));
+        HistoryRule history = new HistoryRule(Set.of(new GiverAssignment(last, first)));
+        DrawRequirements requirements = new DrawRequirements(people, List.of(), List.of(household, history));
+        ParticipantIndex index = ParticipantIndex.forRequirements(people, people, requirements);
+
+        assertAll(
+            () -> assertFalse(index.isAllowed(0, 1), "Same household"),
+            () -> assertFalse(index.isAllowed(1, 0), "Same household reversed"),
+            () -> assertTrue(index.isAllowed(0, LAST), "Different household"),
+            () -> assertFalse(index.isAllowed(LAST, 0), "Given before"),
+            () -> assertEquals(SIZE - 2, index.allowedCount(0), "Allowed count"),
+            () -> assertEquals(SIZE - 1, index.allowedCount(2), "No household")
+        );
+    }
+
+    @Test
+    public void testLargeGroupRule() {
+        Map<Person, String> teams = IntStream.range(0, SIZE)
+            .boxed()
+            .collect(toMap(people::get, i -> i % 2 == 0 ? "Even" : "Odd"));
+        DrawRequirements requirements = new DrawRequirements(people, List.of(), List.of(new AttributeRule("Team", teams)));
+        ParticipantIndex index = ParticipantIndex.forRequirements(people, people, requirements);
+
+        assertAll(
+            () -> assertFalse(index.isAllowed(0, 2), "Same team"),
+            () -> assertTrue(index.isAllowed(0, 1), "Other team"),
+            () -> assertEquals(SIZE / 2, index.allowedCount(0), "Allowed count")
+        );
+    }
+
+    @Test
+    public void testTooLarge() {
+        List<Person> large = IntStream.rangeClosed(0, ParticipantIndex.MAX_SIZE)
+            .mapToObj(i -> new Person("Person " + i))
+            .collect(toList());
+
+        assertThrows(SantaException.class, () -> ParticipantIndex.forRestrictions(large, large, List.of()));
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import io.github.santulator.model.Person;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchMonitorTest {
+    private static final int SIZE = 10;
+
+    private final List<SearchProgress> reports = new ArrayList<>();
+
+    @Test
+    public void testProgress() {
+        SearchMonitor target = new SearchMonitor(reports::add);
+
+        target.checkpoint(100, 4, SIZE);
+        target.checkpoint(50, 2, SIZE);
+
+        assertAll(
+            () -> assertEquals(List.of(new SearchProgress(100, 4, SIZE), new SearchProgress(150, 4, SIZE)), reports, "Reports"),
+            () -> assertEquals(150, target.getNodes(), "Nodes")
+        );
+    }
+
+    @Test
+    public void testPartsProgress() {
+        SearchMonitor target = new SearchMonitor(reports::add);
+        SearchMonitor first = target.part(3);
+        SearchMonitor second = target.part(2);
+
+        first.checkpoint(10, 3, 3);
+        second.checkpoint(5, 1, 2);
+        first.checkpoint(0, 2, 3);
+        second.finish(2);
+
+        assertAll(
+            () -> assertEquals(List.of(
+                new SearchProgress(10, 3, 5), new SearchProgress(15, 4, 5), new SearchProgress(15, 4, 5), new SearchProgress(15, 5, 5)), reports, "Reports"),
+            () -> assertEquals(15, target.getNodes(), "Nodes")
+        );
+    }
+
+    @Test
+    public void testPartCancelled() {
+        SearchMonitor target = new SearchMonitor(reports::add);
+        SearchMonitor part = target.part(SIZE);
+
+        target.cancel();
+
+        assertAll(
+            () -> assertTrue(part.isCancelled(), "Cancelled"),
+            () -> assertThrows(SearchCancelledException.class, () -> part.checkpoint(1, 1, SIZE))
+        );
+    }
+
+    @Test
+    public void testCancel() {
+        SearchMonitor target = new SearchMonitor(reports::add);
+
+        target.cancel();
+
+        assertAll(
+            () -> assertTrue(target.isCancelled(), "Cancelled"),
+            () -> assertThrows(SearchCancelledException.class, () -> target.checkpoint(1, 1, SIZE)),
+            () -> assertTrue(reports.isEmpty(), "Reports")
+        );
+    }
+
+    @Test
+    public void testTimeLimit() {
+        SearchMonitor target = new SearchMonitor(Duration.ZERO, reports::add);
+
+        assertThrows(SearchCancelledException.class, () -> target.checkpoint(1, 1, SIZE));
+    }
+
+    @Test
+    public void testTimeLimitNotReached() {
+        SearchMonitor target = new SearchMonitor(Duration.ofHours(1), reports::add);
+
+        target.checkpoint(1, 1, SIZE);
+
+        assertEquals(List.of(new SearchProgress(1, 1, SIZE)), reports);
+    }
+
+    @Test
+    public void testInterrupted() {
+        SearchMonitor target = new SearchMonitor();
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(SearchCancelledException.class, () -> target.checkpoint(1, 1, SIZE));
+        } finally {
+            assertTrue(Thread.interrupted(), "Interrupt preserved");
+        }
+    }
+
+    @Test
+    public void testSearchCancelled() {
+        List<Person> people = IntStream.range(0, SIZE)
+            .mapToObj(i -> new Person("Person " + i))
+            .collect(toList());
+        ParticipantIndex index = ParticipantIndex.forRestrictions(people, people, List.of());
+        SplittableRandom random = new SplittableRandom();
+        SearchMonitor target = new SearchMonitor();
+
+        target.cancel();
+
+        assertAll(
+            () -> assertThrows(SearchCancelledException.class, () -> new HopcroftKarpMatcher(index, target).match(), "Maximum matching"),
+            () -> assertThrows(SearchCancelledException.class, () -> new MostConstrainedSearch(index, random, target).search(), "Most constrained"),
+            () -> assertThrows(SearchCancelledException.class, () -> new UniformSampler(random, target).sample(index), "Uniform sample"),
+            () -> assertThrows(SearchCancelledException.class, () -> new ClassCountMatcher(index, random, target).match(), "Classes")
+        );
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import io.github.santulator.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SparseIndexTest {
+    private static final Person PERSON_A = new Person("A");
+
+    private static final Person PERSON_B = new Person("B");
+
+    private static final Person PERSON_C = new Person("C");
+
+    private static final Person RECEIVER = new Person("Receiver", ParticipantRole.RECEIVER);
+
+    private static final List<Person> GIVERS = List.of(PERSON_A, PERSON_B, PERSON_C);
+
+    private static final List<Person> RECEIVERS = List.of(PERSON_A, PERSON_B, PERSON_C, RECEIVER);
+
+    @Test
+    public void testRestrictions() {
+        DrawRequirements requirements = new DrawRequirements(RECEIVERS, List.of(new Restriction(PERSON_A, PERSON_C), new Restriction(PERSON_A, RECEIVER)));
+        SparseIndex index = SparseIndex.forRequirements(GIVERS, RECEIVERS, requirements);
+
+        assertAll(
+            () -> assertEquals(3, index.giverCount(), "Givers"),
+            () -> assertEquals(4, index.receiverCount(), "Receivers"),
+            () -> assertFalse(index.isAllowed(0, 0), "Self"),
+            () -> assertTrue(index.isAllowed(0, 1), "Allowed"),
+            () -> assertFalse(index.isAllowed(0, 2), "Restricted"),
+            () -> assertFalse(index.isAllowed(0, 3), "Restricted receiver"),
+            () -> assertTrue(index.isAllowed(2, 0), "Reverse"),
+            () -> assertEquals(new GiverAssignment(PERSON_B, RECEIVER), index.assignment(1, 3), "Assignment")
+        );
+    }
+
+    @Test
+    public void testRules() {
+        RestrictionRule rule = new AttributeRule("Team", Map.of(PERSON_A, "Red", PERSON_B, "Red", PERSON_C, "Blue", RECEIVER, "Blue"));
+        DrawRequirements requirements = new DrawRequirements(RECEIVERS, List.of(), List.of(rule));
+        SparseIndex index = SparseIndex.forRequirements(GIVERS, RECEIVERS, requirements);
+
+        assertAll(
+            () -> assertFalse(index.isAllowed(0, 1), "Same team"),
+            () -> assertTrue(index.isAllowed(0, 2), "Other team"),
+            () -> assertFalse(index.isAllowed(2, 3), "Same team receiver")
+        );
+    }
+
+    @Test
+    public void testAssignments() {
+        SparseIndex index = SparseIndex.forAssignments(GIVERS, RECEIVERS, List.of(new GiverAssignment(PERSON_B, PERSON_A)));
+
+        assertAll(
+            () -> assertFalse(index.isAllowed(1, 0), "Restricted"),
+            () -> assertTrue(index.isAllowed(0, 1), "Reverse"),
+            () -> assertEquals(2, index.giverId(PERSON_C), "Giver id"),
+            () -> assertEquals(3, index.receiverId(RECEIVER), "Receiver id")
+        );
+    }
+}
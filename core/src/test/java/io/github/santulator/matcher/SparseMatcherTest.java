@@ -0,0 +1,144 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import io.github.santulator.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static io.github.santulator.matcher.HopcroftKarpMatcher.UNMATCHED;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SparseMatcherTest {
+    private static final int SIZE = 1000;
+
+    private static final int RESTRICTIONS_PER_PERSON = 3;
+
+    private static final long SEED = 1234;
+
+    @Test
+    public void testFreeDraw() {
+        SparseIndex index = index(people(SIZE), List.of(), List.of());
+
+        assertValid(new SparseMatcher(index).match(), index);
+    }
+
+    @Test
+    public void testRestrictions() {
+        List<Person> people = people(SIZE);
+        SparseIndex index = index(people, restrictions(people), List.of());
+
+        assertValid(new SparseMatcher(index).match(), index);
+    }
+
+    @Test
+    public void testEvenTeams() {
+        List<Person> people = people(SIZE);
+        SparseIndex index = index(people, restrictions(people), List.of(teamRule(people, SIZE / 2)));
+
+        assertValid(new SparseMatcher(index).match(), index);
+    }
+
+    @Test
+    public void testUnevenTeams() {
+        List<Person> people = people(SIZE);
+        SparseIndex index = index(people, List.of(), List.of(teamRule(people, SIZE / 2 + 1)));
+
+        int[] match = new SparseMatcher(index).match();
+
+        assertUnmatched(match);
+    }
+
+    @Test
+    public void testCompletePartial() {
+        List<Person> people = people(SIZE);
+        SparseIndex index = index(people, restrictions(people), List.of());
+        int[] full = new SparseMatcher(index).match();
+        int[] partial = new int[SIZE];
+
+        Arrays.fill(partial, UNMATCHED);
+        partial[0] = full[0];
+        partial[SIZE - 1] = full[SIZE - 1];
+
+        int[] match = new SparseMatcher(index).complete(partial);
+
+        assertValid(match, index);
+        assertAll(
+            () -> assertEquals(full[0], match[0], "First"),
+            () -> assertEquals(full[SIZE - 1], match[SIZE - 1], "Last")
+        );
+    }
+
+    @Test
+    public void testImpossible() {
+        List<Person> people = people(SIZE);
+        List<Restriction> restrictions = people.stream()
+            .map(p -> new Restriction(people.get(0), p))
+            .collect(toList());
+        SparseIndex index = index(people, restrictions, List.of());
+
+        int[] match = new SparseMatcher(index).match();
+
+        assertUnmatched(match);
+    }
+
+    @Test
+    public void testUnequalSides() {
+        List<Person> people = people(SIZE);
+        DrawRequirements requirements = new DrawRequirements(people, List.of());
+        SparseIndex index = SparseIndex.forRequirements(people, people.subList(1, SIZE), requirements);
+
+        int[] match = new SparseMatcher(index).match();
+
+        assertUnmatched(match);
+    }
+
+    private List<Person> people(final int size) {
+        return IntStream.range(0, size)
+            .mapToObj(i -> new Person("Person " + i))
+            .collect(toList());
+    }
+
+    private List<Restriction> restrictions(final List<Person> people) {
+        Random random = new Random(SEED);
+        List<Restriction> restrictions = new ArrayList<>();
+
+        for (Person person : people) {
+            for (int i = 0; i < RESTRICTIONS_PER_PERSON; i++) {
+                restrictions.add(new Restriction(person, people.get(random.nextInt(people.size()))));
+            }
+        }
+
+        return restrictions;
+    }
+
+    private RestrictionRule teamRule(final List<Person> people, final int firstTeamSize) {
+        Map<Person, String> teams = new HashMap<>();
+
+        for (int i = 0; i < people.size(); i++) {
+            teams.put(people.get(i), i < firstTeamSize ? "Red" : "Blue");
+        }
+
+        return new AttributeRule("Team", teams);
+    }
+
+    private SparseIndex index(final List<Person> people, final List<Restriction> restrictions, final List<RestrictionRule> rules) {
+        return SparseIndex.forRequirements(people, people, new DrawRequirements(people, restrictions, rules));
+    }
+
+    private void assertUnmatched(final int... match) {
+        assertTrue(Arrays.stream(match).allMatch(r -> r == UNMATCHED));
+    }
+
+    private void assertValid(final int[] match, final SparseIndex index) {
+        assertAll(
+            () -> assertEquals(index.receiverCount(), Arrays.stream(match).distinct().filter(r -> r != UNMATCHED).count(), "Receivers"),
+            () -> assertTrue(IntStream.range(0, match.length).allMatch(g -> match[g] != UNMATCHED && index.isAllowed(g, match[g])), "Allowed")
+        );
+    }
+}
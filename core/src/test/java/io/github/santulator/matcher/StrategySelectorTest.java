@@ -0,0 +1,148 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import io.github.santulator.core.SantaException;
+import io.github.santulator.model.Person;
+import io.github.santulator.model.Restriction;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StrategySelectorTest {
+    private static final int LARGE_SIZE = 100;
+
+    private static final int BLOCK_SIZE = 4;
+
+    private final StrategySelector target = new StrategySelector();
+
+    @Test
+    public void testSmallDraw() {
+        List<Person> people = people(UniformSampler.EXACT_LIMIT);
+
+        assertEquals(MatchingMode.UNIFORM_SAMPLE, target.select(index(people, List.of())));
+    }
+
+    @Test
+    public void testLargeDenseDraw() {
+        List<Person> people = people(LARGE_SIZE);
+
+        assertEquals(MatchingMode.UNIFORM_SAMPLE, target.select(index(people, List.of())));
+    }
+
+    @Test
+    public void testLargeDenseDrawUnlikelyToDeal() {
+        assertEquals(MatchingMode.EQUIVALENCE_CLASSES, target.select(index(people(LARGE_SIZE), blockRestrictions(LARGE_SIZE))));
+    }
+
+    @Test
+    public void testLargeSparseDraw() {
+        List<Person> people = people(LARGE_SIZE);
+        List<Restriction> restrictions = new ArrayList<>();
+
+        for (int giver = 0; giver < LARGE_SIZE; giver++) {
+            for (int receiver = 0; receiver < LARGE_SIZE; receiver++) {
+                if (giver % 2 != receiver % 2) {
+                    restrictions.add(new Restriction(people.get(giver), people.get(receiver)));
+                }
+            }
+        }
+
+        assertEquals(MatchingMode.EQUIVALENCE_CLASSES, target.select(index(people, restrictions)));
+    }
+
+    @Test
+    public void testSmallDrawUnlikelyToDeal() {
+        int size = UniformSampler.EXACT_LIMIT;
+
+        assertEquals(MatchingMode.UNIFORM_SAMPLE, target.select(index(people(size), blockRestrictions(size))));
+    }
+
+    @Test
+    public void testDrawAboveExactLimitUnlikelyToDeal() {
+        int size = UniformSampler.EXACT_LIMIT + 1;
+
+        assertEquals(MatchingMode.EQUIVALENCE_CLASSES, target.select(index(people(size), blockRestrictions(size))));
+    }
+
+    @Test
+    public void testVeryLargeDenseDraw() {
+        List<Person> people = people(StrategySelector.LARGE_DRAW + 1);
+
+        assertEquals(MatchingMode.EQUIVALENCE_CLASSES, target.select(index(people, List.of())));
+    }
+
+    @Test
+    public void testUnclassedDraw() {
+        int size = StrategySelector.SEARCH_LIMIT;
+
+        assertEquals(MatchingMode.MOST_CONSTRAINED_FIRST, target.select(index(people(size), unclassedRestrictions(size))));
+    }
+
+    @Test
+    public void testUnclassedDrawAboveSearchLimit() {
+        int size = StrategySelector.SEARCH_LIMIT + 1;
+
+        assertEquals(MatchingMode.EQUIVALENCE_CLASSES, target.select(index(people(size), unclassedRestrictions(size))));
+    }
+
+    @Test
+    public void testForName() {
+        assertAll(
+            () -> assertTrue(StrategySelector.forName("Automatic") instanceof StrategySelector, "Automatic"),
+            () -> assertEquals(MatchingMode.MOST_CONSTRAINED_FIRST, StrategySelector.forName("most-constrained-first"), "Mode"),
+            () -> assertThrows(SantaException.class, () -> StrategySelector.forName("unknown"), "Unknown")
+        );
+    }
+
+    /*
+     * A block of givers who may each give to only one person, which a random
+     * deal is very unlikely to satisfy.
+     */
+    private List<Restriction> blockRestrictions(final int size) {
+        List<Person> people = people(size);
+        List<Restriction> restrictions = new ArrayList<>();
+
+        for (int giver = 0; giver < BLOCK_SIZE; giver++) {
+            for (int receiver = 0; receiver < size; receiver++) {
+                if (receiver != (giver + 1) % BLOCK_SIZE) {
+                    restrictions.add(new Restriction(people.get(giver), people.get(receiver)));
+                }
+            }
+        }
+
+        return restrictions;
+    }
+
+    /*
+     * Everyone outside the block is also kept from their neighbour, so that
+     * no two givers are interchangeable.
+     */
+    private List<Restriction> unclassedRestrictions(final int size) {
+        List<Person> people = people(size);
+        List<Restriction> restrictions = blockRestrictions(size);
+
+        for (int giver = BLOCK_SIZE; giver < size; giver++) {
+            restrictions.add(new Restriction(people.get(giver), people.get((giver + 1) % size)));
+        }
+
+        return restrictions;
+    }
+
+    private ParticipantIndex index(final List<Person> people, final List<Restriction> restrictions) {
+        return ParticipantIndex.forRestrictions(people, people, restrictions);
+    }
+
+    private List<Person> people(final int count) {
+        return IntStream.range(0, count)
+            .mapToObj(i -> new Person("Person " + i))
+            .collect(toList());
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.matcher;
+
+import io.github.santulator.model.Person;
+import io.github.santulator.model.Restriction;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static io.github.santulator.matcher.HopcroftKarpMatcher.UNMATCHED;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UniformSamplerTest {
+    private static final long SEED = 1_224L;
+
+    private static final int SMALL_SIZE = 4;
+
+    private static final int SMALL_DERANGEMENTS = 9;
+
+    private static final int SAMPLES_PER_OUTCOME = 1_000;
+
+    private static final int LARGE_SIZE = UniformSampler.EXACT_LIMIT + 10;
+
+    private static final int SAMPLES_PER_RECEIVER = 100;
+
+    private static final int[][] BLOCK_ROWS = {{1, 2}, {2, 0}, {3}, {0, 1}};
+
+    private static final int BLOCK_SAMPLES_PER_OUTCOME = 200;
+
+    private static final int RESTRICTED_SIZE = 100;
+
+    private static final int RESTRICTED_CHOICES = 4;
+
+    @Test
+    public void testSmallDrawIsUniform() {
+        ParticipantIndex index = index(SMALL_SIZE);
+        UniformSampler target = new UniformSampler(new SplittableRandom(SEED));
+        Map<List<Integer>, Integer> counts = new HashMap<>();
+
+        for (int i = 0; i < SMALL_DERANGEMENTS * SAMPLES_PER_OUTCOME; i++) {
+            counts.merge(boxed(target.sample(index)), 1, Integer::sum);
+        }
+
+        assertAll(
+            () -> assertEquals(SMALL_DERANGEMENTS, counts.size(), "Outcomes"),
+            () -> assertTrue(counts.values().stream().allMatch(c -> isNear(c, SAMPLES_PER_OUTCOME)), "Counts " + counts.values())
+        );
+    }
+
+    @Test
+    public void testLargeDrawIsUniformForFirstGiver() {
+        ParticipantIndex index = index(LARGE_SIZE);
+        UniformSampler target = new UniformSampler(new SplittableRandom(SEED));
+        int[] counts = new int[LARGE_SIZE];
+
+        for (int i = 0; i < (LARGE_SIZE - 1) * SAMPLES_PER_RECEIVER; i++) {
+            counts[target.sample(index)[0]]++;
+        }
+
+        assertAll(
+            () -> assertEquals(0, counts[0], "Self assignment"),
+            () -> assertTrue(IntStream.range(1, LARGE_SIZE).allMatch(r -> isNear(counts[r], SAMPLES_PER_RECEIVER)), "Counts " + Arrays.toString(counts))
+        );
+    }
+
+    @Test
+    public void testLargeDrawWithClosedBlockIsUniform() {
+        ParticipantIndex index = blockIndex(UniformSampler.EXACT_LIMIT + 1);
+        UniformSampler target = new UniformSampler(new SplittableRandom(SEED));
+        Map<Integer, Integer> counts = new HashMap<>();
+
+        for (int i = 0; i < 2 * BLOCK_SAMPLES_PER_OUTCOME; i++) {
+            counts.merge(target.sample(index)[0], 1, Integer::sum);
+        }
+
+        assertAll(
+            () -> assertEquals(Set.of(1, 2), counts.keySet(), "Outcomes"),
+            () -> assertTrue(counts.values().stream().allMatch(c -> Math.abs(c - BLOCK_SAMPLES_PER_OUTCOME) < BLOCK_SAMPLES_PER_OUTCOME / 4), "Counts " + counts)
+        );
+    }
+
+    @Test
+    public void testRestrictionsRespected() {
+        List<Person> people = people(LARGE_SIZE);
+        List<Restriction> restrictions = IntStream.range(0, LARGE_SIZE)
+            .mapToObj(i -> new Restriction(people.get(i), people.get((i + 1) % LARGE_SIZE)))
+            .collect(toList());
+        ParticipantIndex index = ParticipantIndex.forRestrictions(people, people, restrictions);
+        int[] match = new UniformSampler(new SplittableRandom(SEED)).sample(index);
+
+        assertAll(
+            () -> assertEquals(LARGE_SIZE, Arrays.stream(match).distinct().count(), "Receivers"),
+            () -> assertTrue(IntStream.range(0, LARGE_SIZE).allMatch(g -> index.isAllowed(g, match[g])), "Restrictions respected")
+        );
+    }
+
+    @Test
+    public void testReproducible() {
+        ParticipantIndex small = index(SMALL_SIZE);
+        ParticipantIndex large = index(LARGE_SIZE);
+
+        assertAll(
+            () -> assertArrayEquals(sample(small), sample(small), "Small draw"),
+            () -> assertArrayEquals(sample(large), sample(large), "Large draw")
+        );
+    }
+
+    @Test
+    public void testImpossible() {
+        assertAll(
+            () -> assertArrayEquals(new int[] {UNMATCHED}, sample(index(1)), "Small draw"),
+            () -> assertTrue(Arrays.stream(sample(impossibleIndex(LARGE_SIZE))).allMatch(r -> r == UNMATCHED), "Large draw")
+        );
+    }
+
+    @Test
+    public void testTooRestrictedToSample() {
+        ParticipantIndex index = ringIndex(RESTRICTED_SIZE, RESTRICTED_CHOICES);
+
+        assertThrows(SampleLimitException.class, () -> sample(index));
+    }
+
+    private int[] sample(final ParticipantIndex index) {
+        return new UniformSampler(new SplittableRandom(SEED)).sample(index);
+    }
+
+    private boolean isNear(final int actual, final int expected) {
+        return Math.abs(actual - expected) < expected / 2;
+    }
+
+    private List<Integer> boxed(final int... match) {
+        return Arrays.stream(match)
+            .boxed()
+            .collect(toList());
+    }
+
+    private ParticipantIndex index(final int size) {
+        List<Person> people = people(size);
+
+        return ParticipantIndex.forRestrictions(people, people, List.of());
+    }
+
+    /*
+     * The first people give only within their block, in one of two ways,
+     * and nobody else gives to them.
+     */
+    private ParticipantIndex blockIndex(final int size) {
+        List<Person> people = people(size);
+        List<Restriction> restrictions = new ArrayList<>();
+
+        for (int giver = 0; giver < size; giver++) {
+            for (int receiver = 0; receiver < size; receiver++) {
+                if (isOutsideBlock(giver, receiver)) {
+                    restrictions.add(new Restriction(people.get(giver), people.get(receiver)));
+                }
+            }
+        }
+
+        return ParticipantIndex.forRestrictions(people, people, restrictions);
+    }
+
+    private boolean isOutsideBlock(final int giver, final int receiver) {
+        if (giver < BLOCK_ROWS.length) {
+            return Arrays.stream(BLOCK_ROWS[giver]).noneMatch(r -> r == receiver);
+        } else {
+            return receiver < BLOCK_ROWS.length;
+        }
+    }
+
+    /*
+     * Each person may only give to the next few people round the ring.
+     */
+    private ParticipantIndex ringIndex(final int size, final int choices) {
+        List<Person> people = people(size);
+        List<Restriction> restrictions = new ArrayList<>();
+
+        for (int giver = 0; giver < size; giver++) {
+            for (int offset = choices + 1; offset <= size; offset++) {
+                restrictions.add(new Restriction(people.get(giver), people.get((giver + offset) % size)));
+            }
+        }
+
+        return ParticipantIndex.forRestrictions(people, people, restrictions);
+    }
+
+    private ParticipantIndex impossibleIndex(final int size) {
+        List<Person> people = people(size);
+        List<Restriction> restrictions = people.stream()
+            .map(p -> new Restriction(people.get(0), p))
+            .collect(toList());
+
+        return ParticipantIndex.forRestrictions(people, people, restrictions);
+    }
+
+    private List<Person> people(final int count) {
+        return IntStream.range(0, count)
+            .mapToObj(i -> new Person("Person " + i))
+            .collect(toList());
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.model;
+
+import io.github.santulator.test.core.AbstractBeanTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static io.github.santulator.model.ModelTestConstants.EDITH;
+import static io.github.santulator.model.ModelTestConstants.FRED;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AttributeRuleTest extends AbstractBeanTest<AttributeRule> {
+    private static final Person GEORGE = new Person("George");
+
+    @Override
+    protected AttributeRule buildPrimary() {
+        return new AttributeRule("Household", Map.of(EDITH, "Home", FRED, "Home"));
+    }
+
+    @Override
+    protected AttributeRule buildSecondary() {
+        return new AttributeRule("Household", Map.of(EDITH, "Home", FRED, "Away"));
+    }
+
+    @Test
+    public void testExcluded() {
+        AttributeRule rule = buildPrimary();
+
+        assertAll(
+            () -> assertTrue(rule.isExcluded(EDITH, FRED), "Same value"),
+            () -> assertFalse(rule.isExcluded(EDITH, GEORGE), "No value"),
+            () -> assertFalse(buildSecondary().isExcluded(EDITH, FRED), "Different value"),
+            () -> assertEquals(Set.of(EDITH, FRED), Set.copyOf(rule.excludedReceivers(FRED)), "Excluded receivers"),
+            () -> assertTrue(rule.excludedReceivers(GEORGE).isEmpty(), "Unrestricted")
+        );
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.model;
+
+import io.github.santulator.test.core.AbstractBeanTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.github.santulator.model.ModelTestConstants.EDITH;
+import static io.github.santulator.model.ModelTestConstants.FRED;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HistoryRuleTest extends AbstractBeanTest<HistoryRule> {
+    @Override
+    protected HistoryRule buildPrimary() {
+        return new HistoryRule(List.of(new GiverAssignment(EDITH, FRED)));
+    }
+
+    @Override
+    protected HistoryRule buildSecondary() {
+        return new HistoryRule(List.of(new GiverAssignment(FRED, EDITH)));
+    }
+
+    @Test
+    public void testExcluded() {
+        HistoryRule rule = buildPrimary();
+
+        assertAll(
+            () -> assertTrue(rule.isExcluded(EDITH, FRED), "Given before"),
+            () -> assertFalse(rule.isExcluded(FRED, EDITH), "Not given before"),
+            () -> assertTrue(rule.excludedReceivers(FRED).isEmpty(), "No history")
+        );
+    }
+}
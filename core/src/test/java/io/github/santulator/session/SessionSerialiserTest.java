@@ -1,6 +1,9 @@
 package io.github.santulator.session;
 
 import io.github.santulator.core.SantaException;
+import io.github.santulator.engine.DrawService;
+import io.github.santulator.engine.DrawServiceImpl;
+import io.github.santulator.model.DrawSelection;
 import io.github.santulator.model.SessionState;
 import io.github.santulator.test.core.TestFileManager;
 import io.github.santulator.test.session.TestSessionStateTool;
@@ -16,6 +19,8 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class SessionSerialiserTest {
+    private static final long DRAW_SEED = 20_181_225L;
+
     private TestFileManager files;
 
     private Path file;
@@ -26,6 +31,10 @@ public class SessionSerialiserTest {
 
     private final SessionSerialiser target = new SessionSerialiserImpl();
 
+    private final SessionStateTranslator translator = new SessionStateTranslatorImpl();
+
+    private final DrawService drawService = new DrawServiceImpl();
+
     @BeforeEach
     public void setUp() throws Exception {
         files = new TestFileManager(getClass());
@@ -70,6 +79,27 @@ public class SessionSerialiserTest {
         assertNotEquals(state2, read, "Different state");
     }
 
+    @Test
+    public void testDrawSeed() {
+        state1.setDrawSeed(Long.MIN_VALUE);
+
+        SessionState read = writeAndReadBackState1();
+
+        assertEquals(Long.MIN_VALUE, read.getDrawSeed(), "Draw seed");
+    }
+
+    @Test
+    public void testDrawReplayedFromSession() {
+        DrawSelection original = drawService.draw(translator.toRequirements(state1), DRAW_SEED);
+
+        state1.setDrawSeed(DRAW_SEED);
+
+        SessionState read = writeAndReadBackState1();
+        DrawSelection replayed = drawService.draw(translator.toRequirements(read), read.getDrawSeed());
+
+        assertEquals(original, replayed);
+    }
+
     private SessionState writeAndReadBackState1() {
         target.write(file, state1);
 
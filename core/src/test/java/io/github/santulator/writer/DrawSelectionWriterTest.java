@@ -58,6 +58,21 @@ public class DrawSelectionWriterTest {
         assertEquals(2, callCount.get());
     }
 
+    @Test
+    public void testWriteMultipleGifts() throws Exception {
+        DrawSelection selection = new DrawSelection(List.of(
+            WriterTestTool.assignment(PERSON_ALBERT, "Carla"),
+            WriterTestTool.assignment(PERSON_ALBERT, "David"),
+            WriterTestTool.assignment(PERSON_BERYL, "David")
+        ));
+        AtomicInteger callCount = new AtomicInteger();
+
+        target.writeDrawSelection(selection, dir, PASSWORD, callCount::incrementAndGet);
+        validateFile(PERSON_ALBERT);
+        validateFile(PERSON_BERYL);
+        assertEquals(2, callCount.get());
+    }
+
     private DrawSelection selection() {
         List<GiverAssignment> givers = List.of(
             WriterTestTool.assignment(PERSON_ALBERT, "Carla"),
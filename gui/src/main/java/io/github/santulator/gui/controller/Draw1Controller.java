@@ -9,6 +9,9 @@ import io.github.santulator.gui.model.DrawModel;
 import io.github.santulator.gui.model.MainModel;
 import io.github.santulator.gui.services.Progressometer;
 import io.github.santulator.gui.services.SessionModelTool;
+import io.github.santulator.matcher.SearchCancelledException;
+import io.github.santulator.matcher.SearchMonitor;
+import io.github.santulator.matcher.SearchProgress;
 import io.github.santulator.model.DrawRequirements;
 import io.github.santulator.model.DrawSelection;
 import io.github.santulator.model.SessionState;
@@ -21,6 +24,8 @@ import javafx.stage.Window;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.util.SplittableRandom;
 import java.util.function.Supplier;
 import javax.inject.Inject;
 
@@ -30,12 +35,22 @@ import static io.github.santulator.gui.i18n.I18nKey.DRAW1_SUCCESS;
 public class Draw1Controller implements DrawController {
     private static final Logger LOG = LoggerFactory.getLogger(Draw1Controller.class);
 
+    private static final int PROGRESS_STEPS = 20;
+
+    private static final Duration DRAW_TIME_LIMIT = Duration.ofMinutes(5);
+
     @FXML
     private Label labelDraw1Name;
 
     @FXML
     private Button buttonDraw1RunDraw;
 
+    @FXML
+    private Button buttonDraw1RepeatDraw;
+
+    @FXML
+    private Button buttonDraw1Cancel;
+
     @FXML
     private Label labelDraw1Result;
 
@@ -56,6 +71,8 @@ public class Draw1Controller implements DrawController {
 
     private final MainModel mainModel;
 
+    private final SplittableRandom seeds = new SplittableRandom();
+
     private DrawModel drawModel;
 
     @Inject
@@ -75,39 +92,78 @@ public class Draw1Controller implements DrawController {
         this.drawModel = drawModel;
         labelDraw1Name.textProperty().bind(drawModel.drawNameProperty());
         labelDraw1Result.textProperty().bind(drawModel.completedDrawDescriptionProperty());
-        buttonDraw1RunDraw.setOnAction(e -> runDraw());
+        buttonDraw1RunDraw.setOnAction(e -> runDraw(seeds.nextLong()));
         buttonDraw1RunDraw.disableProperty().bind(drawModel.drawStartedProperty());
+        buttonDraw1RepeatDraw.setOnAction(e -> runDraw(mainModel.getSessionModel().getDrawSeed()));
+        buttonDraw1RepeatDraw.disableProperty().bind(drawModel.drawStartedProperty().or(mainModel.getSessionModel().drawSeedProperty().isNull()));
+        buttonDraw1Cancel.setOnAction(e -> drawModel.cancelDraw());
+        buttonDraw1Cancel.disableProperty().bind(drawModel.drawRunningProperty().not());
         barDraw1Progress.progressProperty().bind(progressometer.progressProperty());
         drawModel.drawPerformedProperty().bind(progressometer.completeProperty());
     }
 
-    private void runDraw() {
-        drawModel.setDrawStarted(true);
-        progressometer.start(1);
-        guiTaskHandler.executeInBackground(this::runDrawAsynchronous);
+    /*
+     * Repeating the draw saved with the session uses its seed, so the same
+     * participants give the same selection as before.
+     */
+    private void runDraw(final long seed) {
+        SearchMonitor monitor = new SearchMonitor(DRAW_TIME_LIMIT, this::reportProgress);
+
+        drawModel.startDraw(monitor);
+        progressometer.start(PROGRESS_STEPS);
+        guiTaskHandler.executeInBackground(() -> runDrawAsynchronous(seed, monitor));
     }
 
-    private void runDrawAsynchronous() {
+    private void runDrawAsynchronous(final long seed, final SearchMonitor monitor) {
         try {
             SessionState state = sessionModelTool.buildFileModel(mainModel.getSessionModel());
             DrawRequirements requirements = translator.toRequirements(state);
-            DrawSelection selection = drawService.draw(requirements);
+            DrawSelection selection = drawService.draw(requirements, seed, monitor);
 
-            guiTaskHandler.executeOnGuiThread(() -> reportDrawSuccess(selection));
+            guiTaskHandler.executeOnGuiThread(() -> reportDrawSuccess(seed, selection));
+        } catch (final SearchCancelledException e) {
+            LOG.debug("Draw cancelled", e);
+            guiTaskHandler.executeOnGuiThread(() -> reportDrawCancelled(e));
         } catch (final SantaException e) {
             LOG.debug("Draw failed", e);
             guiTaskHandler.executeOnGuiThread(() -> reportDrawFailure(e));
-        } finally {
-            progressometer.completeTask();
         }
     }
 
-    private void reportDrawSuccess(final DrawSelection selection) {
+    private void reportProgress(final SearchProgress progress) {
+        if (progress.getSize() > 0) {
+            progressometer.advanceTo(PROGRESS_STEPS * progress.getDepth() / progress.getSize());
+        }
+    }
+
+    /*
+     * The seed is kept with the session, so that the same participants can
+     * be drawn again exactly if the results are lost.
+     */
+    private void reportDrawSuccess(final long seed, final DrawSelection selection) {
+        drawModel.finishDraw();
+        progressometer.advanceTo(PROGRESS_STEPS);
+        mainModel.getSessionModel().setDrawSeed(seed);
         drawModel.setDrawSelection(selection);
         applyDescription(DRAW1_SUCCESS, selection.getGivers().size());
     }
 
+    /*
+     * A draw that ran out of time has failed, but one the user cancelled is
+     * put back as though it had never started.
+     */
+    private void reportDrawCancelled(final SearchCancelledException e) {
+        if (drawModel.isDrawCancelled()) {
+            progressometer.reset();
+            drawModel.resetDraw();
+        } else {
+            reportDrawFailure(e);
+        }
+    }
+
     private void reportDrawFailure(final SantaException e) {
+        drawModel.finishDraw();
+        progressometer.advanceTo(PROGRESS_STEPS);
         drawModel.setDrawFailed(true);
         applyDescription(DRAW1_FAILURE, e.getMessage());
     }
@@ -99,7 +99,7 @@ public class Draw2Controller implements DrawController {
             DrawSelection selection = drawModel.getDrawSelection();
             String password = drawModel.getPassword();
 
-            progressometer.start(selection.getGivers().size());
+            progressometer.start(selection.getReceiversByGiver().size());
             writer.writeDrawSelection(selection, directory, password, progressometer::completeTask);
             Platform.runLater(() -> markResultsSaved(directory));
             statusManager.markSuccess();
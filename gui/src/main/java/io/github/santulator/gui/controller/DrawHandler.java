@@ -17,7 +17,7 @@ import javafx.scene.Node;
 import org.controlsfx.dialog.Wizard;
 import org.controlsfx.dialog.WizardPane;
 
-import java.util.Optional;
+import java.util.List;
 import javax.inject.Inject;
 import javax.inject.Provider;
 
@@ -57,15 +57,15 @@ public class DrawHandler {
     }
 
     private boolean validate() {
-        Optional<ValidationError> validationResult = validationService.validate(mainModel.getSessionModel());
+        List<ValidationError> errors = validationService.validate(mainModel.getSessionModel());
 
-        validationResult.ifPresent(error -> {
-            ValidationErrorDialogue dialogue = new ValidationErrorDialogue(error, i18nManager);
+        if (!errors.isEmpty()) {
+            ValidationErrorDialogue dialogue = new ValidationErrorDialogue(errors, i18nManager);
 
             dialogue.showDialogue();
-        });
+        }
 
-        return validationResult.isEmpty();
+        return errors.isEmpty();
     }
 
     private void runDrawWizard() {
@@ -80,6 +80,7 @@ public class DrawHandler {
 
         wizard.setFlow(new Wizard.LinearFlow(wizardPane1, wizardPane2, wizardPane3));
         wizard.showAndWait();
+        drawModel.cancelDraw();
     }
 
     private WizardPane buildWizardPane(final ViewFxml viewFxml, final DrawModel drawModel, final DrawWizardPage page) {
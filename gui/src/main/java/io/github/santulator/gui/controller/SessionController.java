@@ -1,8 +1,10 @@
 package io.github.santulator.gui.controller;
 
 import io.github.santulator.gui.i18n.I18nManager;
+import io.github.santulator.gui.model.MainModel;
 import io.github.santulator.gui.model.ParticipantModel;
 import io.github.santulator.gui.model.SessionModel;
+import io.github.santulator.gui.services.FeasibilityTracker;
 import io.github.santulator.gui.services.ParticipantTableTool;
 import io.github.santulator.gui.services.UnsavedChangesTool;
 import io.github.santulator.gui.view.NoSelectionModel;
@@ -10,6 +12,7 @@ import io.github.santulator.gui.view.ParticipantCell;
 import io.github.santulator.gui.view.ParticipantSelectionTool;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
+import javafx.scene.control.Label;
 import javafx.scene.control.ListView;
 import javafx.scene.control.TextField;
 
@@ -18,6 +21,10 @@ import javax.inject.Inject;
 public class SessionController {
     private final I18nManager i18nManager;
 
+    private final FeasibilityTracker feasibilityTracker;
+
+    private final MainModel mainModel;
+
     @FXML
     private TextField fieldDrawName;
 
@@ -27,9 +34,14 @@ public class SessionController {
     @FXML
     private ListView<ParticipantModel> listParticipants;
 
+    @FXML
+    private Label labelDrawPossible;
+
     @Inject
-    public SessionController(final I18nManager i18nManager) {
+    public SessionController(final I18nManager i18nManager, final FeasibilityTracker feasibilityTracker, final MainModel mainModel) {
         this.i18nManager = i18nManager;
+        this.feasibilityTracker = feasibilityTracker;
+        this.mainModel = mainModel;
     }
 
     public void initialise(final SessionModel model) {
@@ -52,5 +64,7 @@ public class SessionController {
         listParticipants.setCellFactory(p -> new ParticipantCell(i18nManager, tableTool::onActionButton, tableTool::onEnterPress, selectionTool));
 
         UnsavedChangesTool.createBindings(model);
+        feasibilityTracker.track(model);
+        labelDrawPossible.textProperty().bind(mainModel.drawPossibleDescriptionProperty());
     }
 }
@@ -10,26 +10,37 @@ import io.github.santulator.gui.validator.ValidationError;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 
+import java.util.List;
+
 import static io.github.santulator.gui.view.CssTool.applyCss;
+import static java.util.stream.Collectors.joining;
 
 public class ValidationErrorDialogue {
     private static final String ALERT_ID = "validationError";
 
-    private final ValidationError error;
+    private final List<ValidationError> errors;
 
     private final I18nManager i18nManager;
 
-    public ValidationErrorDialogue(final ValidationError error, final I18nManager i18nManager) {
-        this.error = error;
+    public ValidationErrorDialogue(final List<ValidationError> errors, final I18nManager i18nManager) {
+        this.errors = List.copyOf(errors);
         this.i18nManager = i18nManager;
     }
 
+    /*
+     * The first problem is the header and any others are listed below it.
+     */
     public void showDialogue() {
         Alert alert = new Alert(AlertType.ERROR);
-        String message = error.getMessage(i18nManager);
+        String message = errors.get(0).getMessage(i18nManager);
 
         alert.setTitle(i18nManager.text(I18nKey.ERROR_DRAW));
         alert.setHeaderText(message);
+        if (errors.size() > 1) {
+            alert.setContentText(errors.subList(1, errors.size()).stream()
+                .map(e -> e.getMessage(i18nManager))
+                .collect(joining("\n")));
+        }
         alert.getDialogPane().setId(ALERT_ID);
         applyCss(alert);
 
@@ -9,6 +9,8 @@ public enum I18nKey {
     SESSION_ROLE_GIVER("session.role.giver"),
     SESSION_ROLE_RECEIVER("session.role.receiver"),
     SESSION_ROLE_BOTH("session.role.both"),
+    SESSION_DRAW_POSSIBLE("session.draw.possible"),
+    SESSION_DRAW_IMPOSSIBLE("session.draw.impossible"),
 
     DRAW_TITLE_BAR("draw.title.bar"),
 
@@ -61,7 +63,8 @@ public enum I18nKey {
     VALIDATION_EXCLUSION_UNKNOWN("validation.exclusion.unknown"),
     VALIDATION_EXCLUSION_REPEAT("validation.exclusion.repeat"),
     VALIDATION_EXCLUSION_SELF("validation.exclusion.self"),
-    VALIDATION_DRAW_IMPOSSIBLE("validation.draw.impossible");
+    VALIDATION_DRAW_IMPOSSIBLE("validation.draw.impossible"),
+    VALIDATION_DRAW_UNMATCHED("validation.draw.unmatched");
 
     private final String key;
 
@@ -18,6 +18,8 @@ import io.github.santulator.gui.status.StatusManager;
 import io.github.santulator.gui.status.StatusManagerImpl;
 import io.github.santulator.gui.validator.ValidationService;
 import io.github.santulator.gui.validator.ValidationServiceImpl;
+import io.github.santulator.matcher.MatchingStrategy;
+import io.github.santulator.matcher.StrategySelector;
 import io.github.santulator.session.*;
 
 public class CoreGuiModule extends AbstractModule {
@@ -29,6 +31,7 @@ public class CoreGuiModule extends AbstractModule {
         bind(SessionSerialiser.class).to(SessionSerialiserImpl.class);
         bind(SessionImporter.class).to(SessionImporterImpl.class);
         bind(SessionStateTranslator.class).to(SessionStateTranslatorImpl.class);
+        bind(MatchingStrategy.class).to(StrategySelector.class);
         bind(DrawService.class).to(DrawServiceImpl.class);
         bind(ProgressSequencer.class).to(ProgressSequencerImpl.class);
         bind(I18nManager.class).to(I18nManagerImpl.class);
@@ -7,6 +7,7 @@ import io.github.santulator.gui.controller.MainController;
 import io.github.santulator.gui.controller.TitleHandler;
 import io.github.santulator.gui.i18n.I18nManager;
 import io.github.santulator.gui.model.MainModel;
+import io.github.santulator.gui.services.MainModelTool;
 import io.github.santulator.gui.services.PlacementManager;
 import io.github.santulator.gui.view.ViewFxml;
 import javafx.fxml.FXMLLoader;
@@ -82,6 +83,7 @@ public class SantulatorGuiImpl implements SantulatorGui {
         guiFileHandler.initialise(stage);
         exitRequestHandler.initialise(stage);
         titleHandler.initialise();
+        MainModelTool.createBindings(model, i18nManager);
 
         stage.titleProperty().bind(model.titleProperty());
     }
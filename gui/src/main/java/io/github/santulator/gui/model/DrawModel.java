@@ -1,5 +1,6 @@
 package io.github.santulator.gui.model;
 
+import io.github.santulator.matcher.SearchMonitor;
 import io.github.santulator.model.DrawSelection;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleObjectProperty;
@@ -14,8 +15,14 @@ public class DrawModel {
 
     private final SimpleBooleanProperty drawStarted = new SimpleBooleanProperty();
 
+    private final SimpleBooleanProperty drawRunning = new SimpleBooleanProperty();
+
     private final SimpleObjectProperty<DrawSelection> drawSelection = new SimpleObjectProperty<>();
 
+    private final SimpleObjectProperty<SearchMonitor> drawMonitor = new SimpleObjectProperty<>();
+
+    private final SimpleBooleanProperty drawCancelled = new SimpleBooleanProperty();
+
     private final SimpleStringProperty drawResultDescription = new SimpleStringProperty();
 
     private final SimpleStringProperty completedDrawDescription = new SimpleStringProperty();
@@ -55,8 +62,36 @@ public class DrawModel {
         return drawStarted;
     }
 
-    public void setDrawStarted(final boolean drawStarted) {
-        this.drawStarted.set(drawStarted);
+    public boolean isDrawStarted() {
+        return drawStarted.get();
+    }
+
+    public SimpleBooleanProperty drawRunningProperty() {
+        return drawRunning;
+    }
+
+    public boolean isDrawRunning() {
+        return drawRunning.get();
+    }
+
+    public void startDraw(final SearchMonitor monitor) {
+        drawMonitor.set(monitor);
+        drawCancelled.set(false);
+        drawStarted.set(true);
+        drawRunning.set(true);
+    }
+
+    public void finishDraw() {
+        drawRunning.set(false);
+    }
+
+    /*
+     * A cancelled draw leaves nothing behind, so it can be started again.
+     */
+    public void resetDraw() {
+        drawMonitor.set(null);
+        drawRunning.set(false);
+        drawStarted.set(false);
     }
 
     public void setDrawSelection(final DrawSelection drawSelection) {
@@ -67,6 +102,19 @@ public class DrawModel {
         return drawSelection.get();
     }
 
+    public void cancelDraw() {
+        SearchMonitor monitor = drawMonitor.get();
+
+        drawCancelled.set(true);
+        if (monitor != null) {
+            monitor.cancel();
+        }
+    }
+
+    public boolean isDrawCancelled() {
+        return drawCancelled.get();
+    }
+
     public SimpleBooleanProperty drawPerformedProperty() {
         return drawPerformed;
     }
@@ -23,6 +23,10 @@ public class MainModel {
 
     private final SimpleStringProperty drawName = new SimpleStringProperty();
 
+    private final SimpleBooleanProperty drawPossible = new SimpleBooleanProperty(false);
+
+    private final SimpleStringProperty drawPossibleDescription = new SimpleStringProperty();
+
     public void initialise(final SessionModel sessionModel) {
         setupSessionModel(sessionModel);
     }
@@ -92,4 +96,24 @@ public class MainModel {
     public String getDrawName() {
         return drawName.get();
     }
+
+    public SimpleBooleanProperty drawPossibleProperty() {
+        return drawPossible;
+    }
+
+    public boolean isDrawPossible() {
+        return drawPossible.get();
+    }
+
+    public void setDrawPossible(final boolean drawPossible) {
+        this.drawPossible.set(drawPossible);
+    }
+
+    public SimpleStringProperty drawPossibleDescriptionProperty() {
+        return drawPossibleDescription;
+    }
+
+    public String getDrawPossibleDescription() {
+        return drawPossibleDescription.get();
+    }
 }
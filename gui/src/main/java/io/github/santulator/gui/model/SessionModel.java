@@ -24,6 +24,8 @@ public class SessionModel {
 
     private final SimpleObjectProperty<Path> sessionFile = new SimpleObjectProperty<>(null);
 
+    private final SimpleObjectProperty<Long> drawSeed = new SimpleObjectProperty<>(null);
+
     public SessionModel(final I18nManager i18nManager) {
         this(i18nManager, List.of(new ParticipantModel(false)));
     }
@@ -86,4 +88,16 @@ public class SessionModel {
     public SimpleObjectProperty<Path> sessionFileProperty() {
         return sessionFile;
     }
+
+    public SimpleObjectProperty<Long> drawSeedProperty() {
+        return drawSeed;
+    }
+
+    public Long getDrawSeed() {
+        return drawSeed.get();
+    }
+
+    public void setDrawSeed(final Long drawSeed) {
+        this.drawSeed.set(drawSeed);
+    }
 }
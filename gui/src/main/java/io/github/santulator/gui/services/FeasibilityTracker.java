@@ -0,0 +1,139 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.gui.services;
+
+import io.github.santulator.core.ThreadPoolTool;
+import io.github.santulator.gui.model.MainModel;
+import io.github.santulator.gui.model.ParticipantModel;
+import io.github.santulator.gui.model.SessionModel;
+import io.github.santulator.matcher.IncrementalMatcher;
+import io.github.santulator.model.GiverAssignment;
+import io.github.santulator.model.Person;
+import javafx.application.Platform;
+import javafx.collections.ListChangeListener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Keeps the "draw possible" flag of the main model up to date as the
+ * participants are edited.  Changes are collected on the FX thread and,
+ * once editing pauses, applied to an incremental match on a worker thread.
+ */
+@Singleton
+public class FeasibilityTracker {
+    private static final int DEBOUNCE_MILLIS = 300;
+
+    private final ScheduledExecutorService executor;
+
+    private final MainModel mainModel;
+
+    private final Consumer<Runnable> guiThreadRunner;
+
+    private final IncrementalMatcher matcher = new IncrementalMatcher();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicReference<ScheduledFuture<?>> pending = new AtomicReference<>();
+
+    private final ListChangeListener<ParticipantModel> listener = c -> scheduleUpdate();
+
+    private SessionModel sessionModel;
+
+    @Inject
+    public FeasibilityTracker(final ThreadPoolTool threadPoolTool, final MainModel mainModel) {
+        this(threadPoolTool, mainModel, Platform::runLater);
+    }
+
+    public FeasibilityTracker(final ThreadPoolTool threadPoolTool, final MainModel mainModel, final Consumer<Runnable> guiThreadRunner) {
+        this.executor = threadPoolTool.guiThreadPool();
+        this.mainModel = mainModel;
+        this.guiThreadRunner = guiThreadRunner;
+    }
+
+    public void track(final SessionModel model) {
+        if (sessionModel != null) {
+            sessionModel.getParticipants().removeListener(listener);
+        }
+        sessionModel = model;
+        model.getParticipants().addListener(listener);
+        scheduleUpdate();
+    }
+
+    private void scheduleUpdate() {
+        Map<String, Person> people = people(sessionModel.getParticipants());
+        List<GiverAssignment> exclusions = exclusions(people, sessionModel.getParticipants());
+        long current = generation.incrementAndGet();
+        ScheduledFuture<?> previous = pending.getAndSet(
+            executor.schedule(() -> update(current, people, exclusions), DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS));
+
+        if (previous != null) {
+            previous.cancel(false);
+        }
+    }
+
+    /*
+     * An update overtaken by a later edit is skipped, as the later one
+     * brings the match up to date anyway.
+     */
+    private void update(final long current, final Map<String, Person> people, final List<GiverAssignment> exclusions) {
+        boolean isPossible;
+
+        synchronized (matcher) {
+            if (current != generation.get()) {
+                return;
+            }
+            matcher.update(people.values(), exclusions);
+            isPossible = matcher.giverCount() > 0 && matcher.isComplete();
+        }
+        guiThreadRunner.accept(() -> publish(current, isPossible));
+    }
+
+    private void publish(final long current, final boolean isPossible) {
+        if (current == generation.get()) {
+            mainModel.setDrawPossible(isPossible);
+        }
+    }
+
+    private static Map<String, Person> people(final List<ParticipantModel> participants) {
+        Map<String, Person> people = new LinkedHashMap<>();
+
+        for (ParticipantModel participant : participants) {
+            if (!participant.isPlaceholder() && !participant.getName().isEmpty()) {
+                people.putIfAbsent(participant.getName(), new Person(participant.getName(), participant.getRole()));
+            }
+        }
+
+        return people;
+    }
+
+    private static List<GiverAssignment> exclusions(final Map<String, Person> people, final List<ParticipantModel> participants) {
+        List<GiverAssignment> exclusions = new ArrayList<>();
+
+        for (ParticipantModel participant : participants) {
+            Person from = people.get(participant.getName());
+
+            for (String name : participant.getExclusions()) {
+                Person to = people.get(name);
+
+                if (from != null && to != null) {
+                    exclusions.add(new GiverAssignment(from, to));
+                }
+            }
+        }
+
+        return exclusions;
+    }
+}
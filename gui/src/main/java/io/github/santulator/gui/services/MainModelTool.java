@@ -0,0 +1,21 @@
+package io.github.santulator.gui.services;
+
+import io.github.santulator.gui.i18n.I18nKey;
+import io.github.santulator.gui.i18n.I18nManager;
+import io.github.santulator.gui.model.MainModel;
+import javafx.beans.binding.StringBinding;
+
+import static javafx.beans.binding.Bindings.when;
+
+public final class MainModelTool {
+    private MainModelTool() {
+        // Prevent instantiation - all methods are static
+    }
+
+    public static void createBindings(final MainModel model, final I18nManager i18nManager) {
+        StringBinding drawPossibleDescription = when(model.drawPossibleProperty())
+            .then(i18nManager.text(I18nKey.SESSION_DRAW_POSSIBLE))
+            .otherwise(i18nManager.text(I18nKey.SESSION_DRAW_IMPOSSIBLE));
+        model.drawPossibleDescriptionProperty().bind(drawPossibleDescription);
+    }
+}
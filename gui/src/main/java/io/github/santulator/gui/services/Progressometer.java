@@ -12,6 +12,7 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import javax.inject.Inject;
 
 public class Progressometer {
@@ -31,13 +32,27 @@ public class Progressometer {
 
     private final AtomicReference<ScheduledFuture<?>> future = new AtomicReference<>();
 
+    private final Consumer<Runnable> guiThreadRunner;
+
     @Inject
     public Progressometer(final ThreadPoolTool threadPoolTool, final ProgressSequencer sequencer) {
+        this(threadPoolTool, sequencer, Platform::runLater);
+    }
+
+    public Progressometer(final ThreadPoolTool threadPoolTool, final ProgressSequencer sequencer, final Consumer<Runnable> guiThreadRunner) {
         this.threadPoolTool = threadPoolTool;
         this.sequencer = sequencer;
+        this.guiThreadRunner = guiThreadRunner;
     }
 
+    /*
+     * A run that was reset part way, such as a cancelled draw, must not
+     * carry its completed tasks into the next one.
+     */
     public void start(final int size) {
+        cancel();
+        completedCount.set(0);
+
         ScheduledExecutorService executor = threadPoolTool.guiThreadPool();
         int betweenTicks = PROGRESS_WAIT / PROGRESS_TICKS;
         ProgressState state = new ProgressState(sequencer.sequence(size));
@@ -49,19 +64,28 @@ public class Progressometer {
         completedCount.incrementAndGet();
     }
 
+    public void advanceTo(final int completed) {
+        completedCount.accumulateAndGet(completed, Math::max);
+    }
+
+    public int getCompletedCount() {
+        return completedCount.get();
+    }
+
     private void executeTick(final ProgressState state) {
         int tick = state.tick(completedCount.get());
 
         if (state.isComplete()) {
             cancel();
-            Platform.runLater(() -> complete.set(true));
+            guiThreadRunner.accept(() -> complete.set(true));
         }
-        Platform.runLater(() -> progress.set((double) tick / PROGRESS_TICKS));
+        guiThreadRunner.accept(() -> progress.set((double) tick / PROGRESS_TICKS));
     }
 
     public void reset() {
         cancel();
-        Platform.runLater(this::resetProperties);
+        completedCount.set(0);
+        guiThreadRunner.accept(this::resetProperties);
     }
 
     private void cancel() {
@@ -31,6 +31,7 @@ public class SessionModelTool {
 
         model.setDrawName(state.getDrawName());
         model.setPassword(state.getPassword());
+        model.setDrawSeed(state.getDrawSeed());
         model.setSessionFile(file);
 
         return model;
@@ -58,6 +59,7 @@ public class SessionModelTool {
         state.setParticipants(participants);
         state.setDrawName(model.getDrawName());
         state.setPassword(model.getPassword());
+        state.setDrawSeed(model.getDrawSeed());
 
         return state;
     }
@@ -12,7 +12,17 @@ public final class UnsavedChangesTool {
     public static void createBindings(final SessionModel model) {
         model.drawNameProperty().addListener((o, old, v) -> markUnsavedChanges(model));
         model.passwordProperty().addListener((o, old, v) -> markUnsavedChanges(model));
-        model.getParticipants().addListener((ListChangeListener<ParticipantModel>) c -> markUnsavedChanges(model));
+        model.drawSeedProperty().addListener((o, old, v) -> markUnsavedChanges(model));
+        model.getParticipants().addListener((ListChangeListener<ParticipantModel>) c -> markParticipantsChanged(model));
+    }
+
+    /*
+     * The seed of the last draw only reproduces it for the participants it
+     * was drawn with.
+     */
+    private static void markParticipantsChanged(final SessionModel model) {
+        model.setDrawSeed(null);
+        markUnsavedChanges(model);
     }
 
     private static void markUnsavedChanges(final SessionModel model) {
@@ -0,0 +1,107 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.gui.validator;
+
+import io.github.santulator.core.CoreConstants;
+import io.github.santulator.gui.model.ParticipantModel;
+import io.github.santulator.model.GiverAssignment;
+import io.github.santulator.model.Person;
+
+import java.util.*;
+
+import static io.github.santulator.gui.i18n.I18nKey.*;
+
+/**
+ * One pass to index the participants by name and count their roles, then a
+ * second that checks every row against the index, in row order.  The
+ * exclusions that name known participants are gathered along the way for
+ * the check that the draw is possible.
+ */
+final class ParticipantIndexer {
+    private final Map<String, Person> people = new LinkedHashMap<>();
+
+    private final Map<String, ParticipantModel> firstByName = new HashMap<>();
+
+    private final Set<GiverAssignment> restrictions = new HashSet<>();
+
+    private final List<ValidationError> errors = new ArrayList<>();
+
+    private int givers;
+
+    private int receivers;
+
+    ParticipantIndexer(final List<ParticipantModel> participants) {
+        for (ParticipantModel participant : participants) {
+            people.putIfAbsent(participant.getName(), new Person(participant.getName(), participant.getRole()));
+            if (participant.getRole().isGiver()) {
+                givers++;
+            }
+            if (participant.getRole().isReceiver()) {
+                receivers++;
+            }
+        }
+        participants.forEach(this::checkRow);
+    }
+
+    /*
+     * Every row without a name is already reported, so it is not also
+     * reported as a duplicate of the first row without a name.
+     */
+    private void checkRow(final ParticipantModel participant) {
+        ParticipantModel first = firstByName.putIfAbsent(participant.getName().toLowerCase(CoreConstants.LOCALE), participant);
+
+        if (participant.getName().isEmpty()) {
+            errors.add(new ValidationError(VALIDATION_NAME, participant.getRowNumber()));
+        } else if (first != null) {
+            errors.add(new ValidationError(VALIDATION_DUPLICATE, first.getName(), first.getRowNumber(), participant.getRowNumber()));
+        }
+        checkExclusions(participant);
+    }
+
+    private void checkExclusions(final ParticipantModel participant) {
+        Set<String> excluded = new HashSet<>();
+        Set<String> repeated = new LinkedHashSet<>();
+
+        for (String exclusion : participant.getExclusions()) {
+            if (excluded.add(exclusion)) {
+                addRestriction(participant, exclusion);
+            } else {
+                repeated.add(exclusion);
+            }
+        }
+        repeated.forEach(n -> errors.add(new ValidationError(VALIDATION_EXCLUSION_REPEAT, participant.getRowNumber(), n)));
+        if (excluded.contains(participant.getName())) {
+            errors.add(new ValidationError(VALIDATION_EXCLUSION_SELF, participant.getRowNumber(), participant.getName()));
+        }
+    }
+
+    private void addRestriction(final ParticipantModel participant, final String exclusion) {
+        if (people.containsKey(exclusion)) {
+            restrictions.add(new GiverAssignment(people.get(participant.getName()), people.get(exclusion)));
+        } else {
+            errors.add(new ValidationError(VALIDATION_EXCLUSION_UNKNOWN, participant.getName(), participant.getRowNumber(), exclusion));
+        }
+    }
+
+    public int giverCount() {
+        return givers;
+    }
+
+    public int receiverCount() {
+        return receivers;
+    }
+
+    public Collection<Person> people() {
+        return people.values();
+    }
+
+    public Set<GiverAssignment> restrictions() {
+        return restrictions;
+    }
+
+    public List<ValidationError> errors() {
+        return errors;
+    }
+}
@@ -2,8 +2,11 @@ package io.github.santulator.gui.validator;
 
 import io.github.santulator.gui.model.SessionModel;
 
-import java.util.Optional;
+import java.util.List;
 
 public interface ValidationService {
-    Optional<ValidationError> validate(SessionModel model);
+    /**
+     * Every problem with the participants, in the order of their rows.
+     */
+    List<ValidationError> validate(SessionModel model);
 }
@@ -11,6 +11,7 @@ import io.github.santulator.test.core.TestFileManager;
 import javafx.application.Platform;
 import javafx.beans.value.ObservableBooleanValue;
 import javafx.scene.Node;
+import javafx.scene.control.Labeled;
 import javafx.scene.control.TextInputControl;
 import javafx.scene.input.KeyCode;
 import org.slf4j.Logger;
@@ -36,6 +37,8 @@ public class GuiTestSteps {
 
     private static final int BRIEF_PAUSE_MILLIS = 100;
 
+    private static final String DRAW_POSSIBLE = "The draw can be run with these participants";
+
     private final FxRobot robot;
 
     private final GuiTestValidator validator;
@@ -99,6 +102,11 @@ public class GuiTestSteps {
             verifyThat("#listParticipants", hasItems(5));
         });
 
+        step("Show that the draw is possible", () -> {
+            waitUntilText("#labelDrawPossible", DRAW_POSSIBLE);
+            verifyThat("#labelDrawPossible", hasText(DRAW_POSSIBLE));
+        });
+
         step("Save the session", () -> {
             validator.setUpFileDialogue(FileDialogueType.SAVE_SESSION, FileFormatType.SESSION, sessionFile);
             robot.clickOn("#buttonSave");
@@ -265,6 +273,13 @@ public class GuiTestSteps {
         briefPause();
     }
 
+    private void waitUntilText(final String query, final String text) {
+        Labeled label = robot.lookup(query).queryLabeled();
+        ObservableBooleanValue property = label.textProperty().isEqualTo(text);
+
+        waitForProperty(property, query);
+    }
+
     private void clearField(final String query) {
         TextInputControl control = robot.lookup(query).queryTextInputControl();
         ObservableBooleanValue property = control.textProperty().isEmpty();
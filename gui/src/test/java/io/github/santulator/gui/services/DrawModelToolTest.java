@@ -2,6 +2,7 @@ package io.github.santulator.gui.services;
 
 import io.github.santulator.gui.model.DrawModel;
 import io.github.santulator.gui.model.DrawWizardPage;
+import io.github.santulator.matcher.SearchMonitor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -10,6 +11,8 @@ import java.nio.file.Paths;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class DrawModelToolTest {
     private static final String RESULT_DESCRIPTION = "RESULT_DESCRIPTION";
@@ -111,6 +114,59 @@ public class DrawModelToolTest {
         validate(false, RESULT_DESCRIPTION, SAVED_DESCRIPTION);
     }
 
+    @Test
+    public void testDrawRunning() {
+        model.startDraw(new SearchMonitor());
+        assertAll(
+            () -> assertTrue(model.isDrawStarted()),
+            () -> assertTrue(model.isDrawRunning()),
+            () -> assertTrue(model.isBlockNext())
+        );
+    }
+
+    @Test
+    public void testDrawFinished() {
+        model.startDraw(new SearchMonitor());
+        model.finishDraw();
+        assertAll(
+            () -> assertTrue(model.isDrawStarted()),
+            () -> assertFalse(model.isDrawRunning())
+        );
+    }
+
+    @Test
+    public void testDrawCancelled() {
+        SearchMonitor monitor = new SearchMonitor();
+
+        model.startDraw(monitor);
+        model.cancelDraw();
+        assertAll(
+            () -> assertTrue(monitor.isCancelled()),
+            () -> assertTrue(model.isDrawCancelled())
+        );
+    }
+
+    @Test
+    public void testRunAllowedAfterCancel() {
+        model.startDraw(new SearchMonitor());
+        model.cancelDraw();
+        model.resetDraw();
+        assertAll(
+            () -> assertFalse(model.isDrawStarted()),
+            () -> assertFalse(model.isDrawRunning()),
+            () -> assertTrue(model.isBlockNext())
+        );
+    }
+
+    @Test
+    public void testDrawRestartedAfterCancel() {
+        model.startDraw(new SearchMonitor());
+        model.cancelDraw();
+        model.resetDraw();
+        model.startDraw(new SearchMonitor());
+        assertFalse(model.isDrawCancelled());
+    }
+
     private void validate(final boolean isNextBlocked, final String drawDescription, final String saveDescription) {
         assertAll(
             () -> assertEquals(isNextBlocked, model.isBlockNext()),
@@ -0,0 +1,89 @@
+/*
+ * Open Source Software published under the Apache Licence, Version 2.0.
+ */
+
+package io.github.santulator.gui.services;
+
+import io.github.santulator.core.ThreadPoolTool;
+import io.github.santulator.gui.i18n.I18nManagerImpl;
+import io.github.santulator.gui.model.MainModel;
+import io.github.santulator.gui.model.ParticipantModel;
+import io.github.santulator.gui.model.SessionModel;
+import io.github.santulator.model.ParticipantRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class FeasibilityTrackerTest {
+    @Mock
+    private ThreadPoolTool threadPoolTool;
+
+    @Mock
+    private ScheduledExecutorService executorService;
+
+    @Captor
+    private ArgumentCaptor<Runnable> captor;
+
+    private final MainModel mainModel = new MainModel();
+
+    private final SessionModel sessionModel = new SessionModel(new I18nManagerImpl(), List.of(
+        new ParticipantModel("Albert", ParticipantRole.BOTH), new ParticipantModel("Beryl", ParticipantRole.BOTH)));
+
+    private FeasibilityTracker target;
+
+    @BeforeEach
+    public void setUp() {
+        when(threadPoolTool.guiThreadPool()).thenReturn(executorService);
+        target = new FeasibilityTracker(threadPoolTool, mainModel, Runnable::run);
+    }
+
+    @Test
+    public void testPossible() {
+        target.track(sessionModel);
+        runLatestUpdate();
+
+        assertTrue(mainModel.isDrawPossible());
+    }
+
+    @Test
+    public void testImpossible() {
+        target.track(sessionModel);
+        sessionModel.getParticipants().get(0).setExclusions("Beryl");
+        runLatestUpdate();
+
+        assertFalse(mainModel.isDrawPossible());
+    }
+
+    @Test
+    public void testSupersededUpdate() {
+        target.track(sessionModel);
+        runLatestUpdate();
+        sessionModel.getParticipants().get(0).setExclusions("Beryl");
+        verify(executorService, atLeastOnce()).schedule(captor.capture(), anyLong(), eq(TimeUnit.MILLISECONDS));
+        captor.getAllValues().get(0).run();
+
+        assertTrue(mainModel.isDrawPossible());
+    }
+
+    private void runLatestUpdate() {
+        verify(executorService, atLeastOnce()).schedule(captor.capture(), anyLong(), eq(TimeUnit.MILLISECONDS));
+        captor.getValue().run();
+    }
+}
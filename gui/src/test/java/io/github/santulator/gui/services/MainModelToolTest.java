@@ -0,0 +1,39 @@
+package io.github.santulator.gui.services;
+
+import io.github.santulator.gui.i18n.I18nManagerImpl;
+import io.github.santulator.gui.model.MainModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class MainModelToolTest {
+    private static final String POSSIBLE = "The draw can be run with these participants";
+
+    private static final String IMPOSSIBLE = "The draw can't be run yet - add more participants or remove some exclusions";
+
+    private final MainModel model = new MainModel();
+
+    @BeforeEach
+    public void setUp() {
+        MainModelTool.createBindings(model, new I18nManagerImpl());
+    }
+
+    @Test
+    public void testInitial() {
+        assertEquals(IMPOSSIBLE, model.getDrawPossibleDescription());
+    }
+
+    @Test
+    public void testDrawPossible() {
+        model.setDrawPossible(true);
+        assertEquals(POSSIBLE, model.getDrawPossibleDescription());
+    }
+
+    @Test
+    public void testDrawNoLongerPossible() {
+        model.setDrawPossible(true);
+        model.setDrawPossible(false);
+        assertEquals(IMPOSSIBLE, model.getDrawPossibleDescription());
+    }
+}
@@ -0,0 +1,99 @@
+package io.github.santulator.gui.services;
+
+import io.github.santulator.core.ThreadPoolTool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ProgressometerTest {
+    private static final int SIZE = 20;
+
+    private static final int TICKS = 100;
+
+    @Mock
+    private ThreadPoolTool threadPoolTool;
+
+    @Mock
+    private ScheduledExecutorService executorService;
+
+    @Mock
+    private ProgressSequencer sequencer;
+
+    @Captor
+    private ArgumentCaptor<Runnable> captor;
+
+    private Progressometer target;
+
+    @BeforeEach
+    public void setUp() {
+        when(threadPoolTool.guiThreadPool()).thenReturn(executorService);
+        when(sequencer.sequence(anyInt())).thenReturn(List.of(new ProgressPoint(TICKS, SIZE)));
+        target = new Progressometer(threadPoolTool, sequencer, Runnable::run);
+    }
+
+    @Test
+    public void testAdvance() {
+        target.start(SIZE);
+        target.advanceTo(SIZE / 2);
+
+        assertEquals(SIZE / 2, target.getCompletedCount());
+    }
+
+    @Test
+    public void testReset() {
+        target.start(SIZE);
+        target.advanceTo(SIZE);
+        target.reset();
+
+        assertEquals(0, target.getCompletedCount());
+    }
+
+    @Test
+    public void testRestartAfterReset() {
+        target.start(SIZE);
+        target.advanceTo(SIZE);
+        target.reset();
+        target.start(SIZE);
+
+        assertEquals(0, target.getCompletedCount());
+    }
+
+    @Test
+    public void testRestartNotComplete() {
+        target.start(SIZE);
+        target.advanceTo(SIZE);
+        target.reset();
+        target.start(SIZE);
+        runLatestTicks();
+
+        assertFalse(target.completeProperty().get());
+    }
+
+    private void runLatestTicks() {
+        verify(executorService, atLeastOnce()).scheduleAtFixedRate(captor.capture(), anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS));
+
+        Runnable tick = captor.getValue();
+
+        for (int i = 0; i < TICKS; i++) {
+            tick.run();
+        }
+    }
+}
@@ -20,6 +20,8 @@ public class SessionModelToolTest {
 
     private static final Path FILE = Paths.get("FILE");
 
+    private static final Long DRAW_SEED = 1234L;
+
     private static final int INDEX_ALBERT = 0;
 
     private static final int INDEX_BERYL = 1;
@@ -100,6 +102,20 @@ public class SessionModelToolTest {
         );
     }
 
+    @Test
+    public void testDrawSeed() {
+        SessionState input = buildFullState();
+
+        input.setDrawSeed(DRAW_SEED);
+
+        SessionModel model = target.buildGuiModel(input, FILE);
+
+        assertAll(
+            () -> assertEquals(DRAW_SEED, model.getDrawSeed(), "GUI model"),
+            () -> assertEquals(input, target.buildFileModel(model), "File model")
+        );
+    }
+
     @Test
     public void testBuildFileModel() {
         List<ParticipantModel> participants = List.of(albert, beryl, carla, david, edith, fred, gina, harry, iris, john, kate);
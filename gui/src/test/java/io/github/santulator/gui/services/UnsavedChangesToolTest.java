@@ -9,10 +9,14 @@ import org.junit.jupiter.api.Test;
 
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class UnsavedChangesToolTest {
+    private static final Long SEED = 1234L;
+
     private final I18nManager i18nManager = new I18nManagerImpl();
 
     private final ParticipantModel participant = new ParticipantModel();
@@ -85,6 +89,26 @@ public class UnsavedChangesToolTest {
         assertFalse(model.isChangesSaved());
     }
 
+    @Test
+    public void testParticipantChangeClearsSeed() {
+        SessionModel model = createBoundModelWithParticipant();
+
+        model.setDrawSeed(SEED);
+        participant.setName("New Name");
+
+        assertNull(model.getDrawSeed());
+    }
+
+    @Test
+    public void testDrawNameChangeKeepsSeed() {
+        SessionModel model = createBoundModelWithParticipant();
+
+        model.setDrawSeed(SEED);
+        model.setDrawName("Updated");
+
+        assertEquals(SEED, model.getDrawSeed());
+    }
+
     @Test
     public void testSetParticipantPlaceholderStatus() {
         SessionModel model = createBoundModelWithParticipant();
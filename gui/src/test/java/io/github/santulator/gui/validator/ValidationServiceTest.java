@@ -10,9 +10,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
-import java.util.Optional;
 
 import static io.github.santulator.model.ParticipantRole.*;
+import static java.util.stream.Collectors.toList;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class ValidationServiceTest {
@@ -34,9 +34,9 @@ public class ValidationServiceTest {
         addParticipant("Albert");
         addParticipant("Beryl");
 
-        Optional<ValidationError> result = target.validate(model);
+        List<ValidationError> result = target.validate(model);
 
-        assertFalse(result.isPresent());
+        assertEquals(List.of(), result);
     }
 
     @Test
@@ -65,6 +65,17 @@ public class ValidationServiceTest {
         validate("The person on line 2 has no name.  Make sure all of the participants are named or delete those you don't need.");
     }
 
+    @Test
+    public void testSeveralEmptyParticipants() {
+        addParticipant("");
+        addParticipant("Albert");
+        addParticipant("");
+        validate(
+            "The person on line 1 has no name.  Make sure all of the participants are named or delete those you don't need.",
+            "The person on line 3 has no name.  Make sure all of the participants are named or delete those you don't need."
+        );
+    }
+
     @Test
     public void testDuplicateParticipant() {
         addParticipant("Albert");
@@ -123,7 +134,42 @@ public class ValidationServiceTest {
     public void testDrawImpossible() {
         addParticipant("Albert");
         addParticipant("Beryl", "Albert");
-        validate("It isn't possible to run this draw as there are too many exclusions. You will need to remove some of the restrictions.");
+        validate("It isn't possible to run this draw as there are too many exclusions. 'Beryl' cannot give a present to anyone. You will need to remove some of the restrictions.");
+    }
+
+    @Test
+    public void testDrawImpossibleForGroup() {
+        addParticipant("Albert", "Beryl", "Derek");
+        addParticipant("Beryl", "Albert", "Derek");
+        addParticipant("Carla");
+        addParticipant("Derek");
+        validate("It isn't possible to run this draw as there are too many exclusions. "
+            + "Between them, 'Albert', 'Beryl' can only give presents to 'Carla'. You will need to remove some of the restrictions.");
+    }
+
+    @Test
+    public void testAllErrorsByRow() {
+        addParticipant("Albert", "Derek", "albert", "albert");
+        addParticipant("");
+        addParticipant("albert", "albert");
+        validate(
+            "'Albert' on line 1 excludes 'Derek' but 'Derek' isn't listed as a participant.",
+            "On line 1, 'albert' is excluded more than once.",
+            "The person on line 2 has no name.  Make sure all of the participants are named or delete those you don't need.",
+            "'Albert' is listed as a participant on line 1 but also on line 3.  Participant names must be unique.",
+            "On line 3, 'albert' is the name of the participant but is also listed as an exclusion.  A participant cannot exclude themself."
+        );
+    }
+
+    @Test
+    public void testRoleCountsAfterRows() {
+        addParticipant("Albert", GIVER);
+        addParticipant("Beryl", GIVER, "Carla", "Carla");
+        addParticipant("Carla", RECEIVER);
+        validate(
+            "On line 2, 'Carla' is excluded more than once.",
+            "2 participants will give a present but only 1 participant will receive a present. The number of present givers must be the same as the number of present receivers."
+        );
     }
 
     private void addParticipant(final String name, final String... exclusions) {
@@ -138,10 +184,11 @@ public class ValidationServiceTest {
         participant.setExclusions(exclusions);
     }
 
-    private void validate(final String expected) {
-        Optional<ValidationError> result = target.validate(model);
+    private void validate(final String... expected) {
+        List<String> result = target.validate(model).stream()
+            .map(e -> e.getMessage(i18nManager))
+            .collect(toList());
 
-        assertTrue(result.isPresent());
-        assertEquals(expected, result.get().getMessage(i18nManager));
+        assertEquals(List.of(expected), result);
     }
 }
\ No newline at end of file
@@ -4,17 +4,17 @@ import io.github.santulator.model.DrawRequirements;
 import io.github.santulator.model.ParticipantRole;
 import io.github.santulator.model.Person;
 import io.github.santulator.model.Restriction;
+import io.github.santulator.model.RestrictionRule;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
 
 public class RequirementsBuilder {
     private final Map<String, Person> people = new HashMap<>();
 
     private final Set<Restriction> restrictions = new HashSet<>();
 
+    private final List<RestrictionRule> rules = new ArrayList<>();
+
     public RequirementsBuilder person(final String name, final ParticipantRole role) {
         people.put(name, new Person(name, role));
 
@@ -36,7 +36,13 @@ public class RequirementsBuilder {
         return this;
     }
 
+    public RequirementsBuilder rule(final RestrictionRule rule) {
+        rules.add(rule);
+
+        return this;
+    }
+
     public DrawRequirements build() {
-        return new DrawRequirements(people.values(), restrictions);
+        return new DrawRequirements(people.values(), restrictions, rules);
     }
 }